@@ -7,21 +7,30 @@ const Appointments = ({ token, onLogout }) => {
   const [appointments, setAppointments] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const navigate = useNavigate();
 
   useEffect(() => {
     fetchAppointments();
   }, []);
 
+  const PAGE_SIZE = 100;
+
+  const fetchAppointmentsPage = (after) =>
+    axios.get('http://localhost:8080/adsweb/api/v1/appointments', {
+      headers: {
+        'Authorization': `Bearer ${token}`
+      },
+      params: after ? { limit: PAGE_SIZE, after } : { limit: PAGE_SIZE }
+    });
+
   const fetchAppointments = async () => {
     try {
       setLoading(true);
-      const response = await axios.get('http://localhost:8080/adsweb/api/v1/appointments', {
-        headers: {
-          'Authorization': `Bearer ${token}`
-        }
-      });
+      const response = await fetchAppointmentsPage(null);
       setAppointments(response.data);
+      setNextCursor(response.headers['x-next-cursor'] || null);
       setError('');
     } catch (err) {
       setError('Failed to fetch appointments. Please try again.');
@@ -33,6 +42,20 @@ const Appointments = ({ token, onLogout }) => {
     }
   };
 
+  const loadMoreAppointments = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const response = await fetchAppointmentsPage(nextCursor);
+      setAppointments((prev) => [...prev, ...response.data]);
+      setNextCursor(response.headers['x-next-cursor'] || null);
+    } catch (err) {
+      setError('Failed to fetch appointments. Please try again.');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleLogout = () => {
     onLogout();
     navigate('/login');
@@ -170,6 +193,14 @@ const Appointments = ({ token, onLogout }) => {
           </div>
         )}
 
+        {!loading && nextCursor && (
+          <div className="load-more-section">
+            <button type="button" onClick={loadMoreAppointments} className="load-more-button" disabled={loadingMore}>
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          </div>
+        )}
+
         <div className="summary-section">
           <div className="summary-card">
             <div className="summary-icon">
@@ -179,7 +210,7 @@ const Appointments = ({ token, onLogout }) => {
             </div>
             <div className="summary-content">
               <div className="summary-number">{appointments.length}</div>
-              <div className="summary-label">Total Appointments</div>
+              <div className="summary-label">{nextCursor ? 'Appointments Loaded' : 'Total Appointments'}</div>
             </div>
           </div>
         </div>
@@ -43,40 +43,69 @@ function Chatbot({ token }) {
     setInputMessage('');
     setIsLoading(true);
 
+    // The bot reply is added right away and filled in as server-sent events arrive
+    const botId = Date.now() + 1;
+    const updateBot = (update) =>
+      setMessages((prev) => prev.map((m) => (m.id === botId ? { ...m, ...update(m) } : m)));
+    setMessages((prev) => [...prev, { id: botId, message: '', sender: 'bot', timestamp: Date.now(), data: null }]);
+
+    const handleEvent = (name, payload) => {
+      if (name === 'intent') {
+        setIsLoading(false);
+      } else if (name === 'text') {
+        updateBot((m) => ({ message: m.message + payload.delta }));
+      } else if (name === 'rows') {
+        updateBot((m) => ({ type: payload.type, data: [...(m.data || []), ...payload.rows] }));
+      } else if (name === 'done') {
+        updateBot((m) => ({
+          message: payload.message,
+          type: payload.type,
+          data: payload.data ?? m.data,
+          suggestions: payload.suggestions,
+        }));
+      }
+    };
+
     try {
-      const response = await fetch(`${API_BASE_URL}/chatbot/message`, {
+      const response = await fetch(`${API_BASE_URL}/chatbot/stream`, {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
+          Accept: 'text/event-stream',
           Authorization: `Bearer ${token}`,
         },
         body: JSON.stringify({ message: inputMessage }),
       });
 
-      if (!response.ok) {
+      if (!response.ok || !response.body) {
         throw new Error('Failed to get response');
       }
 
-      const data = await response.json();
-      
-      const botMessage = {
-        message: data.message,
-        sender: 'bot',
-        timestamp: Date.now(),
-        type: data.type,
-        data: data.data,
-        suggestions: data.suggestions,
-      };
+      const reader = response.body.getReader();
+      const decoder = new TextDecoder();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true });
 
-      setMessages((prev) => [...prev, botMessage]);
+        // Events are separated by a blank line; each has an "event:" name and a "data:" line
+        let boundary;
+        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+          const frame = buffer.slice(0, boundary);
+          buffer = buffer.slice(boundary + 2);
+          let name = 'message';
+          let data = '';
+          frame.split('\n').forEach((line) => {
+            if (line.startsWith('event:')) name = line.slice(6).trim();
+            else if (line.startsWith('data:')) data += line.slice(5);
+          });
+          if (data) handleEvent(name, JSON.parse(data));
+        }
+      }
     } catch (error) {
       console.error('Error sending message:', error);
-      const errorMessage = {
-        message: "Sorry, I'm having trouble connecting. Please try again.",
-        sender: 'bot',
-        timestamp: Date.now(),
-      };
-      setMessages((prev) => [...prev, errorMessage]);
+      updateBot(() => ({ message: "Sorry, I'm having trouble connecting. Please try again." }));
     } finally {
       setIsLoading(false);
     }
@@ -216,7 +245,7 @@ function Chatbot({ token }) {
           </div>
 
           <div className="chatbot-messages">
-            {messages.map((msg, index) => (
+            {messages.filter((msg) => msg.sender !== 'bot' || msg.message || msg.data).map((msg, index) => (
               <div key={index} className={`message ${msg.sender}`}>
                 <div className="message-content">
                   {renderMessageContent(msg)}
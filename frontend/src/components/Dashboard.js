@@ -1,10 +1,24 @@
-import React from 'react';
+import React, { useState, useEffect } from 'react';
 import { Link, useNavigate } from 'react-router-dom';
+import axios from 'axios';
 import './Dashboard.css';
 
-const Dashboard = ({ onLogout }) => {
+const Dashboard = ({ token, onLogout }) => {
+  const [stats, setStats] = useState(null);
   const navigate = useNavigate();
 
+  useEffect(() => {
+    axios.get('http://localhost:8080/adsweb/api/v1/stats', {
+      headers: {
+        'Authorization': `Bearer ${token}`
+      }
+    })
+      .then(response => setStats(response.data))
+      .catch(() => setStats(null));
+  }, [token]);
+
+  const today = new Date().toLocaleDateString('en-CA');
+
   const handleLogout = () => {
     onLogout();
     navigate('/login');
@@ -122,16 +136,20 @@ const Dashboard = ({ onLogout }) => {
 
         <div className="stats-section">
           <div className="stat-card">
-            <div className="stat-number">500+</div>
+            <div className="stat-number">{stats ? stats.patients : '—'}</div>
             <div className="stat-label">Total Patients</div>
           </div>
           <div className="stat-card">
-            <div className="stat-number">95%</div>
-            <div className="stat-label">Satisfaction Rate</div>
+            <div className="stat-number">{stats ? stats.dentists : '—'}</div>
+            <div className="stat-label">Dentists</div>
+          </div>
+          <div className="stat-card">
+            <div className="stat-number">{stats ? stats.appointments : '—'}</div>
+            <div className="stat-label">Appointments</div>
           </div>
           <div className="stat-card">
-            <div className="stat-number">24/7</div>
-            <div className="stat-label">Support Available</div>
+            <div className="stat-number">{stats ? (stats.appointmentsPerDay[today] || 0) : '—'}</div>
+            <div className="stat-label">Appointments Today</div>
           </div>
         </div>
       </div>
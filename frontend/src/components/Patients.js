@@ -8,21 +8,30 @@ const Patients = ({ token, onLogout }) => {
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [searchTerm, setSearchTerm] = useState('');
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const navigate = useNavigate();
 
   useEffect(() => {
     fetchPatients();
   }, []);
 
+  const PAGE_SIZE = 50;
+
+  const fetchPatientsPage = (after) =>
+    axios.get('http://localhost:8080/adsweb/api/v1/patients', {
+      headers: {
+        'Authorization': `Bearer ${token}`
+      },
+      params: after ? { limit: PAGE_SIZE, after } : { limit: PAGE_SIZE }
+    });
+
   const fetchPatients = async () => {
     try {
       setLoading(true);
-      const response = await axios.get('http://localhost:8080/adsweb/api/v1/patients', {
-        headers: {
-          'Authorization': `Bearer ${token}`
-        }
-      });
+      const response = await fetchPatientsPage(null);
       setPatients(response.data);
+      setNextCursor(response.headers['x-next-cursor'] || null);
       setError('');
     } catch (err) {
       setError('Failed to fetch patients. Please try again.');
@@ -34,6 +43,20 @@ const Patients = ({ token, onLogout }) => {
     }
   };
 
+  const loadMorePatients = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const response = await fetchPatientsPage(nextCursor);
+      setPatients((prev) => [...prev, ...response.data]);
+      setNextCursor(response.headers['x-next-cursor'] || null);
+    } catch (err) {
+      setError('Failed to fetch patients. Please try again.');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleSearch = async (e) => {
     e.preventDefault();
     if (!searchTerm.trim()) {
@@ -49,6 +72,7 @@ const Patients = ({ token, onLogout }) => {
         }
       });
       setPatients(response.data);
+      setNextCursor(null);
       setError('');
     } catch (err) {
       setError('Search failed. Please try again.');
@@ -171,6 +195,14 @@ const Patients = ({ token, onLogout }) => {
             )}
           </div>
         )}
+
+        {!loading && nextCursor && (
+          <div className="load-more-section">
+            <button type="button" onClick={loadMorePatients} className="search-button" disabled={loadingMore}>
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
@@ -0,0 +1,18 @@
+package edu.miu.cs489.dental.configuration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ConditionalGetConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConditionalGetInterceptor(dataVersions)).addPathPatterns("/adsweb/api/v1/**");
+    }
+}
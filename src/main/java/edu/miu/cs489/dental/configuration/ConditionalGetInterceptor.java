@@ -0,0 +1,53 @@
+package edu.miu.cs489.dental.configuration;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Conditional GET for {@link VersionedBy} handlers. The entity tag comes from in-memory version
+ * counters, so an unchanged resource is answered with 304 before any connection is borrowed.
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final DataVersions dataVersions;
+
+    public ConditionalGetInterceptor(DataVersions dataVersions) {
+        this.dataVersions = dataVersions;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        VersionedBy versionedBy = method.getMethodAnnotation(VersionedBy.class);
+        if (versionedBy == null || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+
+        String etag = dataVersions.etag(versionedBy.value());
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // Clients may keep the body but must revalidate it; this also keeps Spring Security's no-store away
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        return true;
+    }
+
+    // If-None-Match uses the weak comparison
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+}
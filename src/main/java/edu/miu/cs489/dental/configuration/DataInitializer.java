@@ -14,10 +14,12 @@ import edu.miu.cs489.dental.repository.PatientRepository;
 import edu.miu.cs489.dental.repository.RoleRepository;
 import edu.miu.cs489.dental.repository.SurgeryRepository;
 import edu.miu.cs489.dental.repository.UserRepository;
+import edu.miu.cs489.dental.service.PatientService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -39,11 +41,22 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private PatientService patientService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    // One transaction, so the sample rows are flushed together as batched inserts at commit
     @Override
+    @Transactional
     public void run(String... args) throws Exception {
+        // Patients saved before the last-name sort key existed need it filled in once
+        int backfilled = patientService.backfillLastNameKeys();
+        if (backfilled > 0) {
+            System.out.println("Backfilled last-name sort key for " + backfilled + " patient(s).");
+        }
+
         // Check if data already exists to prevent duplicate insertion
         if (userRepository.findByUsername("admin").isPresent()) {
             System.out.println("Data already initialized. Skipping data initialization.");
@@ -0,0 +1,70 @@
+package edu.miu.cs489.dental.configuration;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JPA entity listener that bumps the {@link DataVersions} of the aggregates a transaction changed.
+ * Aggregates are collected per transaction and bumped once after it commits, so a bulk write costs
+ * one bump per aggregate and a rolled-back one costs nothing.
+ */
+@Component
+public class DataVersionListener {
+
+    @Autowired
+    @Lazy
+    private DataVersions dataVersions;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        String aggregate = DataVersions.aggregateOf(entity);
+        if (aggregate == null) return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(List.of(aggregate));
+            return;
+        }
+        // Synchronizations are scoped to the current transaction (suspended with it), unlike bound resources
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingAggregates pending) {
+                pending.aggregates.add(aggregate);
+                return;
+            }
+        }
+        PendingAggregates pending = new PendingAggregates();
+        pending.aggregates.add(aggregate);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    private class PendingAggregates implements TransactionSynchronization {
+
+        private final Set<String> aggregates = new LinkedHashSet<>();
+
+        @Override
+        public void afterCommit() {
+            publish(aggregates);
+        }
+    }
+
+    private void publish(Collection<String> aggregates) {
+        try {
+            dataVersions.changed(aggregates);
+        } catch (RuntimeException e) {
+            // The write itself has committed; caches and entity tags catch up on expiry or the next bump
+            System.err.println("Could not bump data versions of " + aggregates + ": " + e.getMessage());
+        }
+    }
+}
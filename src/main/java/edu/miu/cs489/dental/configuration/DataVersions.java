@@ -0,0 +1,189 @@
+package edu.miu.cs489.dental.configuration;
+
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Appointment;
+import edu.miu.cs489.dental.model.DataVersion;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.model.Role;
+import edu.miu.cs489.dental.model.Surgery;
+import edu.miu.cs489.dental.repository.DataVersionRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Monotonic change counter per aggregate, shared by all replicas through {@link DataVersion}.
+ * Every committed write bumps its aggregate's counter (see {@link DataVersionListener}). This
+ * replica sees its own bumps at once and another replica's within one poll interval; the latter
+ * are also handed to the {@link #onRemoteChange} listeners. A counter only moves after the write
+ * it stands for has committed, so data read after reading a counter is at least that new.
+ */
+@Component
+public class DataVersions {
+
+    public static final String PATIENTS = "patients";
+    public static final String DENTISTS = "dentists";
+    public static final String SURGERIES = "surgeries";
+    public static final String APPOINTMENTS = "appointments";
+    public static final String ADDRESSES = "addresses";
+    public static final String ROLES = "roles";
+
+    public static final List<String> AGGREGATES = List.of(PATIENTS, DENTISTS, SURGERIES, APPOINTMENTS, ADDRESSES, ROLES);
+
+    @Autowired
+    private DataVersionRepository versionRepository;
+
+    @Value("${cache.invalidation.poll-ms:2000}")
+    private long pollMillis;
+
+    private TransactionTemplate bumpTransaction;
+
+    // Latest counter value this replica knows of, per aggregate
+    private final Map<String, Long> current = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> remoteChangeListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean rowsCreated = false;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "data-version-poller");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        // Bumps run after the changing transaction has committed, so they need their own
+        this.bumpTransaction = new TransactionTemplate(transactionManager);
+        this.bumpTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The aggregate {@code entity} belongs to, or null if its changes are not versioned.
+     */
+    public static String aggregateOf(Object entity) {
+        if (entity instanceof Patient) return PATIENTS;
+        if (entity instanceof Dentist) return DENTISTS;
+        if (entity instanceof Surgery) return SURGERIES;
+        if (entity instanceof Appointment) return APPOINTMENTS;
+        if (entity instanceof Address) return ADDRESSES;
+        if (entity instanceof Role) return ROLES;
+        return null;
+    }
+
+    /**
+     * Called with the aggregate's name whenever a change made by another replica is noticed.
+     */
+    public void onRemoteChange(Consumer<String> listener) {
+        remoteChangeListeners.add(listener);
+    }
+
+    public long current(String aggregate) {
+        return current.getOrDefault(aggregate, 0L);
+    }
+
+    /**
+     * A strong entity tag for a representation built from {@code aggregates}; it changes whenever
+     * any of them does. Reads only memory.
+     */
+    public String etag(String... aggregates) {
+        StringBuilder tag = new StringBuilder("\"");
+        for (int i = 0; i < aggregates.length; i++) {
+            if (i > 0) tag.append('.');
+            tag.append(current(aggregates[i]));
+        }
+        return tag.append('"').toString();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        createRows();
+        for (DataVersion v : versionRepository.findAll()) {
+            current.merge(v.getAggregate(), v.getVersion(), Math::max);
+        }
+        poller.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    private void createRows() {
+        if (rowsCreated) return;
+        for (String aggregate : AGGREGATES) {
+            if (versionRepository.existsById(aggregate)) continue;
+            DataVersion row = new DataVersion();
+            row.setAggregate(aggregate);
+            try {
+                // In a transaction of its own: the first call may come from another one's afterCommit,
+                // where a joined save would never be flushed
+                bumpTransaction.executeWithoutResult(status -> versionRepository.save(row));
+            } catch (DataIntegrityViolationException e) {
+                // Another replica created it first
+            }
+        }
+        rowsCreated = true;
+    }
+
+    /**
+     * Records committed changes to {@code aggregates}. Also for code that writes their tables
+     * without going through Hibernate.
+     */
+    public void changed(Collection<String> aggregates) {
+        createRows();
+        Map<String, Long> bumped = bumpTransaction.execute(status -> {
+            Map<String, Long> versions = new LinkedHashMap<>();
+            for (String aggregate : aggregates) {
+                versionRepository.bump(aggregate);
+                versionRepository.findById(aggregate).ifPresent(v -> versions.put(aggregate, v.getVersion()));
+            }
+            return versions;
+        });
+        bumped.forEach((aggregate, version) -> {
+            Long previous = current.get(aggregate);
+            current.merge(aggregate, version, Math::max);
+            // Somebody else bumped in between; don't wait for the poller to notice
+            if (previous != null && version > previous + 1) {
+                remoteChange(aggregate);
+            }
+        });
+    }
+
+    void poll() {
+        try {
+            for (DataVersion v : versionRepository.findAll()) {
+                Long previous = current.get(v.getAggregate());
+                current.merge(v.getAggregate(), v.getVersion(), Math::max);
+                if (previous != null && v.getVersion() > previous) {
+                    remoteChange(v.getAggregate());
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Data version poll failed: " + e.getMessage());
+        }
+    }
+
+    private void remoteChange(String aggregate) {
+        for (Consumer<String> listener : remoteChangeListeners) {
+            listener.accept(aggregate);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package edu.miu.cs489.dental.configuration;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Id counters for the entities that take their ids from the {@value #TABLE} table instead of an
+ * auto-increment column, so Hibernate knows ids before inserting and can batch the inserts. Each
+ * entity has a row named after its table holding the next unallocated id; Hibernate takes
+ * {@value #ALLOCATION_SIZE} at a time (pooled-lo) on a connection of its own.
+ * <p>
+ * Tables created before the switch still hold auto-increment ids, so at startup every counter is
+ * moved past its table's largest id. Counters only ever move forward, so nodes starting together
+ * and nodes still holding a block of ids are safe.
+ */
+@Component
+@DependsOn("entityManagerFactory") // the schema, id_sequence included, must exist before aligning
+public class IdSequences {
+
+    public static final String TABLE = "id_sequence";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String ADDRESS = "address";
+    public static final String PATIENT = "patient";
+    public static final String DENTIST = "dentist";
+    public static final String SURGERY = "surgery";
+    public static final String APPOINTMENT = "appointment";
+
+    /**
+     * Not an id counter: the last change stamp handed out, see ChangeStampListener.
+     */
+    public static final String SYNC_CHANGE = "sync_change";
+
+    private static final List<String> SEQUENCES = List.of(ADDRESS, PATIENT, DENTIST, SURGERY, APPOINTMENT);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate ownTransaction;
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        // Counters are shared by every transaction; hold their row locks only briefly
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void alignWithExistingIds() {
+        // Hibernate creates it too, but not where the schema is managed by hand
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (" + NAME_COLUMN + " VARCHAR(255) NOT NULL PRIMARY KEY, " +
+                VALUE_COLUMN + " BIGINT)");
+        for (String sequence : SEQUENCES) {
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + sequence, Long.class);
+            long next = (max == null ? 0 : max) + 1;
+            ownTransaction.executeWithoutResult(status -> moveTo(sequence, next));
+        }
+        ownTransaction.executeWithoutResult(status -> moveTo(SYNC_CHANGE, 0));
+    }
+
+    /**
+     * Takes {@code count} consecutive ids from {@code sequence} for rows written without Hibernate;
+     * returns the first of them.
+     */
+    public long reserve(String sequence, long count) {
+        Long first = ownTransaction.execute(status -> {
+            moveTo(sequence, 1);
+            Long next = jdbcTemplate.queryForObject("SELECT " + VALUE_COLUMN + " FROM " + TABLE +
+                    " WHERE " + NAME_COLUMN + " = ? FOR UPDATE", Long.class, sequence);
+            jdbcTemplate.update("UPDATE " + TABLE + " SET " + VALUE_COLUMN + " = ? WHERE " + NAME_COLUMN + " = ?",
+                    next + count, sequence);
+            return next;
+        });
+        return first;
+    }
+
+    // Raises the counter to at least next, creating its row if needed
+    private void moveTo(String sequence, long next) {
+        int updated = jdbcTemplate.update("UPDATE " + TABLE + " SET " + VALUE_COLUMN + " = ? WHERE " +
+                NAME_COLUMN + " = ? AND " + VALUE_COLUMN + " < ?", next, sequence, next);
+        if (updated > 0) return;
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABLE + " WHERE " + NAME_COLUMN + " = ?",
+                Integer.class, sequence);
+        if (rows != null && rows > 0) return;
+        try {
+            jdbcTemplate.update("INSERT INTO " + TABLE + " (" + NAME_COLUMN + ", " + VALUE_COLUMN + ") VALUES (?, ?)",
+                    sequence, next);
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first; make sure it is far enough along
+            jdbcTemplate.update("UPDATE " + TABLE + " SET " + VALUE_COLUMN + " = ? WHERE " +
+                    NAME_COLUMN + " = ? AND " + VALUE_COLUMN + " < ?", next, sequence, next);
+        }
+    }
+}
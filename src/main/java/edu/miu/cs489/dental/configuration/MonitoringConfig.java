@@ -0,0 +1,58 @@
+package edu.miu.cs489.dental.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import edu.miu.cs489.dental.monitoring.ConnectionHoldTimeMetrics;
+import edu.miu.cs489.dental.monitoring.ConnectionTimingDataSource;
+import edu.miu.cs489.dental.monitoring.QueryBudget;
+import edu.miu.cs489.dental.monitoring.RequestEndpointInterceptor;
+import edu.miu.cs489.dental.monitoring.RequestQueryInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MonitoringConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private QueryBudget queryBudget;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestEndpointInterceptor()).addPathPatterns("/adsweb/api/v1/**", "/auth/**");
+        registry.addInterceptor(new RequestQueryInterceptor(meterRegistry, queryBudget)).addPathPatterns("/adsweb/api/v1/**", "/auth/**");
+    }
+
+    // Keep probe and scrape traffic out of the request latency histograms. Static: the registry
+    // applies this filter while being created, and this class itself needs the registry
+    @Bean
+    public static MeterFilter ignoreActuatorRequests() {
+        return MeterFilter.deny(id -> "http.server.requests".equals(id.getName())
+                && String.valueOf(id.getTag("uri")).startsWith("/actuator"));
+    }
+
+    // Static so the post-processor is registered before the DataSource bean is created. Only a pool
+    // is wrapped: whatever sits in front of one, such as the LazyConnectionDataSourceProxy of
+    // ReplicaRoutingConfig (which wraps its own pools), hands out handles that may never hold a
+    // real connection
+    @Bean
+    public static BeanPostProcessor connectionTimingPostProcessor(ObjectProvider<ConnectionHoldTimeMetrics> metrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    return new ConnectionTimingDataSource(pool, metrics.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package edu.miu.cs489.dental.configuration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.model.Role;
+import edu.miu.cs489.dental.model.Surgery;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.Cache;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Second-level cache regions for reference data, and their eviction across replicas. Within one
+ * replica Hibernate keeps the regions current itself. A write on another replica shows up only as a
+ * moved {@link DataVersions} counter, upon which the aggregate's region is evicted together with all
+ * cached query results. Cross-replica staleness is bounded by the poll interval.
+ */
+@Component
+public class ReferenceDataCache {
+
+    public static final String DENTIST = "dental.dentist";
+    public static final String SURGERY = "dental.surgery";
+    public static final String ROLE = "dental.role";
+    public static final String ADDRESS = "dental.address";
+    public static final String QUERY_RESULTS = "default-query-results-region";
+
+    public static final List<String> ENTITY_REGIONS = List.of(DENTIST, SURGERY, ROLE, ADDRESS);
+
+    public record RegionStats(long hits, long misses, long puts, long elements, long remoteEvictions) {
+        @JsonProperty
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final Map<String, AtomicLong> remoteEvictions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void subscribe() {
+        dataVersions.onRemoteChange(this::evict);
+    }
+
+    private void evict(String aggregate) {
+        Class<?> entity = switch (aggregate) {
+            case DataVersions.DENTISTS -> Dentist.class;
+            case DataVersions.SURGERIES -> Surgery.class;
+            case DataVersions.ROLES -> Role.class;
+            case DataVersions.ADDRESSES -> Address.class;
+            default -> null;
+        };
+        if (entity == null) return; // not cached
+        entityManagerFactory.getCache().evict(entity);
+        // Cached query results may include rows of the region; the update timestamps never saw the remote write
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        String region = entity.getAnnotation(Cache.class).region();
+        remoteEvictions.computeIfAbsent(region, r -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Hit and miss counts per entity region and for the query cache, from Hibernate's statistics.
+     */
+    public Map<String, RegionStats> stats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, RegionStats> stats = new LinkedHashMap<>();
+        for (String region : ENTITY_REGIONS) {
+            stats.put(region, stats(statistics.getCacheRegionStatistics(region), region));
+        }
+        stats.put(QUERY_RESULTS, stats(statistics.getCacheRegionStatistics(QUERY_RESULTS), QUERY_RESULTS));
+        return stats;
+    }
+
+    private RegionStats stats(CacheRegionStatistics region, String name) {
+        AtomicLong evictions = remoteEvictions.get(name);
+        long remote = evictions == null ? 0 : evictions.get();
+        if (region == null) {
+            return new RegionStats(0, 0, 0, 0, remote);
+        }
+        return new RegionStats(region.getHitCount(), region.getMissCount(), region.getPutCount(),
+                region.getElementCountInMemory(), remote);
+    }
+}
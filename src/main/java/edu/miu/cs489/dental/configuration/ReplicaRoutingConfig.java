@@ -0,0 +1,90 @@
+package edu.miu.cs489.dental.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import edu.miu.cs489.dental.monitoring.ConnectionHoldTimeMetrics;
+import edu.miu.cs489.dental.monitoring.ConnectionTimingDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool plus one per read replica when
+ * {@code datasource.replicas.urls} is set; see {@link ReplicaRoutingDataSource}. Replicas use the
+ * primary's credentials and spring.datasource.hikari settings.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replicas.urls:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private ReplicaRoutingDataSource routing;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                 ConnectionHoldTimeMetrics holdTimeMetrics,
+                                 @Value("${datasource.replicas.urls}") String urls,
+                                 @Value("${datasource.replicas.max-lag-ms:2000}") long maxLagMillis,
+                                 @Value("${datasource.replicas.read-your-writes-ms:5000}") long pinMillis,
+                                 @Value("${datasource.replicas.check-ms:1000}") long checkMillis) {
+        HikariDataSource primary = pool(ReplicaRoutingDataSource.PRIMARY, properties.determineUrl(), properties,
+                environment, meterRegistry);
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource pool = pool(name, url.trim(), properties, environment, meterRegistry);
+            pool.setReadOnly(true);
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, new ConnectionTimingDataSource(pool, holdTimeMetrics)));
+        }
+
+        // Hold times are measured on the pools; the bean returned below is a lazy proxy in front of them
+        routing = new ReplicaRoutingDataSource(new ConnectionTimingDataSource(primary, holdTimeMetrics), replicas, maxLagMillis, pinMillis);
+        for (ReplicaRoutingDataSource.Replica replica : routing.getReplicas()) {
+            Gauge.builder("dental.db.replica.lag", replica,
+                            r -> r.getLagMillis() == Long.MAX_VALUE ? Double.NaN : r.getLagMillis() / 1000.0)
+                    .tag("replica", replica.getName())
+                    .description("How far the replica trails the primary; NaN while unreachable")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+        routing.start(checkMillis);
+        // Connections are fetched on first use, after the transaction has declared itself read-only
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private HikariDataSource pool(String name, String url, DataSourceProperties properties,
+                                  Environment environment, MeterRegistry meterRegistry) {
+        HikariDataSource pool = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(properties.determineUsername());
+        pool.setPassword(properties.determinePassword());
+        pool.setDriverClassName(properties.determineDriverClassName());
+        // The pools are not beans, so Boot's pool metrics would not find them
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        pools.add(pool);
+        return pool;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (routing != null) {
+            routing.stop();
+        }
+        pools.forEach(HikariDataSource::close);
+    }
+}
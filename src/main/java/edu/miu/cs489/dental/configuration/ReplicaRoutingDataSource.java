@@ -0,0 +1,191 @@
+package edu.miu.cs489.dental.configuration;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary. Replicas take
+ * turns, skipping any whose measured lag is over the limit; with none left, reads go to the
+ * primary. A user who has just committed a write stays on the primary for a while so they read
+ * it back. Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only known once
+ * the transaction has started.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    /**
+     * A replica and its lag as last measured; unknown lag counts as too much.
+     */
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long lagMillis = Long.MAX_VALUE;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getLagMillis() {
+            return lagMillis;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final long pinMillis;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService lagChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "replica-lag-checker");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, long maxLagMillis, long pinMillis) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMillis = maxLagMillis;
+        this.pinMillis = pinMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : this.replicas) {
+            targets.put(replica.name, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinAfterCommit();
+            return PRIMARY;
+        }
+        String user = currentUser();
+        if (user != null) {
+            Long until = pinnedUntil.get(user);
+            if (until != null && until - System.nanoTime() > 0) {
+                return PRIMARY;
+            }
+        }
+
+        int count = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (replica.lagMillis <= maxLagMillis) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    // Only a committed transaction pins; a read-write transaction that wrote nothing pins as well
+    private void pinAfterCommit() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String user = currentUser();
+        if (user == null) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pinnedUntil.put(user, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pinMillis));
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Creates the heartbeat table on the primary (replication carries it to the replicas) and
+     * starts measuring replica lag every {@code checkMillis}.
+     */
+    public void start(long checkMillis) {
+        try (Connection connection = primary.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists replica_heartbeat (id int primary key, beat bigint not null)");
+        } catch (SQLException e) {
+            System.err.println("Could not create replica_heartbeat: " + e.getMessage());
+        }
+        lagChecker.scheduleWithFixedDelay(this::checkLag, 0, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        lagChecker.shutdownNow();
+    }
+
+    /**
+     * Writes the current time to the primary's heartbeat row, then reads each replica's copy; the
+     * difference is how far behind that replica is.
+     */
+    void checkLag() {
+        try (Connection connection = primary.getConnection(); Statement statement = connection.createStatement()) {
+            long beat = System.currentTimeMillis();
+            if (statement.executeUpdate("update replica_heartbeat set beat = " + beat + " where id = 1") == 0) {
+                statement.executeUpdate("insert into replica_heartbeat (id, beat) values (1, " + beat + ")");
+            }
+        } catch (SQLException e) {
+            System.err.println("Replica heartbeat write failed: " + e.getMessage());
+        }
+
+        for (Replica replica : replicas) {
+            long lag = measureLag(replica);
+            if (lag > maxLagMillis && replica.lagMillis <= maxLagMillis) {
+                System.err.println("Replica " + replica.name + " is " + (lag == Long.MAX_VALUE ? "unreachable" : lag + " ms behind")
+                        + "; reads go elsewhere until it catches up");
+            }
+            replica.lagMillis = lag;
+        }
+        pinnedUntil.values().removeIf(until -> until - System.nanoTime() <= 0);
+    }
+
+    private long measureLag(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select beat from replica_heartbeat where id = 1")) {
+            return rs.next() ? Math.max(0, System.currentTimeMillis() - rs.getLong(1)) : Long.MAX_VALUE;
+        } catch (SQLException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package edu.miu.cs489.dental.configuration;
+
+import edu.miu.cs489.dental.DentalApplication;
+import edu.miu.cs489.dental.model.Patient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Fills the database with synthetic patients, dentists, surgeries, addresses and appointments for
+ * load and capacity testing. Active only under the {@code datagen} profile; counts and batching come
+ * from the {@code datagen.*} properties.
+ * <p>
+ * Rows are written with batched JDBC inserts (MySQL should have {@code rewriteBatchedStatements=true}
+ * on the URL so each batch becomes one multi-row insert), in chunks that run in parallel, one
+ * transaction per chunk. Ids are assigned explicitly from blocks reserved in {@link IdSequences}, so
+ * the application can keep writing meanwhile. Output is deterministic for a given seed and existing data.
+ * <p>
+ * Distributions: last names and cities follow a Zipf-like curve; appointments fill about 75% of the
+ * weekday slots between 08:00 and 17:00, about 80% of them in the past, with a few patients
+ * visiting much more often than most. Dentist/surgery pairs rotate by day so nothing is double-booked.
+ * <p>
+ * From the command line ({@link #main}): {@code --datagen.patients=1000000 --datagen.appointments=5000000};
+ * add {@code --spring.profiles.active=test} on the test classpath to load an H2 database instead.
+ */
+@Component
+@Profile("datagen")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Carlos", "Karen",
+            "Daniel", "Lisa", "Matthew", "Nancy", "Anthony", "Sandra", "Mark", "Ashley", "Wei", "Priya",
+            "Ahmed", "Fatima", "Yuki", "Olga", "Mateo", "Sofia", "Kwame", "Amara", "Ivan", "Leila"};
+
+    // Ordered roughly by frequency; picked with Zipf weights so the first few dominate
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+            "Walker", "Young", "Allen", "King", "Wright", "Scott", "Nguyen", "Hill", "Flores", "Green",
+            "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell", "Carter", "Roberts", "Patel",
+            "Chen", "Kim", "Khan", "Singh", "Ivanov", "Okafor", "Tanaka", "Muller", "Rossi", "Bell"};
+
+    private static final String[] CITIES = {
+            "Des Moines", "Cedar Rapids", "Davenport", "Sioux City", "Iowa City", "Waterloo", "Ames",
+            "West Des Moines", "Council Bluffs", "Ankeny", "Dubuque", "Urbandale", "Cedar Falls", "Marion",
+            "Bettendorf", "Mason City", "Marshalltown", "Clinton", "Burlington", "Fairfield"};
+
+    private static final String[] STREETS = {
+            "Main St", "Oak St", "Maple Ave", "Cedar St", "Pine St", "Elm St", "Washington Ave", "Lake St",
+            "Hill Rd", "Park Ave", "2nd St", "3rd St", "Walnut St", "Church St", "Grand Ave", "Court Ave"};
+
+    private static final double[] LAST_NAME_WEIGHTS = zipfCumulative(LAST_NAMES.length);
+    private static final double[] CITY_WEIGHTS = zipfCumulative(CITIES.length);
+
+    private static final int OPENING_HOUR = 8;
+    private static final int CLOSING_HOUR = 17;
+    private static final double SLOT_OCCUPANCY = 0.75;
+    private static final double PAST_SHARE = 0.8;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private IdSequences idSequences;
+
+    @Value("${datagen.patients:100000}")
+    private int patients;
+
+    @Value("${datagen.dentists:200}")
+    private int dentists;
+
+    @Value("${datagen.surgeries:100}")
+    private int surgeries;
+
+    @Value("${datagen.appointments:500000}")
+    private int appointments;
+
+    @Value("${datagen.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${datagen.threads:0}")
+    private int threads;
+
+    @Value("${datagen.seed:42}")
+    private long seed;
+
+    @Value("${datagen.exit-when-done:false}")
+    private boolean exitWhenDone;
+
+    @Value("${appointment.duration-minutes:30}")
+    private int slotMinutes;
+
+    private TransactionTemplate chunkTransaction;
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(DentalApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("datagen")
+                .properties("datagen.exit-when-done=true", "spring.jpa.show-sql=false")
+                .run(args);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (patients < 1 || dentists < 1 || surgeries < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("datagen.patients, dentists, surgeries and batch-size must be positive");
+        }
+        checkDatabase();
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        System.out.println("Generating " + patients + " patients, " + dentists + " dentists, " + surgeries +
+                " surgeries and " + appointments + " appointments on " + poolSize + " thread(s)...");
+
+        long started = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(poolSize);
+        try {
+            // Each base is one below the first reserved id
+            long addressBase = idSequences.reserve(IdSequences.ADDRESS, (long) patients + dentists + surgeries) - 1;
+            long patientBase = idSequences.reserve(IdSequences.PATIENT, patients) - 1;
+            long dentistBase = idSequences.reserve(IdSequences.DENTIST, dentists) - 1;
+            long surgeryBase = idSequences.reserve(IdSequences.SURGERY, surgeries) - 1;
+            long appointmentBase = idSequences.reserve(IdSequences.APPOINTMENT, Math.max(0, appointments)) - 1;
+
+            // Addresses: patients' first, then dentists', then surgeries'
+            long dentistAddressBase = addressBase + patients;
+            long surgeryAddressBase = dentistAddressBase + dentists;
+            insert(pool, "address", "INSERT INTO address (id, street, city, zip_code, version, updated_at) VALUES (?, ?, ?, ?, 0, ?)",
+                    patients + dentists + surgeries, i -> address(addressBase + i + 1));
+
+            insert(pool, "patient", "INSERT INTO patient (id, pat_no, name, last_name_key, address_id, version, updated_at) VALUES (?, ?, ?, ?, ?, 0, ?)",
+                    patients, i -> patient(patientBase + i + 1, addressBase + i + 1));
+            insert(pool, "dentist", "INSERT INTO dentist (id, dentist_name, address_id, version, updated_at) VALUES (?, ?, ?, 0, ?)",
+                    dentists, i -> new Object[]{dentistBase + i + 1, "Dr " + personName(random(dentistBase + i + 1)),
+                            dentistAddressBase + i + 1});
+            insert(pool, "surgery", "INSERT INTO surgery (id, surgery_no, address_id, version, updated_at) VALUES (?, ?, ?, 0, ?)",
+                    surgeries, i -> new Object[]{surgeryBase + i + 1, "S" + (surgeryBase + i + 1), surgeryAddressBase + i + 1});
+
+            insertAppointments(pool, appointmentBase, patientBase, dentistBase, surgeryBase);
+        } finally {
+            pool.shutdownNow();
+        }
+        // Rows were written with plain JDBC; move every version so caches and entity tags notice
+        dataVersions.changed(DataVersions.AGGREGATES);
+        System.out.println("Synthetic data generated in " + (System.nanoTime() - started) / 1_000_000 + " ms.");
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private void insertAppointments(ExecutorService pool, long appointmentBase, long patientBase,
+                                    long dentistBase, long surgeryBase) throws Exception {
+        if (appointments < 1) return;
+
+        int chairs = Math.min(dentists, surgeries);
+        int slotsPerDay = (CLOSING_HOUR - OPENING_HOUR) * 60 / slotMinutes;
+        int capacityPerDay = chairs * slotsPerDay;
+        int workingDays = (int) Math.ceil(appointments / (capacityPerDay * SLOT_OCCUPANCY));
+        List<LocalDate> days = workingDays(LocalDate.now(), workingDays);
+
+        // Spread the total evenly over the days; each day picks its quota of free slots at random
+        int perDay = appointments / workingDays;
+        int remainder = appointments % workingDays;
+        String sql = "INSERT INTO appointment (id, appointment_date_time, patient_id, dentist_id, surgery_id, version, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, 0, ?)";
+
+        long started = System.nanoTime();
+        AtomicLong written = new AtomicLong();
+        List<Future<?>> chunks = new ArrayList<>();
+        for (int d = 0; d < workingDays; d++) {
+            int day = d;
+            int quota = perDay + (day < remainder ? 1 : 0);
+            long firstId = appointmentBase + 1 + (long) day * perDay + Math.min(day, remainder);
+            chunks.add(pool.submit(() -> {
+                List<Object[]> rows = appointmentsForDay(days.get(day), day, quota, firstId, chairs, slotsPerDay,
+                        patientBase, dentistBase, surgeryBase);
+                writeChunk(sql, rows);
+                written.addAndGet(rows.size());
+            }));
+        }
+        awaitAll(chunks);
+        report("appointment", written.get(), started);
+    }
+
+    private List<Object[]> appointmentsForDay(LocalDate date, int day, int quota, long firstId, int chairs, int slotsPerDay,
+                                              long patientBase, long dentistBase, long surgeryBase) {
+        SplittableRandom random = random(firstId);
+        List<Object[]> rows = new ArrayList<>(quota);
+        int capacity = chairs * slotsPerDay;
+        int needed = quota;
+        // Selection sampling: every slot is taken with probability needed / remaining, giving exactly quota slots
+        for (int slot = 0; slot < capacity && needed > 0; slot++) {
+            if (random.nextInt(capacity - slot) >= needed) continue;
+            needed--;
+
+            int chair = slot / slotsPerDay;
+            int timeSlot = slot % slotsPerDay;
+            // Dentists rotate across chairs by day, so within a day each dentist and surgery has one chair
+            long dentistId = dentistBase + 1 + (chair + (long) day * chairs) % dentists;
+            long surgeryId = surgeryBase + 1 + chair;
+            // Squaring a uniform draw skews visits toward a minority of frequent patients
+            double u = random.nextDouble();
+            long patientId = patientBase + 1 + (long) (u * u * patients);
+            LocalDateTime start = date.atTime(OPENING_HOUR, 0).plusMinutes((long) timeSlot * slotMinutes);
+
+            rows.add(new Object[]{firstId + rows.size(), start, patientId, dentistId, surgeryId});
+        }
+        return rows;
+    }
+
+    private void insert(ExecutorService pool, String table, String sql, int count, IntFunction<Object[]> row) throws Exception {
+        long started = System.nanoTime();
+        List<Future<?>> chunks = new ArrayList<>();
+        for (int from = 0; from < count; from += batchSize) {
+            int start = from;
+            int end = Math.min(count, from + batchSize);
+            chunks.add(pool.submit(() -> {
+                List<Object[]> rows = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    rows.add(row.apply(i));
+                }
+                writeChunk(sql, rows);
+            }));
+        }
+        awaitAll(chunks);
+        report(table, count, started);
+    }
+
+    // Every statement ends with the updated_at parameter, which is filled in here
+    private void writeChunk(String sql, List<Object[]> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = Arrays.copyOf(rows.get(i), rows.get(i).length + 1);
+            row[row.length - 1] = now;
+            rows.set(i, row);
+        }
+        chunkTransaction.executeWithoutResult(status -> {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+            }
+        });
+    }
+
+    private Object[] address(long id) {
+        SplittableRandom random = random(id);
+        int city = pick(CITY_WEIGHTS, random);
+        return new Object[]{id,
+                (1 + random.nextInt(9999)) + " " + STREETS[random.nextInt(STREETS.length)],
+                CITIES[city],
+                String.valueOf(50000 + city * 100 + random.nextInt(100))};
+    }
+
+    private Object[] patient(long id, long addressId) {
+        String name = personName(random(id));
+        return new Object[]{id, "P" + id, name, Patient.lastNameKeyOf(name), addressId};
+    }
+
+    private static String personName(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[pick(LAST_NAME_WEIGHTS, random)];
+    }
+
+    private SplittableRandom random(long id) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + id);
+    }
+
+    private static int pick(double[] cumulative, SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private static double[] zipfCumulative(int n) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1.0 / rank;
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Weekdays around today, with {@link #PAST_SHARE} of them before today.
+     */
+    private static List<LocalDate> workingDays(LocalDate today, int count) {
+        LocalDate date = today;
+        for (int past = (int) (count * PAST_SHARE); past > 0; ) {
+            date = date.minusDays(1);
+            if (isWeekday(date)) past--;
+        }
+        List<LocalDate> days = new ArrayList<>(count);
+        for (; days.size() < count; date = date.plusDays(1)) {
+            if (isWeekday(date)) days.add(date);
+        }
+        return days;
+    }
+
+    private static boolean isWeekday(LocalDate date) {
+        return date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY;
+    }
+
+    /**
+     * Warns when MySQL would send batches row by row.
+     */
+    private void checkDatabase() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            String product = connection.getMetaData().getDatabaseProductName();
+            String url = connection.getMetaData().getURL();
+            if (product.toLowerCase().contains("mysql") && !url.contains("rewriteBatchedStatements=true")) {
+                System.err.println("Warning: add rewriteBatchedStatements=true to the MySQL URL, otherwise every batched row is a separate insert.");
+            }
+            return null;
+        });
+    }
+
+    private static void awaitAll(List<Future<?>> chunks) throws Exception {
+        for (Future<?> chunk : chunks) {
+            chunk.get();
+        }
+    }
+
+    private static void report(String table, long rows, long startedNanos) {
+        long ms = Math.max(1, (System.nanoTime() - startedNanos) / 1_000_000);
+        System.out.println("  " + table + ": " + rows + " rows in " + ms + " ms (" + rows * 1000 / ms + " rows/s)");
+    }
+}
@@ -0,0 +1,19 @@
+package edu.miu.cs489.dental.configuration;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET handler whose response is built only from the named {@link DataVersions} aggregates.
+ * {@link ConditionalGetInterceptor} then tags the response with their versions and answers a
+ * matching If-None-Match with 304 without calling the handler. The check runs before method
+ * security, so use it only on handlers every authenticated user may call.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface VersionedBy {
+
+    String[] value();
+}
@@ -1,11 +1,14 @@
 package edu.miu.cs489.dental.controller;
 
+import edu.miu.cs489.dental.configuration.DataVersions;
+import edu.miu.cs489.dental.configuration.VersionedBy;
 import edu.miu.cs489.dental.dto.AddressDto;
-import edu.miu.cs489.dental.dto.PatientDto;
-import edu.miu.cs489.dental.model.Address;
-import edu.miu.cs489.dental.model.Patient;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.miu.cs489.dental.service.AddressService;
+import edu.miu.cs489.dental.util.JsonArrayStreamer;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,13 +16,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/adsweb/api/v1")
@@ -30,23 +34,30 @@ public class AddressController {
     @Autowired
     private AddressService addressService;
 
-    @Operation(summary = "Get all addresses", description = "Retrieve a list of all addresses")
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Operation(summary = "Get all addresses", description = "Retrieve a list of all addresses. " +
+            "Pass stream=true to have each address written to the response as it is read from the database.")
+    @Parameter(name = "stream", in = ParameterIn.QUERY, description = "Stream the rows instead of building the list first")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved list of addresses",
                     content = @Content(schema = @Schema(implementation = AddressDto.class)))
     })
     @GetMapping("/addresses")
+    @VersionedBy({DataVersions.ADDRESSES, DataVersions.PATIENTS})
     @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
     public List<AddressDto> getAllAddresses() {
-        List<Address> addresses = addressService.getAllAddresses();
-        return addresses.stream().map(a -> {
-            Patient p = a.getPatient();
-            PatientDto pd = null;
-            if (p != null) {
-                pd = new PatientDto(p.getId(), p.getPatNo(), p.getName());
-            }
-            return new AddressDto(a.getId(), a.getStreet(), a.getCity(), a.getZipCode(), pd);
-        }).collect(Collectors.toList());
+        return addressService.getAllAddresses();
+    }
+
+    // Same listing as getAllAddresses, written row by row; documented there
+    @GetMapping(value = "/addresses", params = "stream=true")
+    @VersionedBy({DataVersions.ADDRESSES, DataVersions.PATIENTS})
+    @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
+    @Operation(hidden = true)
+    public ResponseEntity<StreamingResponseBody> streamAllAddresses() {
+        return JsonArrayStreamer.response(objectMapper, after -> addressService.getAddressDtosPage(JsonArrayStreamer.PAGE_SIZE, after));
     }
 }
 
@@ -1,11 +1,16 @@
 package edu.miu.cs489.dental.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.cs489.dental.configuration.DataVersions;
+import edu.miu.cs489.dental.configuration.VersionedBy;
 import edu.miu.cs489.dental.dto.*;
 import edu.miu.cs489.dental.exception.ResourceNotFoundException;
 import edu.miu.cs489.dental.model.Appointment;
 import edu.miu.cs489.dental.service.AppointmentService;
+import edu.miu.cs489.dental.util.JsonArrayStreamer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,13 +18,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/adsweb/api/v1")
@@ -30,16 +37,61 @@ public class AppointmentController {
     @Autowired
     private AppointmentService appointmentService;
 
-    @Operation(summary = "Get all appointments", description = "Retrieve a list of all appointments")
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Operation(summary = "Get appointments", description = "Retrieve appointments ordered by date/time, optionally filtered by " +
+            "time window, dentist, surgery or patient. Pass 'limit' to page through the results; the cursor for the next " +
+            "page is returned in the X-Next-Cursor header. Pass stream=true instead to have every matching appointment " +
+            "written to the response as it is read from the database.")
+    @Parameter(name = "stream", in = ParameterIn.QUERY, description = "Stream every matching row instead of building the list first; ignores limit")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved list of appointments",
-                    content = @Content(schema = @Schema(implementation = AppointmentDto.class)))
+                    content = @Content(schema = @Schema(implementation = AppointmentDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter, limit or cursor", content = @Content)
     })
     @GetMapping("/appointments")
+    @VersionedBy({DataVersions.APPOINTMENTS, DataVersions.PATIENTS, DataVersions.DENTISTS, DataVersions.SURGERIES, DataVersions.ADDRESSES})
+    @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
+    public ResponseEntity<List<AppointmentDto>> getAllAppointments(
+            @Parameter(description = "Earliest date/time, inclusive (ISO, e.g. 2025-10-01T00:00)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Latest date/time, exclusive (ISO)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Only this dentist's appointments") @RequestParam(required = false) Long dentistId,
+            @Parameter(description = "Only appointments in this surgery") @RequestParam(required = false) Long surgeryId,
+            @Parameter(description = "Only this patient's appointments") @RequestParam(required = false) Long patientId,
+            @Parameter(description = "Page size (1-500); omit to get every matching appointment") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Cursor returned in X-Next-Cursor by the previous page") @RequestParam(required = false) String after) {
+        AppointmentFilter filter = new AppointmentFilter(from, to, dentistId, surgeryId, patientId);
+        if (limit == null) {
+            return ResponseEntity.ok(appointmentService.getAppointmentDtos(filter));
+        }
+
+        CursorPage<AppointmentDto> page = appointmentService.getAppointmentDtosPage(filter, limit, after);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(PatientController.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    // Same listing as getAllAppointments, written row by row; documented there
+    @GetMapping(value = "/appointments", params = "stream=true")
+    @VersionedBy({DataVersions.APPOINTMENTS, DataVersions.PATIENTS, DataVersions.DENTISTS, DataVersions.SURGERIES, DataVersions.ADDRESSES})
     @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
-    public List<AppointmentDto> getAllAppointments() {
-        List<Appointment> appointments = appointmentService.getAllAppointments();
-        return appointments.stream().map(this::convertToDto).collect(Collectors.toList());
+    @Operation(hidden = true)
+    public ResponseEntity<StreamingResponseBody> streamAllAppointments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long dentistId,
+            @RequestParam(required = false) Long surgeryId,
+            @RequestParam(required = false) Long patientId) {
+        AppointmentFilter filter = new AppointmentFilter(from, to, dentistId, surgeryId, patientId);
+        // Reject a bad filter with a 400 now rather than after the response has started
+        appointmentService.validate(filter);
+        return JsonArrayStreamer.response(objectMapper,
+                after -> appointmentService.getAppointmentDtosPage(filter, JsonArrayStreamer.PAGE_SIZE, after));
     }
 
     @Operation(summary = "Get appointment by ID", description = "Retrieve a specific appointment by its ID")
@@ -49,6 +101,7 @@ public class AppointmentController {
             @ApiResponse(responseCode = "404", description = "Appointment not found", content = @Content)
     })
     @GetMapping("/appointments/{id}")
+    @VersionedBy({DataVersions.APPOINTMENTS, DataVersions.PATIENTS, DataVersions.DENTISTS, DataVersions.SURGERIES, DataVersions.ADDRESSES})
     @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
     public ResponseEntity<AppointmentDto> getAppointmentById(
             @Parameter(description = "Appointment ID", required = true) @PathVariable Long id) {
@@ -61,6 +114,7 @@ public class AppointmentController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Appointment successfully created",
                     content = @Content(schema = @Schema(implementation = AppointmentDto.class))),
+            @ApiResponse(responseCode = "409", description = "Dentist or surgery already booked at that time", content = @Content),
             @ApiResponse(responseCode = "403", description = "Forbidden - requires OFFICE_MANAGER role", content = @Content)
     })
     @PostMapping("/appointments")
@@ -75,6 +129,7 @@ public class AppointmentController {
             @ApiResponse(responseCode = "200", description = "Appointment successfully updated",
                     content = @Content(schema = @Schema(implementation = AppointmentDto.class))),
             @ApiResponse(responseCode = "404", description = "Appointment not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Dentist or surgery already booked at that time", content = @Content),
             @ApiResponse(responseCode = "403", description = "Forbidden - requires OFFICE_MANAGER role", content = @Content)
     })
     @PutMapping("/appointment/{id}")
@@ -2,6 +2,7 @@ package edu.miu.cs489.dental.controller;
 
 import edu.miu.cs489.dental.dto.ChatRequestDto;
 import edu.miu.cs489.dental.dto.ChatResponseDto;
+import edu.miu.cs489.dental.service.ChatStreamListener;
 import edu.miu.cs489.dental.service.ChatbotService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,9 +12,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/adsweb/api/v1/chatbot")
@@ -22,6 +31,9 @@ import org.springframework.web.bind.annotation.*;
 @SecurityRequirement(name = "bearerAuth")
 public class ChatbotController {
 
+    // Upper bound for one streamed answer; Gemini's own deadline is much shorter
+    private static final long STREAM_TIMEOUT_MS = 60_000;
+
     @Autowired
     private ChatbotService chatbotService;
 
@@ -32,9 +44,32 @@ public class ChatbotController {
     })
     @PostMapping("/message")
     @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
-    public ResponseEntity<ChatResponseDto> sendMessage(@RequestBody ChatRequestDto request) {
-        ChatResponseDto response = chatbotService.processMessage(request.getMessage());
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<ChatResponseDto>> sendMessage(@RequestBody ChatRequestDto request) {
+        // Returned as an async result so the servlet thread is released while Gemini is working
+        return chatbotService.processMessageAsync(request.getMessage()).thenApply(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Stream chatbot response",
+            description = "Answers a message as Server-Sent Events: 'intent' ({intent, source}) as soon as it is recognised, " +
+                    "'text' ({delta}) chunks of the reply while Gemini generates it, 'rows' ({type, rows}) chunks of result rows, " +
+                    "then 'done' with the final ChatResponseDto (without the rows already sent)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream of the chatbot response",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE))
+    })
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
+    public SseEmitter streamMessage(@RequestBody ChatRequestDto request) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        chatbotService.streamMessageAsync(request.getMessage(), new SseChatStream(emitter))
+                .whenComplete((ignored, e) -> {
+                    if (e == null) {
+                        emitter.complete();
+                    } else {
+                        emitter.completeWithError(e);
+                    }
+                });
+        return emitter;
     }
 
     @Operation(summary = "Get chatbot help", description = "Get help information from the chatbot")
@@ -48,5 +83,37 @@ public class ChatbotController {
         ChatResponseDto response = chatbotService.processMessage("help");
         return ResponseEntity.ok(response);
     }
-}
 
+    private record SseChatStream(SseEmitter emitter) implements ChatStreamListener {
+
+        @Override
+        public void intent(String intent, String source) {
+            send("intent", Map.of("intent", intent, "source", source));
+        }
+
+        @Override
+        public void text(String delta) {
+            send("text", Map.of("delta", delta));
+        }
+
+        @Override
+        public void rows(String type, List<?> rows) {
+            send("rows", Map.of("type", type, "rows", rows));
+        }
+
+        @Override
+        public void done(ChatResponseDto response) {
+            send("done", response);
+        }
+
+        // Everything is sent as JSON so multi-line text cannot break the event framing. A failed send
+        // means the client went away; the exception stops the remaining work.
+        private void send(String name, Object data) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
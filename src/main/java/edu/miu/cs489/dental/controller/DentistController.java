@@ -1,10 +1,14 @@
 package edu.miu.cs489.dental.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.cs489.dental.configuration.DataVersions;
+import edu.miu.cs489.dental.configuration.VersionedBy;
 import edu.miu.cs489.dental.dto.AddressSimpleDto;
 import edu.miu.cs489.dental.dto.DentistDto;
 import edu.miu.cs489.dental.exception.ResourceNotFoundException;
 import edu.miu.cs489.dental.model.Dentist;
 import edu.miu.cs489.dental.service.DentistService;
+import edu.miu.cs489.dental.util.JsonSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,6 +19,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -31,23 +36,26 @@ public class DentistController {
     @Autowired
     private DentistService dentistService;
 
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final JsonSnapshot dentistsJson = new JsonSnapshot();
+
     @Operation(summary = "Get all dentists", description = "Retrieve a list of all dentists")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved list of dentists",
                     content = @Content(schema = @Schema(implementation = DentistDto.class)))
     })
     @GetMapping("/dentists")
+    @VersionedBy({DataVersions.DENTISTS, DataVersions.ADDRESSES})
     @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
-    public List<DentistDto> getAllDentists() {
-        List<Dentist> dentists = dentistService.getAllDentists();
-        return dentists.stream().map(d -> {
-            AddressSimpleDto addr = null;
-            if (d.getAddress() != null) {
-                addr = new AddressSimpleDto(d.getAddress().getId(), d.getAddress().getStreet(),
-                        d.getAddress().getCity(), d.getAddress().getZipCode());
-            }
-            return new DentistDto(d.getId(), d.getDentistName(), addr);
-        }).collect(Collectors.toList());
+    public ResponseEntity<byte[]> getAllDentists() {
+        String tag = dataVersions.etag(DataVersions.DENTISTS, DataVersions.ADDRESSES);
+        byte[] json = dentistsJson.get(tag, objectMapper, dentistService::getAllDentistDtos);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
     }
 
     @Operation(summary = "Get dentist by ID", description = "Retrieve a specific dentist by their ID")
@@ -57,6 +65,7 @@ public class DentistController {
             @ApiResponse(responseCode = "404", description = "Dentist not found", content = @Content)
     })
     @GetMapping("/dentists/{id}")
+    @VersionedBy({DataVersions.DENTISTS, DataVersions.ADDRESSES})
     @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
     public ResponseEntity<DentistDto> getDentistById(
             @Parameter(description = "Dentist ID", required = true) @PathVariable Long id) {
@@ -128,6 +137,7 @@ public class DentistController {
     }
 
     @GetMapping("/dentist/search/{searchString}")
+    @VersionedBy({DataVersions.DENTISTS, DataVersions.ADDRESSES})
     @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
     public List<DentistDto> searchDentists(@PathVariable String searchString) {
         List<Dentist> results = dentistService.searchDentists(searchString);
@@ -0,0 +1,98 @@
+package edu.miu.cs489.dental.controller;
+
+import edu.miu.cs489.dental.configuration.ReferenceDataCache;
+import edu.miu.cs489.dental.monitoring.ChatPathMetrics;
+import edu.miu.cs489.dental.monitoring.ConnectionHoldTimeMetrics;
+import edu.miu.cs489.dental.monitoring.TimerSummary;
+import edu.miu.cs489.dental.security.PrincipalCache;
+import edu.miu.cs489.dental.service.GeminiResponseCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/adsweb/api/v1/metrics")
+@Tag(name = "Metrics", description = "Runtime cache and performance metrics")
+@SecurityRequirement(name = "bearerAuth")
+public class MetricsController {
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private ConnectionHoldTimeMetrics connectionHoldTimeMetrics;
+
+    @Autowired
+    private ChatPathMetrics chatPathMetrics;
+
+    @Autowired
+    private GeminiResponseCache geminiResponseCache;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Operation(summary = "Principal cache statistics", description = "Hit/miss counts of the authenticated-principal cache (requires OFFICE_MANAGER role)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved cache statistics",
+                    content = @Content(schema = @Schema(implementation = PrincipalCache.Stats.class)))
+    })
+    @GetMapping("/principal-cache")
+    @PreAuthorize("hasAuthority('ROLE_OFFICE_MANAGER')")
+    public PrincipalCache.Stats getPrincipalCacheStats() {
+        return principalCache.stats();
+    }
+
+    @Operation(summary = "Connection hold times", description = "Per-endpoint count, mean, max and percentiles of how long database connections are held (requires OFFICE_MANAGER role)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved connection hold times")
+    })
+    @GetMapping("/connection-hold-time")
+    @PreAuthorize("hasAuthority('ROLE_OFFICE_MANAGER')")
+    public Map<String, TimerSummary> getConnectionHoldTimes() {
+        return connectionHoldTimeMetrics.snapshot();
+    }
+
+    @Operation(summary = "Chat answer paths", description = "Share of chat messages answered by the local intent classifier, and latency per path (requires OFFICE_MANAGER role)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved chat path statistics",
+                    content = @Content(schema = @Schema(implementation = ChatPathMetrics.Stats.class)))
+    })
+    @GetMapping("/chat-paths")
+    @PreAuthorize("hasAuthority('ROLE_OFFICE_MANAGER')")
+    public ChatPathMetrics.Stats getChatPathStats() {
+        return chatPathMetrics.stats();
+    }
+
+    @Operation(summary = "Gemini response cache statistics", description = "Hit ratio, evictions and bytes held by the Gemini intent-response cache (requires OFFICE_MANAGER role)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved cache statistics",
+                    content = @Content(schema = @Schema(implementation = GeminiResponseCache.Stats.class)))
+    })
+    @GetMapping("/gemini-cache")
+    @PreAuthorize("hasAuthority('ROLE_OFFICE_MANAGER')")
+    public GeminiResponseCache.Stats getGeminiCacheStats() {
+        return geminiResponseCache.stats();
+    }
+
+    @Operation(summary = "Second-level cache statistics", description = "Hit ratio per reference-data cache region and for the query cache, " +
+            "plus evictions caused by other replicas (requires OFFICE_MANAGER role)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved cache statistics")
+    })
+    @GetMapping("/second-level-cache")
+    @PreAuthorize("hasAuthority('ROLE_OFFICE_MANAGER')")
+    public Map<String, ReferenceDataCache.RegionStats> getSecondLevelCacheStats() {
+        return referenceDataCache.stats();
+    }
+}
@@ -1,24 +1,43 @@
 package edu.miu.cs489.dental.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.cs489.dental.configuration.DataVersions;
+import edu.miu.cs489.dental.configuration.VersionedBy;
 import edu.miu.cs489.dental.dto.AddressSimpleDto;
+import edu.miu.cs489.dental.dto.BulkImportReport;
+import edu.miu.cs489.dental.dto.CursorPage;
 import edu.miu.cs489.dental.dto.PatientWithAddressDto;
 import edu.miu.cs489.dental.exception.ResourceNotFoundException;
 import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.monitoring.RequestQueries;
+import edu.miu.cs489.dental.service.PatientImportService;
 import edu.miu.cs489.dental.service.PatientService;
+import edu.miu.cs489.dental.util.JsonArrayStreamer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -28,25 +47,54 @@ import java.util.stream.Collectors;
 @SecurityRequirement(name = "bearerAuth")
 public class PatientController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String TEXT_CSV = "text/csv";
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     @Autowired
     private PatientService patientService;
 
-    @Operation(summary = "Get all patients", description = "Retrieve a list of all patients with their addresses")
+    @Autowired
+    private PatientImportService patientImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Operation(summary = "Get all patients", description = "Retrieve patients with their addresses, ordered by last name. " +
+            "Pass 'limit' to page through the list; the cursor for the next page is returned in the X-Next-Cursor header. " +
+            "Pass stream=true instead to have every patient written to the response as it is read from the database.")
+    @Parameter(name = "stream", in = ParameterIn.QUERY, description = "Stream every row instead of building the list first; ignores limit")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved list of patients",
-                    content = @Content(schema = @Schema(implementation = PatientWithAddressDto.class)))
+                    content = @Content(schema = @Schema(implementation = PatientWithAddressDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid limit or cursor", content = @Content)
     })
     @GetMapping("/patients")
+    @VersionedBy({DataVersions.PATIENTS, DataVersions.ADDRESSES})
     @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
-    public List<PatientWithAddressDto> getAllPatients() {
-        List<Patient> patients = patientService.getAllPatients();
-        return patients.stream().map(p -> {
-            AddressSimpleDto addr = null;
-            if (p.getAddress() != null) {
-                addr = new AddressSimpleDto(p.getAddress().getId(), p.getAddress().getStreet(), p.getAddress().getCity(), p.getAddress().getZipCode());
-            }
-            return new PatientWithAddressDto(p.getId(), p.getPatNo(), p.getName(), addr);
-        }).collect(Collectors.toList());
+    public ResponseEntity<List<PatientWithAddressDto>> getAllPatients(
+            @Parameter(description = "Page size (1-500); omit to get every patient") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Cursor returned in X-Next-Cursor by the previous page") @RequestParam(required = false) String after) {
+        if (limit == null) {
+            return ResponseEntity.ok(patientService.getAllPatientDtos());
+        }
+
+        CursorPage<PatientWithAddressDto> page = patientService.getPatientDtosPage(limit, after);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    // Same listing as getAllPatients, written row by row; documented there
+    @GetMapping(value = "/patients", params = "stream=true")
+    @VersionedBy({DataVersions.PATIENTS, DataVersions.ADDRESSES})
+    @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
+    @Operation(hidden = true)
+    public ResponseEntity<StreamingResponseBody> streamAllPatients() {
+        return JsonArrayStreamer.response(objectMapper, after -> patientService.getPatientDtosPage(JsonArrayStreamer.PAGE_SIZE, after));
     }
 
     @Operation(summary = "Get patient by ID", description = "Retrieve a specific patient by their ID")
@@ -56,6 +104,7 @@ public class PatientController {
             @ApiResponse(responseCode = "404", description = "Patient not found", content = @Content)
     })
     @GetMapping("/patients/{id}")
+    @VersionedBy({DataVersions.PATIENTS, DataVersions.ADDRESSES})
     @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
     public ResponseEntity<PatientWithAddressDto> getPatientById(
             @Parameter(description = "Patient ID", required = true) @PathVariable Long id) {
@@ -88,6 +137,52 @@ public class PatientController {
         return ResponseEntity.status(HttpStatus.CREATED).body(dto);
     }
 
+    @Operation(summary = "Import patients in bulk", description = "Create patients with their addresses from a CSV upload " +
+            "(a header row naming patNo, name, street, city and zipCode) or NDJSON (one such object per line); requires OFFICE_MANAGER role. " +
+            "Rows are written in chunks as the upload arrives. The response is NDJSON: a progress line after each chunk, " +
+            "then the report, listing the rejected rows.")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = {
+            @Content(mediaType = TEXT_CSV), @Content(mediaType = APPLICATION_NDJSON)})
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import ran; the last line is the report",
+                    content = @Content(mediaType = APPLICATION_NDJSON, schema = @Schema(implementation = BulkImportReport.class))),
+            @ApiResponse(responseCode = "400", description = "The CSV header lacks the patNo or name column", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Forbidden - requires OFFICE_MANAGER role", content = @Content),
+            @ApiResponse(responseCode = "415", description = "Body is neither text/csv nor application/x-ndjson", content = @Content)
+    })
+    // No "produces": the error responses are JSON
+    @PostMapping(value = "/patients:bulk", consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    @PreAuthorize("hasAuthority('ROLE_OFFICE_MANAGER')")
+    public void importPatients(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Statements grow with the upload, so no per-request budget can apply
+        RequestQueries.stop();
+
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        PatientImportService.Format format = MediaType.parseMediaType(TEXT_CSV).includes(contentType)
+                ? PatientImportService.Format.CSV : PatientImportService.Format.NDJSON;
+
+        // The content type is set with the first line, so a rejected CSV header still gets a JSON error
+        BulkImportReport report = patientImportService.importPatients(
+                new InputStreamReader(request.getInputStream(), charset), format, progress -> writeLine(response, progress));
+        writeLine(response, report);
+    }
+
+    private void writeLine(HttpServletResponse response, Object value) {
+        try {
+            if (!response.isCommitted()) {
+                response.setContentType(APPLICATION_NDJSON);
+            }
+            OutputStream out = response.getOutputStream();
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            // The client went away; the chunks written so far stay
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Operation(summary = "Update patient", description = "Update an existing patient record (requires OFFICE_MANAGER role)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Patient successfully updated",
@@ -123,17 +218,22 @@ public class PatientController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Search patients", description = "Search patients by name or patient number")
+    @Operation(summary = "Search patients", description = "Search patients by name, patient number or address; best matches first")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved search results",
                     content = @Content(schema = @Schema(implementation = PatientWithAddressDto.class)))
     })
     @GetMapping("/patient/search/{searchString}")
+    @VersionedBy({DataVersions.PATIENTS, DataVersions.ADDRESSES})
     @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
     public List<PatientWithAddressDto> searchPatients(
-            @Parameter(description = "Search string", required = true) @PathVariable String searchString) {
-        List<Patient> results = patientService.searchPatients(searchString);
-        return results.stream().map(p -> {
+            @Parameter(description = "Search string", required = true) @PathVariable String searchString,
+            @Parameter(description = "Maximum number of results (1-500)") @RequestParam(defaultValue = "50") int limit) {
+        return toDtos(patientService.searchPatients(searchString, limit));
+    }
+
+    private List<PatientWithAddressDto> toDtos(List<Patient> patients) {
+        return patients.stream().map(p -> {
             AddressSimpleDto addr = null;
             if (p.getAddress() != null) {
                 addr = new AddressSimpleDto(p.getAddress().getId(), p.getAddress().getStreet(), p.getAddress().getCity(), p.getAddress().getZipCode());
@@ -141,5 +241,4 @@ public class PatientController {
             return new PatientWithAddressDto(p.getId(), p.getPatNo(), p.getName(), addr);
         }).collect(Collectors.toList());
     }
-}
-
+}
\ No newline at end of file
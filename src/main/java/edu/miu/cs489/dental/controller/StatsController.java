@@ -0,0 +1,37 @@
+package edu.miu.cs489.dental.controller;
+
+import edu.miu.cs489.dental.dto.StatsDto;
+import edu.miu.cs489.dental.service.EntityStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/adsweb/api/v1/stats")
+@Tag(name = "Statistics", description = "Entity counts for the dashboard")
+@SecurityRequirement(name = "bearerAuth")
+public class StatsController {
+
+    @Autowired
+    private EntityStatistics entityStatistics;
+
+    @Operation(summary = "Get entity statistics", description = "Returns patient, dentist, surgery and appointment counts, plus appointments per day and per dentist")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics",
+                    content = @Content(schema = @Schema(implementation = StatsDto.class)))
+    })
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
+    public StatsDto getStats() {
+        return entityStatistics.snapshot();
+    }
+}
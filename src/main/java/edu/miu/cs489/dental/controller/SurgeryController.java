@@ -1,9 +1,11 @@
 package edu.miu.cs489.dental.controller;
 
-import edu.miu.cs489.dental.dto.AddressSimpleDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.cs489.dental.configuration.DataVersions;
+import edu.miu.cs489.dental.configuration.VersionedBy;
 import edu.miu.cs489.dental.dto.SurgeryDto;
-import edu.miu.cs489.dental.model.Surgery;
 import edu.miu.cs489.dental.service.SurgeryService;
+import edu.miu.cs489.dental.util.JsonSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,14 +14,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 @RestController
 @RequestMapping("/adsweb/api/v1")
 @Tag(name = "Surgeries", description = "Surgery location management endpoints")
@@ -29,23 +30,26 @@ public class SurgeryController {
     @Autowired
     private SurgeryService surgeryService;
 
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final JsonSnapshot surgeriesJson = new JsonSnapshot();
+
     @Operation(summary = "Get all surgeries", description = "Retrieve a list of all surgery locations")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved list of surgeries",
                     content = @Content(schema = @Schema(implementation = SurgeryDto.class)))
     })
     @GetMapping("/surgeries")
+    @VersionedBy({DataVersions.SURGERIES, DataVersions.ADDRESSES})
     @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
-    public List<SurgeryDto> getAllSurgeries() {
-        List<Surgery> surgeries = surgeryService.getAllSurgeries();
-        return surgeries.stream().map(s -> {
-            AddressSimpleDto addr = null;
-            if (s.getAddress() != null) {
-                addr = new AddressSimpleDto(s.getAddress().getId(), s.getAddress().getStreet(),
-                        s.getAddress().getCity(), s.getAddress().getZipCode());
-            }
-            return new SurgeryDto(s.getId(), s.getSurgeryNo(), addr);
-        }).collect(Collectors.toList());
+    public ResponseEntity<byte[]> getAllSurgeries() {
+        String tag = dataVersions.etag(DataVersions.SURGERIES, DataVersions.ADDRESSES);
+        byte[] json = surgeriesJson.get(tag, objectMapper, surgeryService::getAllSurgeries);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
     }
 }
 
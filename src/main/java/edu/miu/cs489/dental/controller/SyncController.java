@@ -0,0 +1,44 @@
+package edu.miu.cs489.dental.controller;
+
+import edu.miu.cs489.dental.dto.SyncDto;
+import edu.miu.cs489.dental.service.SyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/adsweb/api/v1/sync")
+@Tag(name = "Sync", description = "Incremental refresh for clients that keep a local copy")
+@SecurityRequirement(name = "bearerAuth")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Operation(summary = "Get changes since a sync token", description = "Returns the patients, dentists, surgeries, " +
+            "addresses and appointments created or updated since the token, the ids deleted since then, and the token " +
+            "for the next call. Without a token, or with one older than the tombstone retention, every row is returned " +
+            "and 'full' is set. Rows committed while the previous sync ran may be repeated, so apply them as upserts by id.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved changes",
+                    content = @Content(schema = @Schema(implementation = SyncDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid sync token", content = @Content)
+    })
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_OFFICE_MANAGER')")
+    public SyncDto getChanges(
+            @Parameter(description = "Token returned by the previous sync; omit for a full copy") @RequestParam(required = false) String since) {
+        return syncService.changesSince(since);
+    }
+}
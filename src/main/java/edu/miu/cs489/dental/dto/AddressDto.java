@@ -1,5 +1,9 @@
 package edu.miu.cs489.dental.dto;
 
 public record AddressDto(Long id, String street, String city, String zipCode, PatientDto patient) {
-}
 
+    // Flat form used by JPQL constructor expressions; the patient columns are null for unowned addresses
+    public AddressDto(Long id, String street, String city, String zipCode, Long patientId, String patNo, String name) {
+        this(id, street, city, zipCode, patientId == null ? null : new PatientDto(patientId, patNo, name));
+    }
+}
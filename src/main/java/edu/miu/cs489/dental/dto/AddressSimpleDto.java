@@ -1,5 +1,11 @@
 package edu.miu.cs489.dental.dto;
 
 public record AddressSimpleDto(Long id, String street, String city, String zipCode) {
-}
 
+    /**
+     * The address, or null when a left join found none.
+     */
+    public static AddressSimpleDto of(Long id, String street, String city, String zipCode) {
+        return id == null ? null : new AddressSimpleDto(id, street, city, zipCode);
+    }
+}
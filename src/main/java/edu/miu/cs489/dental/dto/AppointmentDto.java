@@ -9,5 +9,19 @@ public record AppointmentDto(
         DentistSimpleDto dentist,
         SurgeryDto surgery
 ) {
-}
 
+    /**
+     * Flat form used by JPQL constructor expressions. Each side of the appointment comes from a
+     * left join, so a null id means that side is missing.
+     */
+    public AppointmentDto(Long id, LocalDateTime appointmentDateTime,
+                          Long patientId, String patNo, String patientName,
+                          Long dentistId, String dentistName,
+                          Long surgeryId, String surgeryNo,
+                          Long addressId, String street, String city, String zipCode) {
+        this(id, appointmentDateTime,
+                patientId == null ? null : new PatientDto(patientId, patNo, patientName),
+                dentistId == null ? null : new DentistSimpleDto(dentistId, dentistName),
+                surgeryId == null ? null : new SurgeryDto(surgeryId, surgeryNo, addressId, street, city, zipCode));
+    }
+}
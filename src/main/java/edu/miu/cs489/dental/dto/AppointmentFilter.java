@@ -0,0 +1,16 @@
+package edu.miu.cs489.dental.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional criteria for appointment listings; null fields are not applied.
+ * {@code from} is inclusive and {@code to} is exclusive.
+ */
+public record AppointmentFilter(
+        LocalDateTime from,
+        LocalDateTime to,
+        Long dentistId,
+        Long surgeryId,
+        Long patientId
+) {
+}
@@ -0,0 +1,26 @@
+package edu.miu.cs489.dental.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rows are counted without the CSV header and blank lines; every row
+ * read was either imported or rejected, except those of the chunk that was being written when
+ * {@code failure} happened. {@code rejectedRows} lists the first rejections only; see
+ * {@code rejectedRowsTruncated}.
+ */
+public record BulkImportReport(long rowsRead, long imported, long rejected, int chunks,
+                               long addressesCreated, long addressesReused, long elapsedMillis,
+                               List<Rejected> rejectedRows, boolean rejectedRowsTruncated, String failure) {
+
+    /**
+     * @param line the line of the upload the row starts on, counting from 1
+     */
+    public record Rejected(long line, String patNo, String reason) {
+    }
+
+    /**
+     * Totals after each committed chunk.
+     */
+    public record Progress(int chunk, long rowsRead, long imported, long rejected) {
+    }
+}
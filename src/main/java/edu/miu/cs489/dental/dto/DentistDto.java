@@ -5,5 +5,9 @@ public record DentistDto(
         String dentistName,
         AddressSimpleDto address
 ) {
-}
 
+    // Flat form used by JPQL constructor expressions
+    public DentistDto(Long id, String dentistName, Long addressId, String street, String city, String zipCode) {
+        this(id, dentistName, AddressSimpleDto.of(addressId, street, city, zipCode));
+    }
+}
@@ -0,0 +1,8 @@
+package edu.miu.cs489.dental.dto;
+
+/**
+ * One patient in a bulk import: a CSV record under a header naming these fields, or one NDJSON
+ * object. The address fields are either all given or all left out.
+ */
+public record PatientImportRow(String patNo, String name, String street, String city, String zipCode) {
+}
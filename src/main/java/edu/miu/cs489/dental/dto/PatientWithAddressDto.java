@@ -1,5 +1,13 @@
 package edu.miu.cs489.dental.dto;
 
 public record PatientWithAddressDto(Long id, String patNo, String name, AddressSimpleDto address) {
-}
 
+    /**
+     * Flat form used by JPQL constructor expressions; the address columns are null when the
+     * patient has none.
+     */
+    public PatientWithAddressDto(Long id, String patNo, String name,
+                                 Long addressId, String street, String city, String zipCode) {
+        this(id, patNo, name, AddressSimpleDto.of(addressId, street, city, zipCode));
+    }
+}
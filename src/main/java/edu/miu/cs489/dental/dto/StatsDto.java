@@ -0,0 +1,14 @@
+package edu.miu.cs489.dental.dto;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public record StatsDto(
+        long patients,
+        long dentists,
+        long surgeries,
+        long appointments,
+        Map<LocalDate, Long> appointmentsPerDay,
+        Map<Long, Long> appointmentsPerDentist
+) {
+}
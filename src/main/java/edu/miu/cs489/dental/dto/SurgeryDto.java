@@ -5,5 +5,9 @@ public record SurgeryDto(
         String surgeryNo,
         AddressSimpleDto address
 ) {
-}
 
+    // Flat form used by JPQL constructor expressions
+    public SurgeryDto(Long id, String surgeryNo, Long addressId, String street, String city, String zipCode) {
+        this(id, surgeryNo, AddressSimpleDto.of(addressId, street, city, zipCode));
+    }
+}
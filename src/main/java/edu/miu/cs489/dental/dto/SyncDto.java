@@ -0,0 +1,23 @@
+package edu.miu.cs489.dental.dto;
+
+import java.util.List;
+
+/**
+ * Rows created, updated or deleted since the client's sync token. Upsert every listed row by id,
+ * drop the {@code deleted} ones, and pass {@code token} on the next call. When {@code full} is set
+ * the lists hold every row and anything else the client kept should be discarded.
+ */
+public record SyncDto(String token, boolean full,
+                      List<PatientWithAddressDto> patients,
+                      List<DentistDto> dentists,
+                      List<SurgeryDto> surgeries,
+                      List<AddressDto> addresses,
+                      List<AppointmentDto> appointments,
+                      List<Deleted> deleted) {
+
+    /**
+     * @param type the list the row was in, e.g. "patients"
+     */
+    public record Deleted(String type, Long id) {
+    }
+}
@@ -0,0 +1,15 @@
+package edu.miu.cs489.dental.exception;
+
+public class AppointmentConflictException extends RuntimeException {
+
+    private final Long conflictingAppointmentId;
+
+    public AppointmentConflictException(String message, Long conflictingAppointmentId) {
+        super(message);
+        this.conflictingAppointmentId = conflictingAppointmentId;
+    }
+
+    public Long getConflictingAppointmentId() {
+        return conflictingAppointmentId;
+    }
+}
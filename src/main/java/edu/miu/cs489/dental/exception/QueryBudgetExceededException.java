@@ -0,0 +1,11 @@
+package edu.miu.cs489.dental.exception;
+
+/**
+ * Thrown when a request prepares more SQL statements than its endpoint's budget while budgets are
+ * enforced (monitoring.query-budget.enforce, on in tests).
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String endpoint, int count, int budget, String sql) {
+        super("Query budget of " + budget + " exceeded on " + endpoint + " (statement " + count + ": " + sql + ")");
+    }
+}
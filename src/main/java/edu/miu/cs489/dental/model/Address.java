@@ -1,19 +1,57 @@
 package edu.miu.cs489.dental.model;
 
+import edu.miu.cs489.dental.configuration.DataVersionListener;
+import edu.miu.cs489.dental.configuration.IdSequences;
+import edu.miu.cs489.dental.configuration.ReferenceDataCache;
+import edu.miu.cs489.dental.service.ChangeStampListener;
+import edu.miu.cs489.dental.service.TombstoneListener;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners({DataVersionListener.class, TombstoneListener.class, ChangeStampListener.class})
+@Table(indexes = {
+        @Index(name = "idx_address_change_seq", columnList = "change_seq"),
+        @Index(name = "idx_address_zip_code", columnList = "zip_code")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.ADDRESS)
 @Data
 public class Address {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "address_id")
+    @TableGenerator(name = "address_id", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = IdSequences.ADDRESS,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
+    // Bumped by every update (optimistic locking); changeSeq is what the sync endpoint reads changes by
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // Stamped in the database just before commit, see ChangeStampListener
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
     private String street;
     private String city;
     private String zipCode;
@@ -26,4 +64,4 @@ public class Address {
 
     @OneToOne(mappedBy = "address")
     private Surgery surgery;
-}
\ No newline at end of file
+}
@@ -1,22 +1,56 @@
 package edu.miu.cs489.dental.model;
 
+import edu.miu.cs489.dental.configuration.DataVersionListener;
+import edu.miu.cs489.dental.configuration.IdSequences;
+import edu.miu.cs489.dental.service.ChangeStampListener;
+import edu.miu.cs489.dental.service.EntityStatisticsListener;
+import edu.miu.cs489.dental.service.TombstoneListener;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners({EntityStatisticsListener.class, DataVersionListener.class, TombstoneListener.class, ChangeStampListener.class})
+@Table(indexes = {
+        @Index(name = "idx_appointment_date_time", columnList = "appointment_date_time"),
+        @Index(name = "idx_appointment_dentist_time", columnList = "dentist_id, appointment_date_time"),
+        @Index(name = "idx_appointment_surgery_time", columnList = "surgery_id, appointment_date_time"),
+        @Index(name = "idx_appointment_patient_time", columnList = "patient_id, appointment_date_time"),
+        @Index(name = "idx_appointment_change_seq", columnList = "change_seq")
+})
 @Data
 public class Appointment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "appointment_id")
+    @TableGenerator(name = "appointment_id", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = IdSequences.APPOINTMENT,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
+    // Bumped by every update (optimistic locking); changeSeq is what the sync endpoint reads changes by
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // Stamped in the database just before commit, see ChangeStampListener
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
     private LocalDateTime appointmentDateTime;
 
     @ManyToOne
@@ -0,0 +1,20 @@
+package edu.miu.cs489.dental.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Change counter of one aggregate (patients, dentists, ...), bumped after every committed write to
+ * it. Replicas poll these rows to learn what another replica changed.
+ */
+@Entity
+@Table(name = "data_version")
+@Data
+public class DataVersion {
+    @Id
+    private String aggregate;
+
+    private long version;
+}
@@ -1,22 +1,57 @@
 package edu.miu.cs489.dental.model;
 
+import edu.miu.cs489.dental.configuration.DataVersionListener;
+import edu.miu.cs489.dental.configuration.IdSequences;
+import edu.miu.cs489.dental.configuration.ReferenceDataCache;
+import edu.miu.cs489.dental.service.ChangeStampListener;
+import edu.miu.cs489.dental.service.EntityStatisticsListener;
+import edu.miu.cs489.dental.service.TombstoneListener;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@EntityListeners({EntityStatisticsListener.class, DataVersionListener.class, TombstoneListener.class, ChangeStampListener.class})
+@Table(indexes = @Index(name = "idx_dentist_change_seq", columnList = "change_seq"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.DENTIST)
 @Data
 public class Dentist {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "dentist_id")
+    @TableGenerator(name = "dentist_id", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = IdSequences.DENTIST,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
+    // Bumped by every update (optimistic locking); changeSeq is what the sync endpoint reads changes by
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // Stamped in the database just before commit, see ChangeStampListener
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
     private String dentistName;
 
     @OneToOne
@@ -24,4 +59,4 @@ public class Dentist {
 
     @OneToMany(mappedBy = "dentist")
     private List<Appointment> appointments;
-}
\ No newline at end of file
+}
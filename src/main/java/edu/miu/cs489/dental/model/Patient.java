@@ -1,30 +1,89 @@
 package edu.miu.cs489.dental.model;
 
+import jakarta.persistence.Column;
+import edu.miu.cs489.dental.configuration.DataVersionListener;
+import edu.miu.cs489.dental.configuration.IdSequences;
+import edu.miu.cs489.dental.service.ChangeStampListener;
+import edu.miu.cs489.dental.service.EntityStatisticsListener;
+import edu.miu.cs489.dental.service.TombstoneListener;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@EntityListeners({EntityStatisticsListener.class, DataVersionListener.class, TombstoneListener.class, ChangeStampListener.class})
+@Table(indexes = {
+        @Index(name = "idx_patient_last_name_key", columnList = "last_name_key, id"),
+        @Index(name = "idx_patient_change_seq", columnList = "change_seq"),
+        @Index(name = "idx_patient_pat_no", columnList = "pat_no")
+})
 @Data
 public class Patient {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "patient_id")
+    @TableGenerator(name = "patient_id", table = IdSequences.TABLE, pkColumnName = IdSequences.NAME_COLUMN,
+            valueColumnName = IdSequences.VALUE_COLUMN, pkColumnValue = IdSequences.PATIENT,
+            allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
 
+    // Bumped by every update (optimistic locking); changeSeq is what the sync endpoint reads changes by
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // Stamped in the database just before commit, see ChangeStampListener
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+
     private String patNo;
     private String name;
 
+    // Lower-cased last word of the name; lets the database sort and keyset-page patients by last name
+    @Column(name = "last_name_key")
+    @JsonIgnore
+    private String lastNameKey;
+
     @OneToOne
     @JsonIgnore // prevent serializing the address when a Patient is serialized to avoid cycles
     private Address address;
 
     @OneToMany(mappedBy = "patient")
     private List<Appointment> appointments;
+
+    @PrePersist
+    @PreUpdate
+    void updateLastNameKey() {
+        this.lastNameKey = lastNameKeyOf(name);
+    }
+
+    public static String lastNameKeyOf(String fullName) {
+        if (fullName == null) return "";
+        String trimmed = fullName.trim();
+        int lastSpace = -1;
+        for (int i = trimmed.length() - 1; i >= 0; i--) {
+            if (Character.isWhitespace(trimmed.charAt(i))) {
+                lastSpace = i;
+                break;
+            }
+        }
+        return trimmed.substring(lastSpace + 1).toLowerCase();
+    }
 }
\ No newline at end of file
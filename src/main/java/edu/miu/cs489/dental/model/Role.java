@@ -1,16 +1,26 @@
 package edu.miu.cs489.dental.model;
 
+import edu.miu.cs489.dental.configuration.DataVersionListener;
+import edu.miu.cs489.dental.configuration.ReferenceDataCache;
+import edu.miu.cs489.dental.security.PrincipalCacheInvalidator;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
+@EntityListeners({PrincipalCacheInvalidator.class, DataVersionListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.ROLE)
 @Table(name = "roles")
 @Data
 public class Role {
@@ -22,4 +32,4 @@ public class Role {
 
     @OneToMany(mappedBy = "role")
     private List<User> users;
-}
\ No newline at end of file
+}
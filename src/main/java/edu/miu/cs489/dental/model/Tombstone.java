@@ -0,0 +1,42 @@
+package edu.miu.cs489.dental.model;
+
+import edu.miu.cs489.dental.service.ChangeStampListener;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted row, so sync clients can drop it too. {@code aggregate} is one of the
+ * DataVersions names, e.g. "patients".
+ */
+@Entity
+@EntityListeners(ChangeStampListener.class)
+@Table(indexes = {
+        @Index(name = "idx_tombstone_deleted_at", columnList = "deleted_at"),
+        @Index(name = "idx_tombstone_change_seq", columnList = "change_seq")
+})
+@Data
+public class Tombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String aggregate;
+    private Long entityId;
+
+    @CreationTimestamp
+    private LocalDateTime deletedAt;
+
+    // Stamped in the database just before commit, see ChangeStampListener
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
+}
@@ -1,14 +1,20 @@
 package edu.miu.cs489.dental.model;
 
+import edu.miu.cs489.dental.security.PrincipalCacheInvalidator;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Entity
+@EntityListeners(PrincipalCacheInvalidator.class)
 @Table(name = "users")
 @Data
 public class User {
@@ -21,4 +27,10 @@ public class User {
 
     @ManyToOne
     private Role role;
-}
\ No newline at end of file
+
+    // Username as read from the database, so a rename can evict the principal cached under the old one
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String loadedUsername;
+}
@@ -0,0 +1,59 @@
+package edu.miu.cs489.dental.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts and latency of chat messages by the path that answered them: the local intent classifier,
+ * Gemini, or the rule-based engine when Gemini is not available. Kept as the
+ * {@code dental.chat.messages} timer tagged by path.
+ */
+@Component
+public class ChatPathMetrics {
+
+    public static final String LOCAL = "local";
+    public static final String LLM = "llm";
+    public static final String RULES = "rules";
+
+    public record Stats(long total, double localHitRatio, Map<String, TimerSummary> latencyByPath) {
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void register() {
+        for (String path : List.of(LOCAL, LLM, RULES)) {
+            timers.put(path, Timer.builder("dental.chat.messages")
+                    .description("Chat message latency by answering path")
+                    .tag("path", path)
+                    .register(meterRegistry));
+        }
+    }
+
+    public void record(String path, long nanos) {
+        timers.get(path).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Stats stats() {
+        Map<String, TimerSummary> summaries = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<String, Timer> e : timers.entrySet()) {
+            TimerSummary summary = TimerSummary.of(e.getValue());
+            summaries.put(e.getKey(), summary);
+            total += summary.count();
+        }
+        double localHitRatio = total == 0 ? 0.0 : (double) summaries.get(LOCAL).count() / total;
+        return new Stats(total, localHitRatio, summaries);
+    }
+}
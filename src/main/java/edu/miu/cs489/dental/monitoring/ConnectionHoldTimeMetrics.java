@@ -0,0 +1,37 @@
+package edu.miu.cs489.dental.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long a pooled JDBC connection is held between checkout and close, per endpoint, as the
+ * {@code dental.db.connection.hold} timer.
+ */
+@Component
+public class ConnectionHoldTimeMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long heldNanos) {
+        timers.computeIfAbsent(endpoint, e -> Timer.builder("dental.db.connection.hold")
+                .description("Time a JDBC connection is held between checkout and close")
+                .tag("endpoint", e)
+                .register(meterRegistry)).record(heldNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Map<String, TimerSummary> snapshot() {
+        Map<String, TimerSummary> result = new TreeMap<>();
+        timers.forEach((endpoint, timer) -> result.put(endpoint, TimerSummary.of(timer)));
+        return result;
+    }
+}
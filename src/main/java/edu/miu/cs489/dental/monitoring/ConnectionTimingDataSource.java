@@ -0,0 +1,56 @@
+package edu.miu.cs489.dental.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps the pool so every borrowed connection reports, on close, how long it was held and for
+ * which endpoint, and reports each statement it prepares to {@link RequestQueries}.
+ */
+public class ConnectionTimingDataSource extends DelegatingDataSource {
+
+    private final ConnectionHoldTimeMetrics metrics;
+
+    public ConnectionTimingDataSource(DataSource target, ConnectionHoldTimeMetrics metrics) {
+        super(target);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    private Connection timed(Connection target) {
+        long acquiredAt = System.nanoTime();
+        String endpoint = RequestEndpoint.current();
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if ("close".equals(name) && closed.compareAndSet(false, true)) {
+                        metrics.record(endpoint, System.nanoTime() - acquiredAt);
+                    } else if (("prepareStatement".equals(name) || "prepareCall".equals(name)) && args[0] instanceof String sql) {
+                        RequestQueries.statement(sql);
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
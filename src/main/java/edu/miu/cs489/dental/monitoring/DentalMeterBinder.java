@@ -0,0 +1,90 @@
+package edu.miu.cs489.dental.monitoring;
+
+import edu.miu.cs489.dental.configuration.ReferenceDataCache;
+import edu.miu.cs489.dental.security.PrincipalCache;
+import edu.miu.cs489.dental.service.EntityStatistics;
+import edu.miu.cs489.dental.service.GeminiAIService;
+import edu.miu.cs489.dental.service.GeminiResponseCache;
+import edu.miu.cs489.dental.util.CircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the application's own counters (caches, entity counts, Gemini circuit) as Micrometer
+ * meters, read from the existing stats objects at scrape time.
+ */
+@Component
+public class DentalMeterBinder implements MeterBinder {
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private GeminiResponseCache geminiResponseCache;
+
+    @Autowired
+    private GeminiAIService geminiAIService;
+
+    @Autowired
+    private EntityStatistics entityStatistics;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cacheRequests(registry, "dental.principal.cache.requests", "hit", principalCache, c -> c.stats().hits());
+        cacheRequests(registry, "dental.principal.cache.requests", "miss", principalCache, c -> c.stats().misses());
+        FunctionCounter.builder("dental.principal.cache.evictions", principalCache, c -> c.stats().evictions())
+                .register(registry);
+        Gauge.builder("dental.principal.cache.size", principalCache, c -> c.stats().size())
+                .register(registry);
+
+        cacheRequests(registry, "dental.gemini.cache.requests", "hit", geminiResponseCache, c -> c.stats().hits());
+        cacheRequests(registry, "dental.gemini.cache.requests", "miss", geminiResponseCache, c -> c.stats().misses());
+        FunctionCounter.builder("dental.gemini.cache.evictions", geminiResponseCache, c -> c.stats().evictions() + c.stats().expirations())
+                .register(registry);
+        Gauge.builder("dental.gemini.cache.size", geminiResponseCache, c -> c.stats().size())
+                .register(registry);
+        Gauge.builder("dental.gemini.cache.bytes", geminiResponseCache, c -> c.stats().bytes())
+                .baseUnit("bytes")
+                .register(registry);
+
+        Gauge.builder("dental.gemini.circuit.open", geminiAIService, s -> s.getCircuitState() == CircuitBreaker.State.OPEN ? 1 : 0)
+                .description("1 while the Gemini circuit breaker is open and chat falls back to rules")
+                .register(registry);
+
+        // Raw hit/miss counts per region are already published by Hibernate as hibernate.second.level.cache.requests
+        for (String region : ReferenceDataCache.ENTITY_REGIONS) {
+            Gauge.builder("dental.cache.hit.ratio", referenceDataCache, c -> c.stats().get(region).hitRatio())
+                    .tag("region", region)
+                    .register(registry);
+            FunctionCounter.builder("dental.cache.remote.evictions", referenceDataCache, c -> c.stats().get(region).remoteEvictions())
+                    .tag("region", region)
+                    .description("Evictions of the region caused by writes on another replica")
+                    .register(registry);
+        }
+        Gauge.builder("dental.cache.hit.ratio", referenceDataCache, c -> c.stats().get(ReferenceDataCache.QUERY_RESULTS).hitRatio())
+                .tag("region", ReferenceDataCache.QUERY_RESULTS)
+                .register(registry);
+
+        entities(registry, "patients", EntityStatistics::getPatientCount);
+        entities(registry, "dentists", EntityStatistics::getDentistCount);
+        entities(registry, "surgeries", EntityStatistics::getSurgeryCount);
+        entities(registry, "appointments", EntityStatistics::getAppointmentCount);
+    }
+
+    private static <T> void cacheRequests(MeterRegistry registry, String name, String result, T cache, ToDoubleFunction<T> count) {
+        FunctionCounter.builder(name, cache, count).tag("result", result).register(registry);
+    }
+
+    private void entities(MeterRegistry registry, String type, ToDoubleFunction<EntityStatistics> count) {
+        Gauge.builder("dental.entities", entityStatistics, count).tag("type", type).register(registry);
+    }
+}
@@ -0,0 +1,49 @@
+package edu.miu.cs489.dental.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-endpoint limits on SQL statements per request, and the repeat count at which one statement
+ * shape is reported as a suspected N+1. Endpoints are written as the request label, e.g.
+ * {@code GET /adsweb/api/v1/patients/{id}}; overrides are a comma-separated list of
+ * {@code endpoint=budget}.
+ */
+@Component
+public class QueryBudget {
+
+    private final int defaultBudget;
+    private final int repeatThreshold;
+    private final boolean enforce;
+    private final Map<String, Integer> byEndpoint = new HashMap<>();
+
+    public QueryBudget(@Value("${monitoring.query-budget.default:20}") int defaultBudget,
+                       @Value("${monitoring.query-budget.endpoints:}") String endpoints,
+                       @Value("${monitoring.query-budget.enforce:false}") boolean enforce,
+                       @Value("${monitoring.n-plus-one.threshold:5}") int repeatThreshold) {
+        this.defaultBudget = defaultBudget;
+        this.repeatThreshold = repeatThreshold;
+        this.enforce = enforce;
+        for (String entry : endpoints.split(",")) {
+            int eq = entry.lastIndexOf('=');
+            if (eq > 0) {
+                byEndpoint.put(entry.substring(0, eq).trim(), Integer.parseInt(entry.substring(eq + 1).trim()));
+            }
+        }
+    }
+
+    public int budgetFor(String endpoint) {
+        return byEndpoint.getOrDefault(endpoint, defaultBudget);
+    }
+
+    public int getRepeatThreshold() {
+        return repeatThreshold;
+    }
+
+    public boolean isEnforced() {
+        return enforce;
+    }
+}
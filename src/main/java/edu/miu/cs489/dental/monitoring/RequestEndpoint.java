@@ -0,0 +1,55 @@
+package edu.miu.cs489.dental.monitoring;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Holds the endpoint ("GET /adsweb/api/v1/patients/{id}") the current thread is working for, so
+ * lower layers such as the connection pool can attribute what they measure.
+ */
+public final class RequestEndpoint {
+
+    public static final String BACKGROUND = "background";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RequestEndpoint() {
+    }
+
+    public static String current() {
+        String endpoint = CURRENT.get();
+        return endpoint == null ? BACKGROUND : endpoint;
+    }
+
+    public static String get() {
+        return CURRENT.get();
+    }
+
+    public static void set(String endpoint) {
+        if (endpoint == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(endpoint);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns an executor that runs tasks under the endpoint of the calling thread. Call it on the
+     * request thread; the label then follows work that continues on pool threads.
+     */
+    public static Executor bind(Executor executor) {
+        String endpoint = get();
+        return task -> executor.execute(() -> {
+            String previous = get();
+            set(endpoint);
+            try {
+                task.run();
+            } finally {
+                set(previous);
+            }
+        });
+    }
+}
@@ -0,0 +1,153 @@
+package edu.miu.cs489.dental.monitoring;
+
+import edu.miu.cs489.dental.exception.QueryBudgetExceededException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Tracks the SQL statements the current thread prepares while handling one request: the total, and
+ * how often each statement shape (the SQL with IN lists and literals collapsed) repeats. A shape
+ * repeated {@code repeatThreshold} times is a suspected N+1 and keeps the stack of the call that
+ * crossed the threshold. With {@code enforce} set, the statement that goes over the budget fails.
+ */
+public final class RequestQueries {
+
+    private static final ThreadLocal<Tracker> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern LITERAL = Pattern.compile("'(?:[^']|'')*'|\\b\\d+\\b");
+
+    private static final String APP_PACKAGE = "edu.miu.cs489.dental.";
+    // The tracking itself: this class, the JDBC hook reporting statements and the interceptor
+    private static final List<String> TRACKING_CLASSES = List.of(RequestQueries.class.getName(),
+            ConnectionTimingDataSource.class.getName(), RequestQueryInterceptor.class.getName());
+    private static final int STACK_DEPTH = 8;
+
+    private RequestQueries() {
+    }
+
+    public static final class Shape {
+        private final String sql;
+        private int count;
+        private List<StackTraceElement> stack;
+
+        private Shape(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public List<StackTraceElement> getStack() {
+            return stack;
+        }
+    }
+
+    public static final class Tracker {
+        private final String endpoint;
+        private final int budget;
+        private final int repeatThreshold;
+        private final boolean enforce;
+        private final Map<String, Shape> shapes = new HashMap<>();
+        private final List<Shape> repeated = new ArrayList<>();
+        private int count;
+
+        private Tracker(String endpoint, int budget, int repeatThreshold, boolean enforce) {
+            this.endpoint = endpoint;
+            this.budget = budget;
+            this.repeatThreshold = repeatThreshold;
+            this.enforce = enforce;
+        }
+
+        private void statement(String sql) {
+            count++;
+            if (enforce && count > budget) {
+                throw new QueryBudgetExceededException(endpoint, count, budget, sql);
+            }
+            Shape shape = shapes.computeIfAbsent(shapeOf(sql), Shape::new);
+            if (++shape.count == repeatThreshold) {
+                shape.stack = callerStack();
+                repeated.add(shape);
+            }
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getBudget() {
+            return budget;
+        }
+
+        public boolean isOverBudget() {
+            return count > budget;
+        }
+
+        /**
+         * Shapes that reached the repeat threshold, in the order they reached it.
+         */
+        public List<Shape> getRepeatedShapes() {
+            return repeated;
+        }
+    }
+
+    public static void start(String endpoint, int budget, int repeatThreshold, boolean enforce) {
+        CURRENT.set(new Tracker(endpoint, budget, repeatThreshold, enforce));
+    }
+
+    /**
+     * Ends tracking on this thread; returns what was tracked, or null when tracking was not started.
+     */
+    public static Tracker stop() {
+        Tracker tracker = CURRENT.get();
+        CURRENT.remove();
+        return tracker;
+    }
+
+    /**
+     * Called for every statement prepared on a pooled connection; a no-op outside a tracked request.
+     */
+    static void statement(String sql) {
+        Tracker tracker = CURRENT.get();
+        if (tracker != null) {
+            tracker.statement(sql);
+        }
+    }
+
+    static String shapeOf(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("in (?)");
+    }
+
+    // Application frames other than the tracking's own: the repository, service and controller that issued the query
+    private static List<StackTraceElement> callerStack() {
+        return Arrays.stream(new Throwable().getStackTrace())
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE) && !isTracking(frame.getClassName()))
+                .limit(STACK_DEPTH)
+                .toList();
+    }
+
+    // Nested and lambda classes are named after their enclosing class
+    private static boolean isTracking(String className) {
+        for (String tracking : TRACKING_CLASSES) {
+            if (className.equals(tracking) || className.startsWith(tracking + "$")) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,79 @@
+package edu.miu.cs489.dental.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Tracks the SQL statements of each request (see {@link RequestQueries}). At the end it records the
+ * {@code dental.http.queries} distribution and {@code dental.db.statements} counter per endpoint,
+ * logs suspected N+1 patterns with the code that issued them, and logs requests over their
+ * {@link QueryBudget}. Must be registered after {@link RequestEndpointInterceptor}, whose endpoint
+ * label it reads.
+ * <p>
+ * Async requests (chat) are not tracked: their work continues on other threads.
+ */
+public class RequestQueryInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final QueryBudget queryBudget;
+
+    public RequestQueryInterceptor(MeterRegistry meterRegistry, QueryBudget queryBudget) {
+        this.meterRegistry = meterRegistry;
+        this.queryBudget = queryBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            String endpoint = RequestEndpoint.current();
+            RequestQueries.start(endpoint, queryBudget.budgetFor(endpoint), queryBudget.getRepeatThreshold(), queryBudget.isEnforced());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestQueries.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestQueries.Tracker tracker = RequestQueries.stop();
+        if (tracker == null) {
+            return;
+        }
+        String endpoint = tracker.getEndpoint();
+        DistributionSummary.builder("dental.http.queries")
+                .description("SQL statements run per request")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(tracker.getCount());
+        Counter.builder("dental.db.statements")
+                .description("SQL statements prepared while handling requests")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment(tracker.getCount());
+
+        for (RequestQueries.Shape shape : tracker.getRepeatedShapes()) {
+            Counter.builder("dental.db.n_plus_one")
+                    .description("Requests where one statement shape repeated past the N+1 threshold")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+            StringBuilder message = new StringBuilder("⚠️ Possible N+1 on ").append(endpoint).append(": ")
+                    .append(shape.getCount()).append("x ").append(shape.getSql());
+            for (StackTraceElement frame : shape.getStack()) {
+                message.append("\n    at ").append(frame);
+            }
+            System.err.println(message);
+        }
+        if (tracker.isOverBudget()) {
+            System.err.println("⚠️ " + endpoint + " ran " + tracker.getCount() + " SQL statements, over its budget of " + tracker.getBudget());
+        }
+    }
+}
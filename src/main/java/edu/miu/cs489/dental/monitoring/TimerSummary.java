@@ -0,0 +1,29 @@
+package edu.miu.cs489.dental.monitoring;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One Micrometer timer as the metrics endpoints report it. The percentiles are the ones configured
+ * for the timer under {@code management.metrics.distribution.percentiles}; max covers the
+ * registry's recent window only.
+ */
+public record TimerSummary(long count, double meanMs, double maxMs, Map<String, Double> percentilesMs) {
+
+    public static TimerSummary of(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        for (ValueAtPercentile p : snapshot.percentileValues()) {
+            String name = "p" + BigDecimal.valueOf(p.percentile() * 100).stripTrailingZeros().toPlainString();
+            percentiles.put(name, p.value(TimeUnit.MILLISECONDS));
+        }
+        return new TimerSummary(snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                snapshot.max(TimeUnit.MILLISECONDS), percentiles);
+    }
+}
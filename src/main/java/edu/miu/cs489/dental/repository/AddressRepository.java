@@ -1,17 +1,44 @@
 package edu.miu.cs489.dental.repository;
 
+import edu.miu.cs489.dental.dto.AddressDto;
 import edu.miu.cs489.dental.model.Address;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface AddressRepository extends JpaRepository<Address, Long> {
 
-    @Query("select distinct a from Address a " +
-            "left join fetch a.patient p " +
-            "left join fetch a.dentist d " +
-            "left join fetch a.surgery s " +
-            "order by lower(a.city)")
-    List<Address> findAllWithRelationsOrderByCity();
-}
\ No newline at end of file
+    // Read-only listing projected straight into DTOs; see PatientRepository.SELECT_DTO
+    String SELECT_DTO = "select new edu.miu.cs489.dental.dto.AddressDto(a.id, a.street, a.city, a.zipCode, p.id, p.patNo, p.name) " +
+            "from Address a left join a.patient p ";
+
+    // Sort key of the city listing; an address without a city sorts first, as a null would
+    String CITY_KEY = "coalesce(lower(a.city), '') ";
+
+    @Query(SELECT_DTO + "order by " + CITY_KEY + ", a.id")
+    List<AddressDto> findAllDtosOrderByCity();
+
+    @Query(SELECT_DTO + "order by " + CITY_KEY + ", a.id")
+    List<AddressDto> findFirstDtoPageOrderByCity(Pageable pageable);
+
+    // Keyset page: rows strictly after (city key, id)
+    @Query(SELECT_DTO + "where " + CITY_KEY + "> :key or (" + CITY_KEY + "= :key and a.id > :id) " +
+            "order by " + CITY_KEY + ", a.id")
+    List<AddressDto> findDtoPageAfterOrderByCity(@Param("key") String key, @Param("id") Long id, Pageable pageable);
+
+    // Served by idx_address_change_seq; likewise in the other aggregates' repositories
+    @Query(SELECT_DTO + "where a.changeSeq > :changeSeq order by a.changeSeq, a.id")
+    List<AddressDto> findDtosChangedAfter(@Param("changeSeq") long changeSeq);
+
+    /**
+     * Addresses in these zip codes that no patient, dentist or surgery refers to, fetched with those
+     * (empty) inverse one-to-ones so they cost no further selects. Served by idx_address_zip_code.
+     */
+    @Query("select a from Address a left join fetch a.patient p left join fetch a.dentist d left join fetch a.surgery s " +
+            "where a.zipCode in :zipCodes and p.id is null and d.id is null and s.id is null")
+    List<Address> findUnreferencedByZipCodeIn(@Param("zipCodes") Collection<String> zipCodes);
+}
@@ -2,9 +2,28 @@ package edu.miu.cs489.dental.repository;
 
 import edu.miu.cs489.dental.model.Appointment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentRepositoryCustom {
     List<Appointment> findAllByOrderByAppointmentDateTimeAsc();
-}
\ No newline at end of file
+
+    // (id, appointmentDateTime, dentist id) for every appointment, without loading the entities
+    @Query("SELECT a.id, a.appointmentDateTime, d.id FROM Appointment a LEFT JOIN a.dentist d")
+    List<Object[]> findAllSlots();
+
+    // Appointments of one length overlap exactly when their starts are less than that length apart,
+    // so callers pass the open window (start - length, start + length)
+    @Query("SELECT a.id FROM Appointment a WHERE a.dentist.id = :dentistId " +
+            "AND a.appointmentDateTime > :from AND a.appointmentDateTime < :to AND (:excludedId IS NULL OR a.id <> :excludedId)")
+    List<Long> findDentistOverlaps(@Param("dentistId") Long dentistId, @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to, @Param("excludedId") Long excludedId);
+
+    @Query("SELECT a.id FROM Appointment a WHERE a.surgery.id = :surgeryId " +
+            "AND a.appointmentDateTime > :from AND a.appointmentDateTime < :to AND (:excludedId IS NULL OR a.id <> :excludedId)")
+    List<Long> findSurgeryOverlaps(@Param("surgeryId") Long surgeryId, @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to, @Param("excludedId") Long excludedId);
+}
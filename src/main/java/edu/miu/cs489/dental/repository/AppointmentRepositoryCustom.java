@@ -0,0 +1,29 @@
+package edu.miu.cs489.dental.repository;
+
+import edu.miu.cs489.dental.dto.AppointmentDto;
+import edu.miu.cs489.dental.dto.AppointmentFilter;
+import edu.miu.cs489.dental.model.Appointment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AppointmentRepositoryCustom {
+
+    /**
+     * Appointments matching {@code filter}, ordered by date/time then id, starting strictly after
+     * ({@code afterTime}, {@code afterId}) when {@code afterId} is given. Rows without a date/time
+     * sort first, so a null {@code afterTime} with an id continues among those. {@code maxResults} of
+     * 0 means no limit.
+     */
+    List<Appointment> findFiltered(AppointmentFilter filter, LocalDateTime afterTime, Long afterId, int maxResults);
+
+    /**
+     * Same rows as {@link #findFiltered}, projected straight into DTOs by one joined select.
+     */
+    List<AppointmentDto> findFilteredDtos(AppointmentFilter filter, LocalDateTime afterTime, Long afterId, int maxResults);
+
+    /**
+     * Appointments whose change was stamped after {@code changeSeq}, projected like {@link #findFilteredDtos}.
+     */
+    List<AppointmentDto> findDtosChangedAfter(long changeSeq);
+}
@@ -0,0 +1,96 @@
+package edu.miu.cs489.dental.repository;
+
+import edu.miu.cs489.dental.dto.AppointmentDto;
+import edu.miu.cs489.dental.dto.AppointmentFilter;
+import edu.miu.cs489.dental.model.Appointment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AppointmentRepositoryCustomImpl implements AppointmentRepositoryCustom {
+
+    // Every to-one edge an appointment row reaches is eager, including the inverse owners of each
+    // address, so all of them are fetched here; anything left out becomes one select per row
+    private static final String FETCH_ALL =
+            "left join fetch a.patient p left join fetch p.address pa left join fetch pa.dentist left join fetch pa.surgery " +
+            "left join fetch a.dentist d left join fetch d.address da left join fetch da.patient left join fetch da.surgery " +
+            "left join fetch a.surgery s left join fetch s.address sa left join fetch sa.patient left join fetch sa.dentist ";
+
+    // Only the columns AppointmentDto carries; plain joins, so nothing is hydrated or managed
+    private static final String SELECT_DTO =
+            "select new edu.miu.cs489.dental.dto.AppointmentDto(a.id, a.appointmentDateTime, " +
+            "p.id, p.patNo, p.name, d.id, d.dentistName, s.id, s.surgeryNo, sa.id, sa.street, sa.city, sa.zipCode) " +
+            "from Appointment a left join a.patient p left join a.dentist d left join a.surgery s left join s.address sa ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Appointment> findFiltered(AppointmentFilter filter, LocalDateTime afterTime, Long afterId, int maxResults) {
+        return query("select a from Appointment a " + FETCH_ALL, Appointment.class, filter, afterTime, afterId, maxResults)
+                .getResultList();
+    }
+
+    @Override
+    public List<AppointmentDto> findFilteredDtos(AppointmentFilter filter, LocalDateTime afterTime, Long afterId, int maxResults) {
+        return query(SELECT_DTO, AppointmentDto.class, filter, afterTime, afterId, maxResults).getResultList();
+    }
+
+    @Override
+    public List<AppointmentDto> findDtosChangedAfter(long changeSeq) {
+        return entityManager.createQuery(SELECT_DTO + "where a.changeSeq > :changeSeq order by a.changeSeq, a.id", AppointmentDto.class)
+                .setParameter("changeSeq", changeSeq)
+                .getResultList();
+    }
+
+    private <T> TypedQuery<T> query(String select, Class<T> type, AppointmentFilter filter,
+                              LocalDateTime afterTime, Long afterId, int maxResults) {
+        // Only the predicates actually requested are emitted, so MySQL can pick the matching
+        // (entity_id, appointment_date_time) index declared on Appointment
+        StringBuilder jpql = new StringBuilder(select + "where 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (filter.dentistId() != null) {
+            jpql.append(" and a.dentist.id = :dentistId");
+            params.put("dentistId", filter.dentistId());
+        }
+        if (filter.surgeryId() != null) {
+            jpql.append(" and a.surgery.id = :surgeryId");
+            params.put("surgeryId", filter.surgeryId());
+        }
+        if (filter.patientId() != null) {
+            jpql.append(" and a.patient.id = :patientId");
+            params.put("patientId", filter.patientId());
+        }
+        if (filter.from() != null) {
+            jpql.append(" and a.appointmentDateTime >= :from");
+            params.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            jpql.append(" and a.appointmentDateTime < :to");
+            params.put("to", filter.to());
+        }
+        if (afterTime != null) {
+            jpql.append(" and (a.appointmentDateTime > :afterTime or (a.appointmentDateTime = :afterTime and a.id > :afterId))");
+            params.put("afterTime", afterTime);
+            params.put("afterId", afterId);
+        } else if (afterId != null) {
+            jpql.append(" and (a.appointmentDateTime is not null or a.id > :afterId)");
+            params.put("afterId", afterId);
+        }
+        // MySQL (and H2 in its mode) sorts nulls first in ascending order, which the keyset above relies on
+        jpql.append(" order by a.appointmentDateTime, a.id");
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), type);
+        params.forEach(query::setParameter);
+        if (maxResults > 0) {
+            query.setMaxResults(maxResults);
+        }
+        return query;
+    }
+}
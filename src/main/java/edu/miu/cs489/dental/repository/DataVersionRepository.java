@@ -0,0 +1,15 @@
+package edu.miu.cs489.dental.repository;
+
+import edu.miu.cs489.dental.model.DataVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface DataVersionRepository extends JpaRepository<DataVersion, String> {
+
+    // A single atomic update, so concurrent bumps from several replicas are never lost
+    @Modifying
+    @Query("update DataVersion v set v.version = v.version + 1 where v.aggregate = :aggregate")
+    int bump(@Param("aggregate") String aggregate);
+}
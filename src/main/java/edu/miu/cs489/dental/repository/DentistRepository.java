@@ -1,10 +1,45 @@
 package edu.miu.cs489.dental.repository;
 
+import edu.miu.cs489.dental.dto.DentistDto;
 import edu.miu.cs489.dental.model.Dentist;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface DentistRepository extends JpaRepository<Dentist, Long> {
-    List<Dentist> findByDentistNameContainingIgnoreCase(String searchString);
-}
\ No newline at end of file
+
+    // Address and its other (eager) owners in the same query; see PatientRepository.FETCH_ADDRESS
+    String FETCH_ADDRESS = "left join fetch d.address a left join fetch a.patient left join fetch a.surgery ";
+
+    @Query("select d from Dentist d " + FETCH_ADDRESS + "order by d.id")
+    List<Dentist> findAllWithAddress();
+
+    @Query("select d from Dentist d " + FETCH_ADDRESS +
+            "where lower(d.dentistName) like lower(concat('%', :s, '%')) order by d.id")
+    List<Dentist> findByDentistNameContainingIgnoreCase(@Param("s") String searchString);
+
+    // Read-only listing projected straight into DTOs; see PatientRepository.SELECT_DTO
+    String SELECT_DTO = "select new edu.miu.cs489.dental.dto.DentistDto(d.id, d.dentistName, a.id, a.street, a.city, a.zipCode) " +
+            "from Dentist d left join d.address a ";
+
+    // Kept in the query cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DTO + "order by d.id")
+    List<DentistDto> findAllDtos();
+
+    @Query(SELECT_DTO + "where d.changeSeq > :changeSeq order by d.changeSeq, d.id")
+    List<DentistDto> findDtosChangedAfter(@Param("changeSeq") long changeSeq);
+
+    // select ... for update: serializes the bookings of one dentist until the booking transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Dentist d where d.id = :id")
+    Optional<Dentist> lockById(@Param("id") Long id);
+}
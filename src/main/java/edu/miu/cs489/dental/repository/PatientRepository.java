@@ -1,19 +1,84 @@
 package edu.miu.cs489.dental.repository;
 
+import edu.miu.cs489.dental.dto.PatientWithAddressDto;
 import edu.miu.cs489.dental.model.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface PatientRepository extends JpaRepository<Patient, Long> {
 
-    @Query("select p from Patient p left join p.address a where " +
+    /**
+     * Fetches the address with the patient, plus the address's other owners: its inverse one-to-ones
+     * are eager, so leaving them out costs two extra selects per patient.
+     */
+    String FETCH_ADDRESS = "left join fetch p.address a left join fetch a.dentist left join fetch a.surgery ";
+
+    @Query("select p from Patient p " + FETCH_ADDRESS + "where " +
             "lower(p.name) like lower(concat('%', :s, '%')) or " +
             "lower(p.patNo) like lower(concat('%', :s, '%')) or " +
             "lower(a.street) like lower(concat('%', :s, '%')) or " +
             "lower(a.city) like lower(concat('%', :s, '%')) or " +
             "lower(a.zipCode) like lower(concat('%', :s, '%'))")
     List<Patient> search(@Param("s") String s);
-}
\ No newline at end of file
+
+    @Query("select p from Patient p " + FETCH_ADDRESS + "order by p.lastNameKey, p.id")
+    List<Patient> findAllOrderByLastName();
+
+    @Query("select p from Patient p " + FETCH_ADDRESS + "order by p.lastNameKey, p.id")
+    List<Patient> findFirstPageOrderByLastName(Pageable pageable);
+
+    // Keyset page: rows strictly after (lastNameKey, id), served by idx_patient_last_name_key
+    @Query("select p from Patient p " + FETCH_ADDRESS + "where " +
+            "p.lastNameKey > :key or (p.lastNameKey = :key and p.id > :id) " +
+            "order by p.lastNameKey, p.id")
+    List<Patient> findPageAfterOrderByLastName(@Param("key") String key, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Read-only listing: one joined select straight into DTOs, so no entities are hydrated,
+     * registered in the persistence context or dirty-checked.
+     */
+    String SELECT_DTO = "select new edu.miu.cs489.dental.dto.PatientWithAddressDto(" +
+            "p.id, p.patNo, p.name, a.id, a.street, a.city, a.zipCode) from Patient p left join p.address a ";
+
+    @Query(SELECT_DTO + "order by p.lastNameKey, p.id")
+    List<PatientWithAddressDto> findAllDtosOrderByLastName();
+
+    @Query(SELECT_DTO + "order by p.lastNameKey, p.id")
+    List<PatientWithAddressDto> findFirstDtoPageOrderByLastName(Pageable pageable);
+
+    @Query(SELECT_DTO + "where p.lastNameKey > :key or (p.lastNameKey = :key and p.id > :id) " +
+            "order by p.lastNameKey, p.id")
+    List<PatientWithAddressDto> findDtoPageAfterOrderByLastName(@Param("key") String key, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Rows of a streamed query are read from the driver this many at a time. MySQL only
+     * honours it with useCursorFetch=true; otherwise Connector/J buffers the whole result.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    // Must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + "order by p.lastNameKey, p.id")
+    Stream<PatientWithAddressDto> streamAllDtosOrderByLastName();
+
+    @Query(SELECT_DTO + "where p.changeSeq > :changeSeq order by p.changeSeq, p.id")
+    List<PatientWithAddressDto> findDtosChangedAfter(@Param("changeSeq") long changeSeq);
+
+    List<Patient> findByLastNameKeyIsNull();
+
+    // Served by idx_patient_pat_no
+    @Query("select p.patNo from Patient p where p.patNo in :patNos")
+    List<String> findPatNosIn(@Param("patNos") Collection<String> patNos);
+
+    @Query("select p from Patient p " + FETCH_ADDRESS + "where p.id in :ids")
+    List<Patient> findAllWithAddressByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,7 +1,35 @@
 package edu.miu.cs489.dental.repository;
 
+import edu.miu.cs489.dental.dto.SurgeryDto;
 import edu.miu.cs489.dental.model.Surgery;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface SurgeryRepository extends JpaRepository<Surgery, Long> {
-}
\ No newline at end of file
+
+    // Read-only listing projected straight into DTOs; see PatientRepository.SELECT_DTO
+    String SELECT_DTO = "select new edu.miu.cs489.dental.dto.SurgeryDto(s.id, s.surgeryNo, a.id, a.street, a.city, a.zipCode) " +
+            "from Surgery s left join s.address a ";
+
+    // Kept in the query cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DTO + "order by s.id")
+    List<SurgeryDto> findAllDtos();
+
+    @Query(SELECT_DTO + "where s.changeSeq > :changeSeq order by s.changeSeq, s.id")
+    List<SurgeryDto> findDtosChangedAfter(@Param("changeSeq") long changeSeq);
+
+    // select ... for update: serializes the bookings of one surgery until the booking transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from Surgery s where s.id = :id")
+    Optional<Surgery> lockById(@Param("id") Long id);
+}
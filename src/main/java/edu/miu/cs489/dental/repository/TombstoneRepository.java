@@ -0,0 +1,21 @@
+package edu.miu.cs489.dental.repository;
+
+import edu.miu.cs489.dental.model.Tombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    List<Tombstone> findByChangeSeqGreaterThanOrderByChangeSeq(long changeSeq);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Tombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,5 +1,7 @@
 package edu.miu.cs489.dental.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,11 +10,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
@@ -23,8 +27,31 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    // Time spent authenticating the request (not the rest of the chain), by result
+    private Timer authenticatedTimer;
+    private Timer anonymousTimer;
+    private Timer rejectedTimer;
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.authenticatedTimer = authTimer(meterRegistry, "authenticated");
+        this.anonymousTimer = authTimer(meterRegistry, "anonymous");
+        this.rejectedTimer = authTimer(meterRegistry, "rejected");
+    }
+
+    private static Timer authTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("dental.security.jwt.filter")
+                .description("JWT verification and principal lookup per request")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long startedAt = System.nanoTime();
         final String authHeader = request.getHeader("Authorization");
 
         String username = null;
@@ -33,21 +60,30 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             jwt = authHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                // Signature and expiry are checked here, once per request
+                username = jwtUtil.verify(jwt).getSubject();
             } catch (Exception e) {
                 // invalid token; proceed without setting auth
             }
         }
 
+        Timer timer = authHeader == null ? anonymousTimer : rejectedTimer;
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
+            UserDetails userDetails = null;
+            try {
+                userDetails = principalCache.get(username, userDetailsService::loadUserByUsername);
+            } catch (UsernameNotFoundException e) {
+                // user deleted after the token was issued; proceed without setting auth
+            }
+            if (userDetails != null && username.equals(userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                timer = authenticatedTimer;
             }
         }
+        timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
 
         filterChain.doFilter(request, response);
     }
@@ -1,6 +1,7 @@
 package edu.miu.cs489.dental.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -11,7 +12,10 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
@@ -21,8 +25,17 @@ public class JwtUtil {
 
     private final long expirationMs;
 
+    // Parsers are immutable and thread-safe once built; build it once instead of per call
+    private final JwtParser parser;
+
+    // SHA-256 of an already-verified token -> its claims, valid until the token's own exp
+    private final Map<String, Claims> verifiedTokens = new ConcurrentHashMap<>();
+
+    private final int verifiedCacheMaxSize;
+
     public JwtUtil(@Value("${jwt.secret:secret_key_for_dev_change_me}") String secret,
-                   @Value("${jwt.expiration-ms:86400000}") long expirationMs) {
+                   @Value("${jwt.expiration-ms:86400000}") long expirationMs,
+                   @Value("${jwt.verified-cache.max-size:10000}") int verifiedCacheMaxSize) {
         // Derive a 256-bit key from the configured secret using SHA-256 so HS256 has a valid key size.
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
@@ -32,6 +45,36 @@ public class JwtUtil {
             throw new IllegalStateException("Unable to initialize JWT secret key", e);
         }
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
+        this.verifiedCacheMaxSize = verifiedCacheMaxSize;
+    }
+
+    /**
+     * Verifies the signature and expiry of {@code token} once and returns its claims. Tokens that
+     * were already verified are answered from a cache until they expire.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims verify(String token) {
+        String digest = digest(token);
+        Claims cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (cached.getExpiration() == null || cached.getExpiration().after(new Date())) {
+                return cached;
+            }
+            verifiedTokens.remove(digest);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+            evictExpired();
+        }
+        if (verifiedTokens.size() < verifiedCacheMaxSize) {
+            verifiedTokens.put(digest, claims);
+        }
+        return claims;
     }
 
     public String extractUsername(String token) {
@@ -43,20 +86,7 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return claimsResolver.apply(verify(token));
     }
 
     public String generateToken(String username) {
@@ -69,7 +99,21 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, String username) {
-        final String usernameFromToken = extractUsername(token);
-        return (usernameFromToken.equals(username) && !isTokenExpired(token));
+        // verify() already rejects expired tokens
+        return verify(token).getSubject().equals(username);
+    }
+
+    private void evictExpired() {
+        Date now = new Date();
+        verifiedTokens.values().removeIf(c -> c.getExpiration() != null && !c.getExpiration().after(now));
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
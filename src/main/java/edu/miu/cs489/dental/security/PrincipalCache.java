@@ -0,0 +1,105 @@
+package edu.miu.cs489.dental.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of loaded principals with a time-to-live, so authenticated requests do not
+ * query users and roles on every call. Entries are dropped when a user or role changes (see
+ * {@link PrincipalCacheInvalidator}); the TTL bounds staleness for changes made by other replicas.
+ */
+@Component
+public class PrincipalCache {
+
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size) {
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private record CachedPrincipal(UserDetails userDetails, long expiresAtNanos) {
+    }
+
+    private final long ttlNanos;
+    private final Map<String, CachedPrincipal> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    // Bumped on every invalidation; a load that raced with one is returned but not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public PrincipalCache(@Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                if (size() > maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached principal for {@code username}, calling {@code loader} on a miss or after expiry.
+     * Exceptions from the loader propagate and nothing is cached.
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            CachedPrincipal entry = entries.get(username);
+            if (entry != null && now - entry.expiresAtNanos() < 0) {
+                hits.incrementAndGet();
+                return entry.userDetails();
+            }
+        }
+
+        misses.incrementAndGet();
+        long generationBefore = generation.get();
+        UserDetails loaded = loader.apply(username);
+        synchronized (entries) {
+            if (generation.get() == generationBefore) {
+                entries.put(username, new CachedPrincipal(loaded, now + ttlNanos));
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidate(String username) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            if (entries.remove(username) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(hits.get(), misses.get(), evictions.get(), invalidations.get(), size);
+    }
+}
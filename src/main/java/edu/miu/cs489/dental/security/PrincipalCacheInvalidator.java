@@ -0,0 +1,66 @@
+package edu.miu.cs489.dental.security;
+
+import edu.miu.cs489.dental.model.Role;
+import edu.miu.cs489.dental.model.User;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * JPA entity listener that evicts cached principals whenever a user or role is changed or deleted,
+ * whichever code path made the change. Eviction waits for the commit: the callbacks run at flush,
+ * and a request served between flush and commit would cache the old roles again. A renamed user is
+ * evicted under both names.
+ */
+@Component
+public class PrincipalCacheInvalidator {
+
+    @Autowired
+    @Lazy
+    private PrincipalCache principalCache;
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        if (entity instanceof User user) {
+            user.setLoadedUsername(user.getUsername());
+        }
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof User user) {
+            Set<String> usernames = new LinkedHashSet<>();
+            usernames.add(user.getUsername());
+            if (user.getLoadedUsername() != null) {
+                usernames.add(user.getLoadedUsername());
+            }
+            user.setLoadedUsername(user.getUsername());
+            afterCommit(() -> usernames.forEach(principalCache::invalidate));
+        } else if (entity instanceof Role) {
+            // A renamed role changes the authority of every user holding it
+            afterCommit(principalCache::invalidateAll);
+        }
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
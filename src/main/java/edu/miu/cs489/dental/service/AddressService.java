@@ -1,20 +1,58 @@
 package edu.miu.cs489.dental.service;
 
-import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.dto.AddressDto;
+import edu.miu.cs489.dental.dto.CursorPage;
 import edu.miu.cs489.dental.repository.AddressRepository;
+import edu.miu.cs489.dental.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Locale;
 
 @Service
 public class AddressService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private AddressRepository addressRepository;
 
-    public List<Address> getAllAddresses() {
-        // Use repository method that fetches related entities to avoid lazy-loading/serialization problems
-        return addressRepository.findAllWithRelationsOrderByCity();
+    @Transactional(readOnly = true)
+    public List<AddressDto> getAllAddresses() {
+        return addressRepository.findAllDtosOrderByCity();
+    }
+
+    /**
+     * Keyset page of addresses in the order of {@link #getAllAddresses}. Pass the previous page's
+     * {@code nextCursor} as {@code after} to continue.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AddressDto> getAddressDtosPage(int limit, String after) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<AddressDto> rows;
+        if (after == null || after.isBlank()) {
+            rows = addressRepository.findFirstDtoPageOrderByCity(page);
+        } else {
+            CursorCodec.Cursor cursor = CursorCodec.decode(after);
+            rows = addressRepository.findDtoPageAfterOrderByCity(cursor.key(), cursor.id(), page);
+        }
+
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<AddressDto> items = rows.subList(0, limit);
+        AddressDto last = items.get(limit - 1);
+        return new CursorPage<>(items, CursorCodec.encode(cityKeyOf(last.city()), last.id()));
+    }
+
+    // Same key as AddressRepository.CITY_KEY
+    private static String cityKeyOf(String city) {
+        return city == null ? "" : city.toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,238 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.exception.AppointmentConflictException;
+import edu.miu.cs489.dental.model.Appointment;
+import edu.miu.cs489.dental.repository.AppointmentRepository;
+import edu.miu.cs489.dental.repository.DentistRepository;
+import edu.miu.cs489.dental.repository.SurgeryRepository;
+import edu.miu.cs489.dental.util.IntervalTree;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Rejects double-bookings of a dentist or surgery. Every appointment occupies
+ * {@code appointment.duration-minutes} from its start time.
+ * <p>
+ * The database decides: a booking locks its dentist's and then its surgery's row
+ * ({@code select ... for update}) and looks for an overlapping appointment before saving, so
+ * bookings of one resource are serialized across all nodes until the booking transaction ends.
+ * <p>
+ * Each node also keeps one interval tree of booked slots per dentist and per surgery, so a clash it
+ * already knows of is turned away with an O(log n) in-memory check before any lock is taken. The
+ * trees only learn of a booking once its transaction has committed, and do not see other nodes'
+ * changes, so a clash found in them is confirmed against the database before it is reported.
+ */
+@Component
+public class AppointmentConflictEngine {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DentistRepository dentistRepository;
+
+    @Autowired
+    private SurgeryRepository surgeryRepository;
+
+    @Value("${appointment.duration-minutes:30}")
+    private long durationMinutes;
+
+    private TransactionTemplate bookingTransaction;
+
+    private final Map<Long, IntervalTree> byDentist = new HashMap<>();
+    private final Map<Long, IntervalTree> bySurgery = new HashMap<>();
+    private final Map<Long, Booking> bookings = new HashMap<>();
+
+    // Guards the trees; bookings themselves are serialized by the database row locks
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private record Booking(Long dentistId, Long surgeryId, long start, long end) {
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        // Joins the caller's transaction, so the row locks are held until it ends
+        this.bookingTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.lock();
+        try {
+            byDentist.clear();
+            bySurgery.clear();
+            bookings.clear();
+            for (Appointment a : appointmentRepository.findAll()) {
+                Booking booking = bookingOf(a);
+                if (booking != null) {
+                    record(a.getId(), booking);
+                }
+            }
+            System.out.println("Appointment conflict engine loaded " + bookings.size() + " booking(s).");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks {@code candidate} against every other booking of its dentist and surgery and, when the
+     * slot is free, runs {@code save}. {@code existingId} is the appointment being updated (excluded
+     * from the check), or null for a new booking. Runs in the caller's transaction, or in one of its
+     * own; the trees record the result only once that transaction commits.
+     *
+     * @throws AppointmentConflictException if the dentist or surgery is already booked in that slot
+     */
+    public Appointment book(Long existingId, Appointment candidate, Supplier<Appointment> save) {
+        return bookingTransaction.execute(status -> {
+            Booking booking = bookingOf(candidate);
+            if (booking != null) {
+                Long known = knownConflict(booking, existingId);
+                if (known != null) {
+                    checkDatabase(candidate, existingId);
+                    // Cancelled or moved on another node
+                    release(known);
+                }
+                // Always dentist before surgery, so two bookings never wait for each other's locks
+                if (booking.dentistId() != null) dentistRepository.lockById(booking.dentistId());
+                if (booking.surgeryId() != null) surgeryRepository.lockById(booking.surgeryId());
+                checkDatabase(candidate, existingId);
+            }
+
+            Appointment saved = save.get();
+            Long id = saved.getId();
+            Booking stored = bookingOf(saved);
+            afterCommit(() -> {
+                lock.lock();
+                try {
+                    forget(id);
+                    if (stored != null) {
+                        record(id, stored);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            });
+            return saved;
+        });
+    }
+
+    /**
+     * Drops the appointment from the trees, once the current transaction (if any) has committed.
+     */
+    public void release(Long appointmentId) {
+        afterCommit(() -> {
+            lock.lock();
+            try {
+                forget(appointmentId);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private Long knownConflict(Booking booking, Long existingId) {
+        lock.lock();
+        try {
+            Long conflictId = findOverlap(byDentist.get(booking.dentistId()), booking, existingId);
+            return conflictId != null ? conflictId : findOverlap(bySurgery.get(booking.surgeryId()), booking, existingId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Long findOverlap(IntervalTree tree, Booking booking, Long existingId) {
+        return tree == null ? null : tree.findOverlap(booking.start(), booking.end(), existingId);
+    }
+
+    private void checkDatabase(Appointment candidate, Long existingId) {
+        LocalDateTime at = candidate.getAppointmentDateTime();
+        LocalDateTime from = at.minusMinutes(durationMinutes);
+        LocalDateTime to = at.plusMinutes(durationMinutes);
+        if (candidate.getDentist() != null && candidate.getDentist().getId() != null) {
+            Long dentistId = candidate.getDentist().getId();
+            checkFree(appointmentRepository.findDentistOverlaps(dentistId, from, to, existingId), "Dentist", dentistId);
+        }
+        if (candidate.getSurgery() != null && candidate.getSurgery().getId() != null) {
+            Long surgeryId = candidate.getSurgery().getId();
+            checkFree(appointmentRepository.findSurgeryOverlaps(surgeryId, from, to, existingId), "Surgery", surgeryId);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Callers hold the lock
+    private void forget(Long appointmentId) {
+        Booking booking = bookings.remove(appointmentId);
+        if (booking == null) return;
+        remove(byDentist, booking.dentistId(), booking.start(), appointmentId);
+        remove(bySurgery, booking.surgeryId(), booking.start(), appointmentId);
+    }
+
+    private static void checkFree(List<Long> conflicts, String resource, Long resourceId) {
+        if (conflicts.isEmpty()) return;
+        Long conflictId = conflicts.get(0);
+        throw new AppointmentConflictException(
+                resource + " " + resourceId + " is already booked by appointment " + conflictId + " at that time",
+                conflictId);
+    }
+
+    private void record(Long appointmentId, Booking booking) {
+        bookings.put(appointmentId, booking);
+        if (booking.dentistId() != null) {
+            byDentist.computeIfAbsent(booking.dentistId(), k -> new IntervalTree())
+                    .insert(booking.start(), booking.end(), appointmentId);
+        }
+        if (booking.surgeryId() != null) {
+            bySurgery.computeIfAbsent(booking.surgeryId(), k -> new IntervalTree())
+                    .insert(booking.start(), booking.end(), appointmentId);
+        }
+    }
+
+    private static void remove(Map<Long, IntervalTree> trees, Long resourceId, long start, Long appointmentId) {
+        if (resourceId == null) return;
+        IntervalTree tree = trees.get(resourceId);
+        if (tree != null) {
+            tree.remove(start, appointmentId);
+            if (tree.size() == 0) {
+                trees.remove(resourceId);
+            }
+        }
+    }
+
+    private Booking bookingOf(Appointment a) {
+        LocalDateTime at = a.getAppointmentDateTime();
+        Long dentistId = a.getDentist() == null ? null : a.getDentist().getId();
+        Long surgeryId = a.getSurgery() == null ? null : a.getSurgery().getId();
+        if (at == null || (dentistId == null && surgeryId == null)) {
+            return null;
+        }
+        long start = at.toEpochSecond(ZoneOffset.UTC) / 60;
+        return new Booking(dentistId, surgeryId, start, start + durationMinutes);
+    }
+}
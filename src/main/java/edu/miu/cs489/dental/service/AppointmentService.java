@@ -1,43 +1,145 @@
 package edu.miu.cs489.dental.service;
 
+import edu.miu.cs489.dental.dto.AppointmentDto;
+import edu.miu.cs489.dental.dto.AppointmentFilter;
+import edu.miu.cs489.dental.dto.CursorPage;
 import edu.miu.cs489.dental.model.Appointment;
 import edu.miu.cs489.dental.repository.AppointmentRepository;
+import edu.miu.cs489.dental.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class AppointmentService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private AppointmentRepository appointmentRepository;
 
+    @Autowired
+    private AppointmentConflictEngine conflictEngine;
+
+    @Transactional(readOnly = true)
     public List<Appointment> getAllAppointments() {
         return appointmentRepository.findAllByOrderByAppointmentDateTimeAsc();
     }
 
+    @Transactional(readOnly = true)
+    public List<Appointment> getAppointments(AppointmentFilter filter) {
+        validate(filter);
+        return appointmentRepository.findFiltered(filter, null, null, 0);
+    }
+
+    /**
+     * Keyset page of appointments matching {@code filter}, ordered by date/time then id.
+     * Pass the previous page's {@code nextCursor} as {@code after} to continue.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Appointment> getAppointmentsPage(AppointmentFilter filter, int limit, String after) {
+        validate(filter);
+        checkLimit(limit);
+        After start = After.decode(after);
+
+        // Fetch one extra row to learn whether another page exists
+        List<Appointment> rows = appointmentRepository.findFiltered(filter, start.time(), start.id(), limit + 1);
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Appointment> items = rows.subList(0, limit);
+        Appointment last = items.get(limit - 1);
+        return new CursorPage<>(items, After.encode(last.getAppointmentDateTime(), last.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AppointmentDto> getAppointmentDtos(AppointmentFilter filter) {
+        validate(filter);
+        return appointmentRepository.findFilteredDtos(filter, null, null, 0);
+    }
+
+    /**
+     * Same page as {@link #getAppointmentsPage}, read straight into DTOs without loading entities.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentDto> getAppointmentDtosPage(AppointmentFilter filter, int limit, String after) {
+        validate(filter);
+        checkLimit(limit);
+        After start = After.decode(after);
+
+        List<AppointmentDto> rows = appointmentRepository.findFilteredDtos(filter, start.time(), start.id(), limit + 1);
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<AppointmentDto> items = rows.subList(0, limit);
+        AppointmentDto last = items.get(limit - 1);
+        return new CursorPage<>(items, After.encode(last.appointmentDateTime(), last.id()));
+    }
+
+    private void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    // Decoded keyset position; both fields are null on the first page, and only time is null after
+    // a row with no date/time, which sorts before all others
+    private record After(LocalDateTime time, Long id) {
+
+        static String encode(LocalDateTime time, Long id) {
+            return CursorCodec.encode(time == null ? "" : time.toString(), id);
+        }
+
+        static After decode(String after) {
+            if (after == null || after.isBlank()) {
+                return new After(null, null);
+            }
+            CursorCodec.Cursor cursor = CursorCodec.decode(after);
+            try {
+                return new After(cursor.key().isEmpty() ? null : LocalDateTime.parse(cursor.key()), cursor.id());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after, e);
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the time window is empty or inverted
+     */
+    public void validate(AppointmentFilter filter) {
+        if (filter.from() != null && filter.to() != null && !filter.from().isBefore(filter.to())) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+    }
+
     public Optional<Appointment> getAppointmentById(Long id) {
         return appointmentRepository.findById(id);
     }
 
     public Appointment createAppointment(Appointment appointment) {
-        return appointmentRepository.save(appointment);
+        return conflictEngine.book(null, appointment, () -> appointmentRepository.save(appointment));
     }
 
     public Appointment updateAppointment(Long id, Appointment appointmentDetails) {
         Appointment appointment = appointmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Appointment not found with id: " + id));
-        appointment.setAppointmentDateTime(appointmentDetails.getAppointmentDateTime());
-        appointment.setPatient(appointmentDetails.getPatient());
-        appointment.setDentist(appointmentDetails.getDentist());
-        appointment.setSurgery(appointmentDetails.getSurgery());
-        return appointmentRepository.save(appointment);
+        return conflictEngine.book(id, appointmentDetails, () -> {
+            appointment.setAppointmentDateTime(appointmentDetails.getAppointmentDateTime());
+            appointment.setPatient(appointmentDetails.getPatient());
+            appointment.setDentist(appointmentDetails.getDentist());
+            appointment.setSurgery(appointmentDetails.getSurgery());
+            return appointmentRepository.save(appointment);
+        });
     }
 
     public void deleteAppointment(Long id) {
         appointmentRepository.deleteById(id);
+        conflictEngine.release(id);
     }
 }
 
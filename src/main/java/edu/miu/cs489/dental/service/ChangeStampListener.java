@@ -0,0 +1,127 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.configuration.IdSequences;
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Appointment;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.model.Surgery;
+import edu.miu.cs489.dental.model.Tombstone;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JPA entity listener that stamps every inserted or updated row, tombstones included, with the
+ * change sequence number {@link SyncService} reads deltas by. The number is taken at the very end
+ * of the transaction, after Hibernate's last flush, by incrementing the
+ * {@value IdSequences#SYNC_CHANGE} counter. Its row lock is held until the commit, so transactions
+ * get their numbers in commit order, and a reader that sees the counter at N has seen every change
+ * numbered N or lower. Nothing depends on clocks. Rows written with plain JDBC carry no number and
+ * reach clients through a full sync only.
+ */
+@Component
+public class ChangeStampListener {
+
+    private static final Map<Class<?>, String> TABLES = Map.of(
+            Patient.class, "patient",
+            Dentist.class, "dentist",
+            Surgery.class, "surgery",
+            Address.class, "address",
+            Appointment.class, "appointment",
+            Tombstone.class, "tombstone");
+
+    @Autowired
+    @Lazy
+    private EntityManagerFactory entityManagerFactory;
+
+    // The shared, transaction-bound one
+    @Autowired
+    @Lazy
+    private EntityManager entityManager;
+
+    @PostPersist
+    @PostUpdate
+    public void onChange(Object entity) {
+        String table = TABLES.get(entity.getClass());
+        if (table == null || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+        Long id = (Long) entityManagerFactory.getPersistenceUnitUtil().getIdentifier(entity);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingStamps pending) {
+                pending.add(table, id);
+                return;
+            }
+        }
+        PendingStamps pending = new PendingStamps();
+        pending.add(table, id);
+        // Registered as a synchronization only to be found again; Hibernate runs the stamping itself,
+        // once its final flush has reported every change
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        entityManager.unwrap(SessionImplementor.class)
+                .getActionQueue()
+                .registerProcess(pending);
+    }
+
+    private static class PendingStamps implements TransactionSynchronization, BeforeTransactionCompletionProcess {
+
+        private final Map<String, Set<Long>> idsByTable = new LinkedHashMap<>();
+
+        void add(String table, Long id) {
+            idsByTable.computeIfAbsent(table, t -> new LinkedHashSet<>()).add(id);
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            session.doWork(this::stamp);
+        }
+
+        private void stamp(Connection connection) throws SQLException {
+            long stamp;
+            try (PreparedStatement next = connection.prepareStatement("UPDATE " + IdSequences.TABLE + " SET " +
+                    IdSequences.VALUE_COLUMN + " = " + IdSequences.VALUE_COLUMN + " + 1 WHERE " + IdSequences.NAME_COLUMN + " = ?")) {
+                next.setString(1, IdSequences.SYNC_CHANGE);
+                next.executeUpdate();
+            }
+            try (PreparedStatement read = connection.prepareStatement("SELECT " + IdSequences.VALUE_COLUMN + " FROM " +
+                    IdSequences.TABLE + " WHERE " + IdSequences.NAME_COLUMN + " = ?")) {
+                read.setString(1, IdSequences.SYNC_CHANGE);
+                try (ResultSet rs = read.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("Missing " + IdSequences.SYNC_CHANGE + " counter in " + IdSequences.TABLE);
+                    }
+                    stamp = rs.getLong(1);
+                }
+            }
+
+            for (Map.Entry<String, Set<Long>> e : idsByTable.entrySet()) {
+                try (PreparedStatement update = connection.prepareStatement(
+                        "UPDATE " + e.getKey() + " SET change_seq = ? WHERE id = ?")) {
+                    for (Long id : e.getValue()) {
+                        update.setLong(1, stamp);
+                        update.setLong(2, id);
+                        update.addBatch();
+                    }
+                    update.executeBatch();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.util.KeywordAutomaton;
+
+import java.util.regex.Pattern;
+
+/**
+ * Trigger phrases of the rule-based chatbot compiled into one keyword automaton, so a message is
+ * routed in a single pass. Phrases are listed in priority order: when several occur, the earliest
+ * listed wins, which is the order the rules were originally checked in.
+ */
+public final class ChatRuleMatcher {
+
+    /**
+     * The matched intent and the offset in the message just past the trigger phrase, where a
+     * search term would start.
+     */
+    public record RuleMatch(String intent, int termStart) {
+    }
+
+    private static final KeywordAutomaton<String> TRIGGERS = KeywordAutomaton.<String>builder()
+            .add("find patient", "search_patient")
+            .add("search patient", "search_patient")
+            .add("patient named", "search_patient")
+            .add("show patient", "search_patient")
+            .add("find dentist", "search_dentist")
+            .add("search dentist", "search_dentist")
+            .add("dentist named", "search_dentist")
+            .add("show dentist", "search_dentist")
+            .add("make appointment", "make_appointment")
+            .add("book appointment", "make_appointment")
+            .add("schedule appointment", "make_appointment")
+            .add("create appointment", "make_appointment")
+            .add("list patients", "list_patients")
+            .add("show all patients", "list_patients")
+            .add("all patients", "list_patients")
+            .add("list dentists", "list_dentists")
+            .add("show all dentists", "list_dentists")
+            .add("all dentists", "list_dentists")
+            .add("show appointments", "list_appointments")
+            .add("list appointments", "list_appointments")
+            .add("all appointments", "list_appointments")
+            .add("upcoming appointments", "list_appointments")
+            .add("help", "help")
+            .build();
+
+    // One leading filler word before a search term, e.g. "find patient with the name ..."
+    private static final Pattern LEADING_STOPWORD = Pattern.compile("^(for|with|the|a|an)\\s+", Pattern.CASE_INSENSITIVE);
+
+    private ChatRuleMatcher() {
+    }
+
+    /**
+     * Returns the intent of the highest-priority trigger phrase in {@code message}, or null when
+     * none occurs.
+     */
+    public static RuleMatch match(String message) {
+        KeywordAutomaton.Match<String> found = TRIGGERS.find(message);
+        if (found == null) {
+            return message.trim().equals("?") ? new RuleMatch("help", message.length()) : null;
+        }
+        return new RuleMatch(found.value(), found.end());
+    }
+
+    /**
+     * The search term following the trigger phrase of {@code match}, without a leading filler word.
+     */
+    public static String searchTerm(String message, RuleMatch match) {
+        return stripStopword(message.substring(match.termStart()).trim());
+    }
+
+    public static String stripStopword(String term) {
+        return LEADING_STOPWORD.matcher(term).replaceFirst("");
+    }
+}
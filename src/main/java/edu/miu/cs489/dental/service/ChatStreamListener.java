@@ -0,0 +1,31 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.dto.ChatResponseDto;
+
+import java.util.List;
+
+/**
+ * Receives the parts of a streamed chat answer in order: the intent as soon as it is known, any
+ * number of text and row chunks, then the final response. The intent comes at most once; when
+ * Gemini fails mid-stream and the rule-based engine answers instead, the final response's message
+ * replaces any text already received.
+ */
+public interface ChatStreamListener {
+
+    /**
+     * @param source which path recognised it: local, llm or rules
+     */
+    void intent(String intent, String source);
+
+    void text(String delta);
+
+    /**
+     * @param type the response type the rows belong to, e.g. patient_list
+     */
+    void rows(String type, List<?> rows);
+
+    /**
+     * The final response; list data has already been sent through {@link #rows}, so it carries none.
+     */
+    void done(ChatResponseDto response);
+}
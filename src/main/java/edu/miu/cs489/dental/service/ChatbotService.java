@@ -7,15 +7,28 @@ import edu.miu.cs489.dental.model.Appointment;
 import edu.miu.cs489.dental.model.Dentist;
 import edu.miu.cs489.dental.model.Patient;
 import edu.miu.cs489.dental.model.Surgery;
+import edu.miu.cs489.dental.monitoring.ChatPathMetrics;
+import edu.miu.cs489.dental.monitoring.RequestEndpoint;
+import edu.miu.cs489.dental.util.ChatDateTimeParser;
+import edu.miu.cs489.dental.util.PartialJsonScanner;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,38 +46,290 @@ public class ChatbotService {
     @Autowired
     private GeminiAIService geminiAIService;
 
+    @Autowired
+    private EntityStatistics entityStatistics;
+
+    @Autowired
+    private IntentClassifier intentClassifier;
+
+    @Autowired
+    private ChatPathMetrics chatPathMetrics;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    private static final int CHAT_LIST_LIMIT = 50;
+
+    private static final int STREAM_CHUNK_SIZE = 25;
+
+    // Intents the classifier may answer on its own. Booking needs Gemini to pull patient, dentist and
+    // time out of free text, and small talk needs a generated reply, so those always escalate.
+    private static final Set<String> LOCAL_INTENTS = Set.of(
+        "help", "list_patients", "list_dentists", "list_appointments", "search_patient", "search_dentist");
+
     private final Gson gson = new Gson();
 
+    private TransactionTemplate readOnlyTransaction;
+
+    private TransactionTemplate writeTransaction;
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Blocking variant of {@link #processMessageAsync}.
+     */
     public ChatResponseDto processMessage(String message) {
-        // Try AI-enhanced processing first if Gemini is configured
-        if (geminiAIService.isConfigured()) {
-            ChatResponseDto aiResponse = processWithAI(message);
-            if (aiResponse != null) {
-                return aiResponse;
+        return processMessageAsync(message).join();
+    }
+
+    /**
+     * Answers a chat message without holding the caller's thread during the Gemini call. Messages the
+     * local {@link IntentClassifier} recognises with enough confidence are answered directly. The rest
+     * go to Gemini when it is configured and its circuit is closed; otherwise, or when Gemini fails or
+     * misses its deadline, the rule-based engine answers.
+     * <p>
+     * Work is split so no database connection is held while the LLM is thinking: the prompt context
+     * comes from in-memory {@link EntityStatistics}, the Gemini call runs with no transaction, and the
+     * chosen action runs afterwards in its own short transaction.
+     */
+    public CompletableFuture<ChatResponseDto> processMessageAsync(String message) {
+        long start = System.nanoTime();
+
+        ChatResponseDto local = answerLocally(message);
+        if (local != null) {
+            chatPathMetrics.record(ChatPathMetrics.LOCAL, System.nanoTime() - start);
+            return CompletableFuture.completedFuture(local);
+        }
+
+        if (!geminiAIService.isAvailable()) {
+            ChatResponseDto response = answerWithRules(message);
+            chatPathMetrics.record(ChatPathMetrics.RULES, System.nanoTime() - start);
+            return CompletableFuture.completedFuture(response);
+        }
+
+        String context = buildSystemContext();
+
+        // The follow-up work reads and writes the database, so it runs on the application task pool
+        // rather than on the HTTP client's callback threads
+        return geminiAIService.processWithAIAsync(message, context)
+                .thenApplyAsync(aiResponse -> {
+                    ChatResponseDto response = aiResponse == null ? null : parseAIResponse(aiResponse, message);
+                    return response != null ? response : answerWithRules(message);
+                }, RequestEndpoint.bind(taskExecutor))
+                .exceptionally(e -> {
+                    System.err.println("AI processing failed, falling back to rules: " + e.getMessage());
+                    return answerWithRules(message);
+                })
+                .whenComplete((response, e) -> chatPathMetrics.record(ChatPathMetrics.LLM, System.nanoTime() - start));
+    }
+
+    /**
+     * Answers from the local classifier's prediction, or returns null when the message should go on to
+     * Gemini: low confidence, an intent the local path does not handle, or a search with no term.
+     */
+    private ChatResponseDto answerLocally(String message) {
+        IntentClassifier.Prediction prediction = intentClassifier.classify(message);
+        JsonObject extractedData = localAnswerData(prediction);
+        if (extractedData == null) {
+            return null;
+        }
+        return readOnlyTransaction.execute(status -> dispatchIntent(prediction.intent(), extractedData, ""));
+    }
+
+    // Extracted data for answering a prediction locally, or null when it has to go on to Gemini
+    private JsonObject localAnswerData(IntentClassifier.Prediction prediction) {
+        if (!LOCAL_INTENTS.contains(prediction.intent()) || !intentClassifier.isConfident(prediction)) {
+            return null;
+        }
+
+        JsonObject extractedData = new JsonObject();
+        if (prediction.intent().startsWith("search_")) {
+            if (prediction.searchTerm().isEmpty()) {
+                return null;
             }
+            extractedData.addProperty("search_term", prediction.searchTerm());
+        }
+        return extractedData;
+    }
+
+    /**
+     * Streams the answer to a chat message to {@code listener}. The intent is sent as soon as it is
+     * known, Gemini's response_message text is forwarded while it is being generated, and list results
+     * are sent in chunks of {@value #STREAM_CHUNK_SIZE} rows, each page read in its own short
+     * transaction. The intent is sent once: if Gemini fails after its intent or text went out, the
+     * rule-based answer follows without another intent and its final message replaces the streamed
+     * text. The returned future completes after {@link ChatStreamListener#done}.
+     */
+    public CompletableFuture<Void> streamMessageAsync(String message, ChatStreamListener listener) {
+        long start = System.nanoTime();
+        Executor executor = RequestEndpoint.bind(taskExecutor);
+
+        IntentClassifier.Prediction prediction = intentClassifier.classify(message);
+        JsonObject localData = localAnswerData(prediction);
+        if (localData != null) {
+            listener.intent(prediction.intent(), ChatPathMetrics.LOCAL);
+            return CompletableFuture.runAsync(() -> streamAnswer(prediction.intent(),
+                    () -> dispatchIntent(prediction.intent(), localData, ""), readOnlyTransaction, listener), executor)
+                    .whenComplete((ignored, e) -> chatPathMetrics.record(ChatPathMetrics.LOCAL, System.nanoTime() - start));
         }
 
-        // Fall back to rule-based processing
-        return processWithRules(message);
+        if (!geminiAIService.isAvailable()) {
+            return CompletableFuture.runAsync(() -> streamWithRules(message, listener, true), executor)
+                    .whenComplete((ignored, e) -> chatPathMetrics.record(ChatPathMetrics.RULES, System.nanoTime() - start));
+        }
+
+        // Called on the HTTP client's thread for every chunk of model output. Once the answer is
+        // being settled, chunks still in flight are dropped so nothing follows the fallback.
+        PartialJsonScanner scanner = new PartialJsonScanner();
+        AtomicBoolean intentSent = new AtomicBoolean();
+        AtomicBoolean textSent = new AtomicBoolean();
+        AtomicBoolean settled = new AtomicBoolean();
+        Consumer<String> onText = chunk -> {
+            synchronized (scanner) {
+                if (settled.get()) {
+                    return;
+                }
+                scanner.append(chunk);
+                if (!intentSent.get()) {
+                    String intent = scanner.completeValue("intent");
+                    if (intent != null) {
+                        intentSent.set(true);
+                        listener.intent(intent, ChatPathMetrics.LLM);
+                    }
+                }
+                String delta = scanner.newText("response_message");
+                if (!delta.isEmpty()) {
+                    textSent.set(true);
+                    listener.text(delta);
+                }
+            }
+        };
+
+        return geminiAIService.streamWithAIAsync(message, buildSystemContext(), onText)
+                .thenAcceptAsync(aiResponse -> {
+                    boolean started;
+                    synchronized (scanner) {
+                        settled.set(true);
+                        started = intentSent.get() || textSent.get();
+                    }
+                    JsonObject json = parseIntentJson(aiResponse);
+                    if (json == null) {
+                        streamWithRules(message, listener, !started);
+                        return;
+                    }
+                    String intent = json.get("intent").getAsString();
+                    JsonObject extractedData = json.has("extracted_data") ?
+                        json.getAsJsonObject("extracted_data") : new JsonObject();
+                    String responseMessage = json.has("response_message") ?
+                        json.get("response_message").getAsString() : "";
+                    if (!intentSent.get()) {
+                        listener.intent(intent, ChatPathMetrics.LLM);
+                    }
+                    TransactionTemplate transaction = "make_appointment".equals(intent) ? writeTransaction : readOnlyTransaction;
+                    streamAnswer(intent, () -> dispatchIntent(intent, extractedData, responseMessage), transaction, listener);
+                }, executor)
+                .whenComplete((ignored, e) -> chatPathMetrics.record(ChatPathMetrics.LLM, System.nanoTime() - start));
+    }
+
+    private void streamWithRules(String message, ChatStreamListener listener, boolean sendIntent) {
+        ChatRuleMatcher.RuleMatch match = ChatRuleMatcher.match(message);
+        String intent = match == null ? "unknown" : match.intent();
+        if (sendIntent) {
+            listener.intent(intent, ChatPathMetrics.RULES);
+        }
+        streamAnswer(intent, () -> processWithRules(message), readOnlyTransaction, listener);
     }
 
-    private ChatResponseDto processWithAI(String message) {
+    private JsonObject parseIntentJson(String aiResponse) {
+        if (aiResponse == null) {
+            return null;
+        }
         try {
-            String context = buildSystemContext();
-            String aiResponse = geminiAIService.processWithAI(message, context);
+            return gson.fromJson(aiResponse, JsonObject.class);
+        } catch (Exception e) {
+            System.err.println("Failed to parse AI response: " + e.getMessage());
+            return null;
+        }
+    }
 
-            if (aiResponse != null) {
-                return parseAIResponse(aiResponse, message);
+    private void streamAnswer(String intent, Supplier<ChatResponseDto> answer, TransactionTemplate transaction,
+                              ChatStreamListener listener) {
+        // Full lists are paged straight from the database instead of being loaded in one go
+        if ("list_patients".equals(intent)) {
+            streamAllPatients(listener);
+            return;
+        }
+        if ("list_appointments".equals(intent)) {
+            streamUpcomingAppointments(listener);
+            return;
+        }
+
+        ChatResponseDto response = answerInTransaction(transaction, answer);
+        if (response.getData() instanceof List<?> rows) {
+            for (int i = 0; i < rows.size(); i += STREAM_CHUNK_SIZE) {
+                listener.rows(response.getType(), rows.subList(i, Math.min(i + STREAM_CHUNK_SIZE, rows.size())));
             }
-        } catch (Exception e) {
-            System.err.println("AI processing failed, falling back to rules: " + e.getMessage());
+            response.setData(null);
         }
-        return null;
+        listener.done(response);
+    }
+
+    private void streamAllPatients(ChatStreamListener listener) {
+        int total = 0;
+        String after = null;
+        do {
+            String cursor = after;
+            CursorPage<PatientWithAddressDto> page = readOnlyTransaction.execute(status ->
+                    patientService.getPatientDtosPage(STREAM_CHUNK_SIZE, cursor));
+            if (!page.items().isEmpty()) {
+                listener.rows("patient_list", page.items());
+            }
+            total += page.items().size();
+            after = page.nextCursor();
+        } while (after != null);
+
+        listener.done(total == 0 ?
+            new ChatResponseDto("No patients found in the system.", "text", null,
+                Arrays.asList("Add new patient", "Show help")) :
+            new ChatResponseDto("Here are all patients in the system (" + total + " total):", "patient_list", null,
+                Arrays.asList("Search patient", "Make appointment", "Find dentist")));
+    }
+
+    private void streamUpcomingAppointments(ChatStreamListener listener) {
+        AppointmentFilter upcoming = new AppointmentFilter(LocalDate.now().atStartOfDay(), null, null, null, null);
+        int total = 0;
+        String after = null;
+        do {
+            String cursor = after;
+            CursorPage<AppointmentDto> page = readOnlyTransaction.execute(status ->
+                    appointmentService.getAppointmentDtosPage(upcoming, STREAM_CHUNK_SIZE, cursor));
+            if (!page.items().isEmpty()) {
+                listener.rows("appointment_list", page.items());
+            }
+            total += page.items().size();
+            after = page.nextCursor();
+        } while (after != null);
+
+        listener.done(total == 0 ?
+            new ChatResponseDto("No upcoming appointments found in the system.", "text", null,
+                Arrays.asList("Make appointment", "Find patient", "Find dentist")) :
+            new ChatResponseDto("Here are the upcoming appointments (" + total + " total):", "appointment_list", null,
+                Arrays.asList("Make appointment", "Find patient", "Find dentist")));
+    }
+
+    private ChatResponseDto answerWithRules(String message) {
+        return readOnlyTransaction.execute(status -> processWithRules(message));
     }
 
     private String buildSystemContext() {
-        long patientCount = patientService.getAllPatients().size();
-        long dentistCount = dentistService.getAllDentists().size();
+        long patientCount = entityStatistics.getPatientCount();
+        long dentistCount = entityStatistics.getDentistCount();
 
         return String.format(
             "The dental system has %d patients and %d dentists registered. " +
@@ -95,45 +360,69 @@ public class ChatbotService {
             String responseMessage = jsonResponse.has("response_message") ?
                 jsonResponse.get("response_message").getAsString() : "";
 
-            switch (intent) {
-                case "search_patient":
-                    String patientTerm = extractedData.has("search_term") ?
-                        extractedData.get("search_term").getAsString() : "";
-                    return searchPatient("find patient " + patientTerm);
+            // Only booking writes; everything else runs in a read-only transaction
+            TransactionTemplate transaction = "make_appointment".equals(intent) ? writeTransaction : readOnlyTransaction;
+            return answerInTransaction(transaction, () -> dispatchIntent(intent, extractedData, responseMessage));
+        } catch (Exception e) {
+            System.err.println("Failed to parse AI response: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Runs {@code answer} in {@code transaction}. A failed booking has to leave the transaction before
+     * its reply is built: the booking joined it and has already marked it rollback-only, so answering
+     * from inside would make the commit fail and lose the reply.
+     */
+    private ChatResponseDto answerInTransaction(TransactionTemplate transaction, Supplier<ChatResponseDto> answer) {
+        try {
+            return transaction.execute(status -> answer.get());
+        } catch (BookingFailedException e) {
+            return new ChatResponseDto(
+                "❌ Sorry, I encountered an error creating the appointment: " + e.getMessage(),
+                "text",
+                null,
+                Arrays.asList("Try again", "Show appointments", "Help")
+            );
+        }
+    }
 
-                case "search_dentist":
-                    String dentistTerm = extractedData.has("search_term") ?
-                        extractedData.get("search_term").getAsString() : "";
-                    return searchDentist("find dentist " + dentistTerm);
+    private ChatResponseDto dispatchIntent(String intent, JsonObject extractedData, String responseMessage) {
+        switch (intent) {
+            case "search_patient":
+                String patientTerm = extractedData.has("search_term") ?
+                    extractedData.get("search_term").getAsString() : "";
+                return searchPatient(ChatRuleMatcher.stripStopword(patientTerm.trim()));
 
-                case "make_appointment":
-                    return handleAIAppointmentRequest(extractedData, responseMessage);
+            case "search_dentist":
+                String dentistTerm = extractedData.has("search_term") ?
+                    extractedData.get("search_term").getAsString() : "";
+                return searchDentist(ChatRuleMatcher.stripStopword(dentistTerm.trim()));
 
-                case "list_patients":
-                    return listAllPatients();
+            case "make_appointment":
+                return handleAIAppointmentRequest(extractedData, responseMessage);
 
-                case "list_dentists":
-                    return listAllDentists();
+            case "list_patients":
+                return listAllPatients();
 
-                case "list_appointments":
-                    return listAllAppointments();
+            case "list_dentists":
+                return listAllDentists();
 
-                case "help":
-                    return getHelpMessage();
+            case "list_appointments":
+                return listAllAppointments();
 
-                default:
-                    return new ChatResponseDto(
-                        responseMessage.isEmpty() ?
-                            "I understand you want help, but I'm not sure exactly what you need. Try 'help' to see what I can do!" :
-                            responseMessage,
-                        "text",
-                        null,
-                        Arrays.asList("Help", "Find patient", "Find dentist", "Show appointments")
-                    );
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to parse AI response: " + e.getMessage());
-            return null;
+            case "help":
+                return getHelpMessage();
+
+            default:
+                return new ChatResponseDto(
+                    responseMessage.isEmpty() ?
+                        "I understand you want help, but I'm not sure exactly what you need. Try 'help' to see what I can do!" :
+                        responseMessage,
+                    "text",
+                    null,
+                    Arrays.asList("Help", "Find patient", "Find dentist", "Show appointments")
+                );
         }
     }
 
@@ -260,90 +549,42 @@ public class ChatbotService {
             );
 
         } catch (Exception e) {
-            return new ChatResponseDto(
-                "❌ Sorry, I encountered an error creating the appointment: " + e.getMessage(),
-                "text",
-                null,
-                Arrays.asList("Try again", "Show appointments", "Help")
-            );
+            // Rolls the booking transaction back; answerInTransaction turns it into the reply
+            throw new BookingFailedException(e);
         }
     }
 
     private LocalDateTime parseDateTime(String dateTimeStr) {
-        // Try standard ISO format first
-        try {
-            return LocalDateTime.parse(dateTimeStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-        } catch (DateTimeParseException e) {
-            // Try common formats
-            String[] formats = {
-                "yyyy-MM-dd HH:mm",
-                "yyyy-MM-dd'T'HH:mm",
-                "MM/dd/yyyy HH:mm",
-                "dd/MM/yyyy HH:mm"
-            };
-
-            for (String format : formats) {
-                try {
-                    return LocalDateTime.parse(dateTimeStr, DateTimeFormatter.ofPattern(format));
-                } catch (DateTimeParseException ex) {
-                    // Continue to next format
-                }
-            }
-        }
-        return null;
+        return ChatDateTimeParser.parse(dateTimeStr);
     }
 
     private ChatResponseDto processWithRules(String message) {
-        String lowerMessage = message.toLowerCase().trim();
-
-        // Search for patients
-        if (lowerMessage.contains("find patient") || lowerMessage.contains("search patient") ||
-            lowerMessage.contains("patient named") || lowerMessage.contains("show patient")) {
-            return searchPatient(message);
-        }
-
-        // Search for dentists
-        if (lowerMessage.contains("find dentist") || lowerMessage.contains("search dentist") ||
-            lowerMessage.contains("dentist named") || lowerMessage.contains("show dentist")) {
-            return searchDentist(message);
+        ChatRuleMatcher.RuleMatch match = ChatRuleMatcher.match(message);
+        if (match == null) {
+            return getDefaultResponse();
         }
 
-        // Make appointment
-        if (lowerMessage.contains("make appointment") || lowerMessage.contains("book appointment") ||
-            lowerMessage.contains("schedule appointment") || lowerMessage.contains("create appointment")) {
-            return handleAppointmentRequest(message);
+        switch (match.intent()) {
+            case "search_patient":
+                return searchPatient(ChatRuleMatcher.searchTerm(message, match));
+            case "search_dentist":
+                return searchDentist(ChatRuleMatcher.searchTerm(message, match));
+            case "make_appointment":
+                return handleAppointmentRequest(message);
+            case "list_patients":
+                return listAllPatients();
+            case "list_dentists":
+                return listAllDentists();
+            case "list_appointments":
+                return listAllAppointments();
+            case "help":
+                return getHelpMessage();
+            default:
+                return getDefaultResponse();
         }
-
-        // List all patients
-        if (lowerMessage.contains("list patients") || lowerMessage.contains("show all patients") ||
-            lowerMessage.contains("all patients")) {
-            return listAllPatients();
-        }
-
-        // List all dentists
-        if (lowerMessage.contains("list dentists") || lowerMessage.contains("show all dentists") ||
-            lowerMessage.contains("all dentists")) {
-            return listAllDentists();
-        }
-
-        // Show appointments
-        if (lowerMessage.contains("show appointments") || lowerMessage.contains("list appointments") ||
-            lowerMessage.contains("all appointments") || lowerMessage.contains("upcoming appointments")) {
-            return listAllAppointments();
-        }
-
-        // Help command
-        if (lowerMessage.contains("help") || lowerMessage.equals("?")) {
-            return getHelpMessage();
-        }
-
-        // Default response
-        return getDefaultResponse();
     }
 
-    private ChatResponseDto searchPatient(String message) {
-        // Extract name from message
-        String searchTerm = extractSearchTerm(message, Arrays.asList("find patient", "search patient", "patient named", "show patient"));
+    private ChatResponseDto searchPatient(String searchTerm) {
 
         if (searchTerm.isEmpty()) {
             return new ChatResponseDto(
@@ -365,16 +606,7 @@ public class ChatbotService {
             );
         }
 
-        List<PatientWithAddressDto> patientDtos = patients.stream().map(p -> {
-            AddressSimpleDto addr = null;
-            if (p.getAddress() != null) {
-                addr = new AddressSimpleDto(p.getAddress().getId(),
-                    p.getAddress().getStreet(),
-                    p.getAddress().getCity(),
-                    p.getAddress().getZipCode());
-            }
-            return new PatientWithAddressDto(p.getId(), p.getPatNo(), p.getName(), addr);
-        }).collect(Collectors.toList());
+        List<PatientWithAddressDto> patientDtos = patients.stream().map(this::toPatientWithAddressDto).collect(Collectors.toList());
 
         String responseMessage = "Found " + patients.size() + " patient(s) matching '" + searchTerm + "':";
 
@@ -386,8 +618,7 @@ public class ChatbotService {
         );
     }
 
-    private ChatResponseDto searchDentist(String message) {
-        String searchTerm = extractSearchTerm(message, Arrays.asList("find dentist", "search dentist", "dentist named", "show dentist"));
+    private ChatResponseDto searchDentist(String searchTerm) {
 
         if (searchTerm.isEmpty()) {
             return new ChatResponseDto(
@@ -444,7 +675,7 @@ public class ChatbotService {
     }
 
     private ChatResponseDto listAllPatients() {
-        List<Patient> patients = patientService.getAllPatients();
+        List<PatientWithAddressDto> patients = patientService.getAllPatientDtos();
 
         if (patients.isEmpty()) {
             return new ChatResponseDto(
@@ -455,21 +686,10 @@ public class ChatbotService {
             );
         }
 
-        List<PatientWithAddressDto> patientDtos = patients.stream().map(p -> {
-            AddressSimpleDto addr = null;
-            if (p.getAddress() != null) {
-                addr = new AddressSimpleDto(p.getAddress().getId(),
-                    p.getAddress().getStreet(),
-                    p.getAddress().getCity(),
-                    p.getAddress().getZipCode());
-            }
-            return new PatientWithAddressDto(p.getId(), p.getPatNo(), p.getName(), addr);
-        }).collect(Collectors.toList());
-
         return new ChatResponseDto(
             "Here are all patients in the system (" + patients.size() + " total):",
             "patient_list",
-            patientDtos,
+            patients,
             Arrays.asList("Search patient", "Make appointment", "Find dentist")
         );
     }
@@ -506,51 +726,41 @@ public class ChatbotService {
     }
 
     private ChatResponseDto listAllAppointments() {
-        List<Appointment> appointments = appointmentService.getAllAppointments();
+        // Only the upcoming window is shown; history can be browsed from the Appointments page
+        AppointmentFilter upcoming = new AppointmentFilter(LocalDate.now().atStartOfDay(), null, null, null, null);
+        CursorPage<AppointmentDto> page = appointmentService.getAppointmentDtosPage(upcoming, CHAT_LIST_LIMIT, null);
+        List<AppointmentDto> appointments = page.items();
 
         if (appointments.isEmpty()) {
             return new ChatResponseDto(
-                "No appointments found in the system.",
+                "No upcoming appointments found in the system.",
                 "text",
                 null,
                 Arrays.asList("Make appointment", "Find patient", "Find dentist")
             );
         }
 
-        List<AppointmentDto> appointmentDtos = appointments.stream().map(a -> {
-            PatientDto patientDto = null;
-            if (a.getPatient() != null) {
-                patientDto = new PatientDto(a.getPatient().getId(), a.getPatient().getPatNo(), a.getPatient().getName());
-            }
-
-            DentistSimpleDto dentistDto = null;
-            if (a.getDentist() != null) {
-                dentistDto = new DentistSimpleDto(a.getDentist().getId(), a.getDentist().getDentistName());
-            }
-
-            SurgeryDto surgeryDto = null;
-            if (a.getSurgery() != null) {
-                AddressSimpleDto surgeryAddr = null;
-                if (a.getSurgery().getAddress() != null) {
-                    surgeryAddr = new AddressSimpleDto(a.getSurgery().getAddress().getId(),
-                            a.getSurgery().getAddress().getStreet(),
-                            a.getSurgery().getAddress().getCity(),
-                            a.getSurgery().getAddress().getZipCode());
-                }
-                surgeryDto = new SurgeryDto(a.getSurgery().getId(), a.getSurgery().getSurgeryNo(), surgeryAddr);
-            }
-
-            return new AppointmentDto(a.getId(), a.getAppointmentDateTime(), patientDto, dentistDto, surgeryDto);
-        }).collect(Collectors.toList());
-
         return new ChatResponseDto(
-            "Here are all appointments (" + appointments.size() + " total):",
+            page.nextCursor() == null ?
+                "Here are the upcoming appointments (" + appointments.size() + " total):" :
+                "Here are the next " + appointments.size() + " upcoming appointments:",
             "appointment_list",
-            appointmentDtos,
+            appointments,
             Arrays.asList("Make appointment", "Find patient", "Find dentist")
         );
     }
 
+    private PatientWithAddressDto toPatientWithAddressDto(Patient p) {
+        AddressSimpleDto addr = null;
+        if (p.getAddress() != null) {
+            addr = new AddressSimpleDto(p.getAddress().getId(),
+                p.getAddress().getStreet(),
+                p.getAddress().getCity(),
+                p.getAddress().getZipCode());
+        }
+        return new PatientWithAddressDto(p.getId(), p.getPatNo(), p.getName(), addr);
+    }
+
     private ChatResponseDto getHelpMessage() {
         String helpText = "🤖 Dental Assistant Bot Help\n\n" +
             "I can help you with:\n\n" +
@@ -583,18 +793,10 @@ public class ChatbotService {
         );
     }
 
-    private String extractSearchTerm(String message, List<String> prefixes) {
-        String lowerMessage = message.toLowerCase();
-        for (String prefix : prefixes) {
-            if (lowerMessage.contains(prefix)) {
-                int startIndex = lowerMessage.indexOf(prefix) + prefix.length();
-                String term = message.substring(startIndex).trim();
-                // Remove common words
-                term = term.replaceAll("(?i)^(for|with|the|a|an)\\s+", "");
-                return term;
-            }
+    private static class BookingFailedException extends RuntimeException {
+
+        BookingFailedException(Exception cause) {
+            super(cause.getMessage(), cause);
         }
-        return "";
     }
 }
-
@@ -1,9 +1,11 @@
 package edu.miu.cs489.dental.service;
 
+import edu.miu.cs489.dental.dto.DentistDto;
 import edu.miu.cs489.dental.model.Dentist;
 import edu.miu.cs489.dental.repository.DentistRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,8 +16,14 @@ public class DentistService {
     @Autowired
     private DentistRepository dentistRepository;
 
+    @Transactional(readOnly = true)
     public List<Dentist> getAllDentists() {
-        return dentistRepository.findAll();
+        return dentistRepository.findAllWithAddress();
+    }
+
+    @Transactional(readOnly = true)
+    public List<DentistDto> getAllDentistDtos() {
+        return dentistRepository.findAllDtos();
     }
 
     public Optional<Dentist> getDentistById(Long id) {
@@ -38,6 +46,7 @@ public class DentistService {
         dentistRepository.deleteById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Dentist> searchDentists(String searchString) {
         return dentistRepository.findByDentistNameContainingIgnoreCase(searchString);
     }
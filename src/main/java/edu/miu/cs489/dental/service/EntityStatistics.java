@@ -0,0 +1,243 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.configuration.DataVersions;
+import edu.miu.cs489.dental.dto.StatsDto;
+import edu.miu.cs489.dental.model.Appointment;
+import edu.miu.cs489.dental.repository.AppointmentRepository;
+import edu.miu.cs489.dental.repository.DentistRepository;
+import edu.miu.cs489.dental.repository.PatientRepository;
+import edu.miu.cs489.dental.repository.SurgeryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entity counts kept in memory so callers do not load every row just to count it. Seeded with
+ * count queries once the application is ready and then updated by {@link EntityStatisticsListener}
+ * as entities are persisted, updated and removed on this node. Writes made on other nodes are only
+ * seen through {@link DataVersions}: after one is reported the counts are seeded again, at most every
+ * {@code statistics.refresh-ms}, and until then they may be that far behind.
+ */
+@Component
+public class EntityStatistics {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DentistRepository dentistRepository;
+
+    @Autowired
+    private SurgeryRepository surgeryRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Value("${statistics.refresh-ms:10000}")
+    private long refreshMillis;
+
+    private TransactionTemplate readTransaction;
+
+    private static final Set<String> COUNTED = Set.of(
+            DataVersions.PATIENTS, DataVersions.DENTISTS, DataVersions.SURGERIES, DataVersions.APPOINTMENTS);
+
+    /**
+     * The day and dentist an appointment is counted under; either may be null.
+     */
+    public record Slot(LocalDate day, Long dentistId) {
+        public static Slot of(Appointment appointment) {
+            LocalDateTime at = appointment.getAppointmentDateTime();
+            Long dentistId = appointment.getDentist() == null ? null : appointment.getDentist().getId();
+            return new Slot(at == null ? null : at.toLocalDate(), dentistId);
+        }
+    }
+
+    private final AtomicLong patients = new AtomicLong();
+    private final AtomicLong dentists = new AtomicLong();
+    private final AtomicLong surgeries = new AtomicLong();
+
+    // Guarded by this; the per-appointment slot lets an update or delete undo the old counts
+    private final Map<Long, Slot> appointmentSlots = new HashMap<>();
+    private final Map<LocalDate, Long> perDay = new HashMap<>();
+    private final Map<Long, Long> perDentist = new HashMap<>();
+
+    private volatile boolean ready = false;
+    private volatile boolean seeding = false;
+    private final AtomicBoolean remoteChanges = new AtomicBoolean();
+
+    private final ScheduledExecutorService background = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "entity-statistics");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private record Seed(long patients, long dentists, long surgeries, List<Object[]> slots) {
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        dataVersions.onRemoteChange(aggregate -> {
+            if (COUNTED.contains(aggregate)) {
+                remoteChanges.set(true);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        seed();
+        background.scheduleWithFixedDelay(() -> {
+            if (remoteChanges.getAndSet(false)) {
+                try {
+                    seed();
+                } catch (RuntimeException e) {
+                    remoteChanges.set(true);
+                    System.err.println("Entity statistics refresh failed: " + e.getMessage());
+                }
+            }
+        }, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        background.shutdownNow();
+    }
+
+    /**
+     * Replaces every count with what the database holds now.
+     */
+    public void seed() {
+        seeding = true;
+        try {
+            Seed seed = readTransaction.execute(status -> new Seed(patientRepository.count(), dentistRepository.count(),
+                    surgeryRepository.count(), appointmentRepository.findAllSlots()));
+            synchronized (this) {
+                patients.set(seed.patients());
+                dentists.set(seed.dentists());
+                surgeries.set(seed.surgeries());
+
+                appointmentSlots.clear();
+                perDay.clear();
+                perDentist.clear();
+                for (Object[] row : seed.slots()) {
+                    LocalDateTime at = (LocalDateTime) row[1];
+                    putAppointment((Long) row[0], new Slot(at == null ? null : at.toLocalDate(), (Long) row[2]));
+                }
+                ready = true;
+            }
+        } finally {
+            seeding = false;
+        }
+        System.out.println("Entity statistics seeded: " + patients.get() + " patient(s), " + dentists.get()
+                + " dentist(s), " + surgeries.get() + " surgery(ies), " + appointmentSlots.size() + " appointment(s).");
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getPatientCount() {
+        return patients.get();
+    }
+
+    public long getDentistCount() {
+        return dentists.get();
+    }
+
+    public long getSurgeryCount() {
+        return surgeries.get();
+    }
+
+    public synchronized long getAppointmentCount() {
+        return appointmentSlots.size();
+    }
+
+    // Changes seen before seeding are already included in the seed counts, so they are ignored. One
+    // committed while a seed reads may be counted twice or not at all, so it asks for another seed
+
+    public void patientAdded(long delta) {
+        if (ready) patients.addAndGet(delta);
+        if (seeding) remoteChanges.set(true);
+    }
+
+    public void dentistAdded(long delta) {
+        if (ready) dentists.addAndGet(delta);
+        if (seeding) remoteChanges.set(true);
+    }
+
+    public void surgeryAdded(long delta) {
+        if (ready) surgeries.addAndGet(delta);
+        if (seeding) remoteChanges.set(true);
+    }
+
+    /**
+     * Records a new or changed appointment. Idempotent per id, so replaying a change is harmless.
+     */
+    public synchronized void appointmentSaved(Long id, Slot slot) {
+        if (seeding) remoteChanges.set(true);
+        if (!ready || id == null) return;
+        removeAppointment(id);
+        putAppointment(id, slot);
+    }
+
+    public synchronized void appointmentRemoved(Long id) {
+        if (seeding) remoteChanges.set(true);
+        if (!ready || id == null) return;
+        removeAppointment(id);
+    }
+
+    public synchronized StatsDto snapshot() {
+        return new StatsDto(
+                patients.get(),
+                dentists.get(),
+                surgeries.get(),
+                appointmentSlots.size(),
+                new TreeMap<>(perDay),
+                new TreeMap<>(perDentist));
+    }
+
+    private void putAppointment(Long id, Slot slot) {
+        appointmentSlots.put(id, slot);
+        if (slot.day() != null) perDay.merge(slot.day(), 1L, Long::sum);
+        if (slot.dentistId() != null) perDentist.merge(slot.dentistId(), 1L, Long::sum);
+    }
+
+    private void removeAppointment(Long id) {
+        Slot slot = appointmentSlots.remove(id);
+        if (slot == null) return;
+        if (slot.day() != null) decrement(perDay, slot.day());
+        if (slot.dentistId() != null) decrement(perDentist, slot.dentistId());
+    }
+
+    private static <K> void decrement(Map<K, Long> counts, K key) {
+        counts.computeIfPresent(key, (k, n) -> n > 1 ? n - 1 : null);
+    }
+}
@@ -0,0 +1,81 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.model.Appointment;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.model.Surgery;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that keeps {@link EntityStatistics} current. Changes are applied after the
+ * surrounding transaction commits, so rolled-back writes are never counted. Bulk JPQL deletes and
+ * updates bypass entity listeners and are not reflected until the next restart.
+ */
+@Component
+public class EntityStatisticsListener {
+
+    @Autowired
+    @Lazy
+    private EntityStatistics statistics;
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        if (entity instanceof Appointment appointment) {
+            Long id = appointment.getId();
+            EntityStatistics.Slot slot = EntityStatistics.Slot.of(appointment);
+            afterCommit(() -> statistics.appointmentSaved(id, slot));
+        } else {
+            count(entity, 1);
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        // Only appointments can move between the per-day and per-dentist buckets
+        if (entity instanceof Appointment appointment) {
+            Long id = appointment.getId();
+            EntityStatistics.Slot slot = EntityStatistics.Slot.of(appointment);
+            afterCommit(() -> statistics.appointmentSaved(id, slot));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Appointment appointment) {
+            Long id = appointment.getId();
+            afterCommit(() -> statistics.appointmentRemoved(id));
+        } else {
+            count(entity, -1);
+        }
+    }
+
+    private void count(Object entity, long delta) {
+        if (entity instanceof Patient) {
+            afterCommit(() -> statistics.patientAdded(delta));
+        } else if (entity instanceof Dentist) {
+            afterCommit(() -> statistics.dentistAdded(delta));
+        } else if (entity instanceof Surgery) {
+            afterCommit(() -> statistics.surgeryAdded(delta));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -3,12 +3,29 @@ package edu.miu.cs489.dental.service;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import edu.miu.cs489.dental.util.CircuitBreaker;
+import edu.miu.cs489.dental.util.LatencyWindow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import okhttp3.*;
+import okio.BufferedSource;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 @Service
 public class GeminiAIService {
@@ -16,94 +33,431 @@ public class GeminiAIService {
     @Value("${gemini.api.key:}")
     private String apiKey;
 
-    // Try multiple model endpoints - will use first one that works
+    @Autowired
+    private GeminiResponseCache responseCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Try multiple models - will use first one that works
     // Prioritizing Gemini 2.5 models with v1 API (stable)
-    private static final String[] GEMINI_MODEL_ENDPOINTS = {
-        "https://generativelanguage.googleapis.com/v1/models/gemini-2.5-flash:generateContent",
-        "https://generativelanguage.googleapis.com/v1/models/gemini-2.5-pro:generateContent",
-        "https://generativelanguage.googleapis.com/v1/models/gemini-2.0-flash-exp:generateContent",
-        "https://generativelanguage.googleapis.com/v1/models/gemini-1.5-flash:generateContent",
-        "https://generativelanguage.googleapis.com/v1/models/gemini-1.5-flash-latest:generateContent",
-        "https://generativelanguage.googleapis.com/v1/models/gemini-1.5-pro:generateContent",
-        "https://generativelanguage.googleapis.com/v1/models/gemini-1.5-pro-latest:generateContent",
-        "https://generativelanguage.googleapis.com/v1/models/gemini-pro:generateContent"
+    private static final String[] GEMINI_MODELS = {
+        "gemini-2.5-flash",
+        "gemini-2.5-pro",
+        "gemini-2.0-flash-exp",
+        "gemini-1.5-flash",
+        "gemini-1.5-flash-latest",
+        "gemini-1.5-pro",
+        "gemini-1.5-pro-latest",
+        "gemini-pro"
     };
 
-    private static final int MAX_RETRIES = 2;
-    private static final int RETRY_DELAY_MS = 1000;
-    private String workingEndpoint = null; // Cache the working endpoint
+    // One generateContent endpoint per model, in the order above
+    private final List<String> modelEndpoints = new ArrayList<>();
+
+    private final AtomicReference<String> workingEndpoint = new AtomicReference<>(); // Cache the working endpoint
 
     private final OkHttpClient httpClient;
+    private final Dispatcher dispatcher;
     private final Gson gson;
 
-    public GeminiAIService() {
+    private final long deadlineMs;
+    private final double hedgePercentile;
+    private final long hedgeDefaultDelayMs;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyWindow latencies = new LatencyWindow(128);
+
+    // Fires hedges and deadlines; never runs HTTP calls or blocking work itself
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "gemini-gateway-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public GeminiAIService(@Value("${gemini.deadline-ms:8000}") long deadlineMs,
+                           @Value("${gemini.hedge.percentile:0.95}") double hedgePercentile,
+                           @Value("${gemini.hedge.default-delay-ms:2000}") long hedgeDefaultDelayMs,
+                           @Value("${gemini.circuit.failure-threshold:5}") int failureThreshold,
+                           @Value("${gemini.circuit.open-ms:30000}") long openMs,
+                           @Value("${gemini.max-concurrent-requests:64}") int maxConcurrentRequests,
+                           @Value("${gemini.base-url:https://generativelanguage.googleapis.com/v1/models}") String baseUrl) {
+        for (String model : GEMINI_MODELS) {
+            modelEndpoints.add(baseUrl + "/" + model + ":generateContent");
+        }
+        this.deadlineMs = deadlineMs;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeDefaultDelayMs = hedgeDefaultDelayMs;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMs);
+        // Every endpoint is on one host, so the per-host limit (5 by default) is the real one
+        this.dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxConcurrentRequests);
+        dispatcher.setMaxRequestsPerHost(maxConcurrentRequests);
         this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(60, TimeUnit.SECONDS)
-                .readTimeout(60, TimeUnit.SECONDS)
-                .writeTimeout(60, TimeUnit.SECONDS)
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxConcurrentRequests, 5, TimeUnit.MINUTES))
+                .connectTimeout(deadlineMs, TimeUnit.MILLISECONDS)
+                .callTimeout(deadlineMs, TimeUnit.MILLISECONDS)
                 .build();
         this.gson = new Gson();
     }
 
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Blocking convenience wrapper around {@link #processWithAIAsync}; waits at most the deadline.
+     */
     public String processWithAI(String userMessage, String context) {
-        if (apiKey == null || apiKey.isEmpty()) {
-            return null; // Fall back to rule-based processing
+        return processWithAIAsync(userMessage, context).join();
+    }
+
+    /**
+     * Sends the prompt to Gemini without blocking the caller. Completes with the validated intent JSON,
+     * or with null when Gemini is not configured, the circuit is open, every endpoint failed, or the
+     * overall deadline passed; callers then fall back to rule-based processing. If the first endpoint
+     * has not answered within the recent latency percentile, the request is hedged to a second endpoint
+     * and whichever answers first wins.
+     * <p>
+     * Answers are cached by normalized message and context (see {@link GeminiResponseCache}), so a
+     * repeated message completes immediately without a network call.
+     */
+    public CompletableFuture<String> processWithAIAsync(String userMessage, String context) {
+        if (!isConfigured()) {
+            return CompletableFuture.completedFuture(null); // Fall back to rule-based processing
         }
 
-        // Try each model endpoint until one works
-        String[] endpointsToTry = workingEndpoint != null ?
-            new String[]{workingEndpoint} : GEMINI_MODEL_ENDPOINTS;
-
-        for (String endpoint : endpointsToTry) {
-            for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
-                try {
-                    String prompt = buildPrompt(userMessage, context);
-                    String response = callGeminiAPI(prompt, attempt, endpoint);
-                    String extracted = extractResponse(response);
-
-                    if (extracted != null && !extracted.isEmpty()) {
-                        // Cache this endpoint as working
-                        if (workingEndpoint == null) {
-                            workingEndpoint = endpoint;
-                            System.out.println("✅ Found working Gemini endpoint: " + getModelName(endpoint));
-                        }
-                        return extracted;
-                    }
+        long startedAt = System.nanoTime();
+        String cacheKey = responseCache.keyOf(userMessage, context);
+        String cached = responseCache.get(cacheKey);
+        if (cached != null) {
+            recordCall("call", "cached", startedAt);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        if (!circuitBreaker.tryAcquire()) {
+            recordCall("call", "circuit_open", startedAt);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Exchange exchange = new Exchange(buildPrompt(userMessage, context), endpointOrder(), cacheKey);
+        exchange.result.whenComplete((answer, e) -> recordCall("call", answer != null ? "answered" : "fallback", startedAt));
+        launchNext(exchange);
 
-                    if (attempt < MAX_RETRIES) {
-                        System.out.println("Attempt " + attempt + " returned empty response, retrying...");
-                        Thread.sleep(RETRY_DELAY_MS);
+        long hedgeDelay = latencies.percentile(hedgePercentile, hedgeDefaultDelayMs);
+        if (hedgeDelay < deadlineMs) {
+            scheduler.schedule(() -> {
+                if (!exchange.isSettled()) {
+                    launchNext(exchange);
+                }
+            }, hedgeDelay, TimeUnit.MILLISECONDS);
+        }
+        scheduler.schedule(() -> {
+            if (exchange.settle()) {
+                System.err.println("⚠️ Gemini did not answer within " + deadlineMs + " ms, falling back to rule-based processing");
+                exchange.finish(null, () -> {
+                    recordDeadlineMissed(exchange);
+                    exchange.cancelAll();
+                });
+            }
+        }, deadlineMs, TimeUnit.MILLISECONDS);
+
+        return exchange.result;
+    }
+
+    /**
+     * Streaming variant of {@link #processWithAIAsync}: the model's text is passed to {@code onText}
+     * chunk by chunk as Gemini generates it, and the returned future completes with the validated
+     * intent JSON (or null to fall back) once the stream ends. A cached answer is passed to
+     * {@code onText} in one piece. Endpoints are tried one after another until one starts answering;
+     * streamed calls are not hedged, since two streams cannot be merged into one reply.
+     */
+    public CompletableFuture<String> streamWithAIAsync(String userMessage, String context, Consumer<String> onText) {
+        if (!isConfigured()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long startedAt = System.nanoTime();
+        String cacheKey = responseCache.keyOf(userMessage, context);
+        String cached = responseCache.get(cacheKey);
+        if (cached != null) {
+            recordCall("stream", "cached", startedAt);
+            onText.accept(cached);
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        if (!circuitBreaker.tryAcquire()) {
+            recordCall("stream", "circuit_open", startedAt);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Exchange exchange = new Exchange(buildPrompt(userMessage, context), endpointOrder(), cacheKey);
+        exchange.result.whenComplete((answer, e) -> recordCall("stream", answer != null ? "answered" : "fallback", startedAt));
+        streamNext(exchange, onText);
+        scheduler.schedule(() -> {
+            if (exchange.settle()) {
+                System.err.println("⚠️ Gemini stream did not finish within " + deadlineMs + " ms, falling back to rule-based processing");
+                exchange.finish(null, () -> {
+                    recordDeadlineMissed(exchange);
+                    exchange.cancelAll();
+                });
+            }
+        }, deadlineMs, TimeUnit.MILLISECONDS);
+        return exchange.result;
+    }
+
+    private void streamNext(Exchange exchange, Consumer<String> onText) {
+        int index = exchange.nextEndpoint.getAndIncrement();
+        if (index >= exchange.endpoints.size()) {
+            if (exchange.settle()) {
+                System.err.println("⚠️ All Gemini endpoints failed, falling back to rule-based processing");
+                exchange.finish(null, circuitBreaker::recordFailure);
+            }
+            return;
+        }
+        String endpoint = exchange.endpoints.get(index);
+        long startedAt = System.nanoTime();
+
+        String streamUrl = endpoint.replace(":generateContent", ":streamGenerateContent");
+        Request request = buildRequest(exchange.prompt, streamUrl);
+        Call call = httpClient.newCall(request.newBuilder()
+                .url(request.url().newBuilder().addQueryParameter("alt", "sse").build())
+                .build());
+        exchange.calls.add(call);
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call c, Response response) {
+                StringBuilder text = new StringBuilder();
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        System.err.println("Gemini stream from " + getModelName(endpoint) + " failed: " +
+                            response.code() + " - " + response.message());
+                        streamNext(exchange, onText);
+                        return;
                     }
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    System.err.println("Retry interrupted: " + e.getMessage());
-                    return null;
-                } catch (IOException e) {
-                    if (e.getMessage().contains("404")) {
-                        System.err.println("❌ Endpoint " + getModelName(endpoint) + " not available (404)");
-                        break; // Try next endpoint
+                    BufferedSource source = response.body().source();
+                    String line;
+                    while (!exchange.isSettled() && (line = source.readUtf8Line()) != null) {
+                        if (!line.startsWith("data:")) continue;
+                        String piece = candidateText(gson.fromJson(line.substring(5).trim(), JsonObject.class));
+                        if (piece != null && !piece.isEmpty()) {
+                            text.append(piece);
+                            onText.accept(piece);
+                        }
+                    }
+                } catch (Exception e) {
+                    if (!c.isCanceled()) {
+                        System.err.println("Error reading Gemini stream from " + getModelName(endpoint) + ": " + e.getMessage());
                     }
+                }
+
+                if (exchange.isSettled()) {
+                    return;
+                }
+                if (text.length() == 0) {
+                    // Nothing reached the caller yet, so another endpoint can still answer cleanly
+                    streamNext(exchange, onText);
+                    return;
+                }
+                String validated = validateIntentJson(text.toString());
+                if (exchange.settle()) {
+                    exchange.finish(validated, () -> {
+                        if (validated == null) {
+                            circuitBreaker.recordFailure();
+                            return;
+                        }
+                        latencies.record((System.nanoTime() - startedAt) / 1_000_000);
+                        circuitBreaker.recordSuccess();
+                        workingEndpoint.compareAndSet(null, endpoint);
+                        if (isCacheable(validated)) {
+                            responseCache.put(exchange.cacheKey, validated);
+                        }
+                    });
+                }
+            }
 
-                    System.err.println("Error calling Gemini API with " + getModelName(endpoint) +
-                        " (attempt " + attempt + "/" + MAX_RETRIES + "): " + e.getMessage());
+            @Override
+            public void onFailure(Call c, IOException e) {
+                if (!c.isCanceled()) {
+                    System.err.println("Error calling Gemini stream with " + getModelName(endpoint) + ": " + e.getMessage());
+                    streamNext(exchange, onText);
+                }
+            }
+        });
+    }
 
-                    if (attempt < MAX_RETRIES) {
-                        try {
-                            Thread.sleep(RETRY_DELAY_MS * attempt);
-                        } catch (InterruptedException ie) {
-                            Thread.currentThread().interrupt();
-                            return null;
+    /**
+     * False while the circuit breaker is open; callers can skip Gemini entirely.
+     */
+    public boolean isAvailable() {
+        return isConfigured() && circuitBreaker.isCallPermitted();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    // dental.gemini.calls: whole gateway call, from cache lookup until the answer or the fallback
+    private void recordCall(String mode, String outcome, long startedAt) {
+        Timer.builder("dental.gemini.calls")
+                .description("Gemini gateway calls by mode and outcome")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    // A call still waiting for a dispatcher slot never reached Gemini, so its time says nothing
+    // about Gemini's health; only calls that were sent count against the breaker
+    private void recordDeadlineMissed(Exchange exchange) {
+        List<Call> queued = dispatcher.queuedCalls();
+        if (exchange.calls.stream().anyMatch(call -> !queued.contains(call))) {
+            circuitBreaker.recordFailure();
+        } else {
+            System.err.println("⚠️ Gemini call never left the local queue (" + queued.size() + " waiting); " +
+                    "raise gemini.max-concurrent-requests if this persists");
+            circuitBreaker.recordInconclusive();
+        }
+    }
+
+    private static final class Exchange {
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        final String prompt;
+        final List<String> endpoints;
+        final String cacheKey;
+        final AtomicInteger nextEndpoint = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final List<Call> calls = new CopyOnWriteArrayList<>();
+        final AtomicBoolean settled = new AtomicBoolean();
+
+        Exchange(String prompt, List<String> endpoints, String cacheKey) {
+            this.prompt = prompt;
+            this.endpoints = endpoints;
+            this.cacheKey = cacheKey;
+        }
+
+        /**
+         * Claims the outcome of the exchange; only the first answer, failure or deadline gets it.
+         */
+        boolean settle() {
+            return settled.compareAndSet(false, true);
+        }
+
+        boolean isSettled() {
+            return settled.get();
+        }
+
+        // Books the outcome before completing, so a caller waiting on the result already sees the
+        // circuit state, latency sample and cache entry it produced
+        void finish(String answer, Runnable bookkeeping) {
+            try {
+                bookkeeping.run();
+            } finally {
+                result.complete(answer);
+            }
+        }
+
+        void cancelAll() {
+            calls.forEach(Call::cancel);
+        }
+    }
+
+    private List<String> endpointOrder() {
+        List<String> order = new ArrayList<>();
+        String working = workingEndpoint.get();
+        if (working != null) {
+            order.add(working);
+        }
+        for (String endpoint : modelEndpoints) {
+            if (!endpoint.equals(working)) {
+                order.add(endpoint);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Starts a call to the next untried endpoint; returns false when none is left.
+     */
+    private boolean launchNext(Exchange exchange) {
+        int index = exchange.nextEndpoint.getAndIncrement();
+        if (index >= exchange.endpoints.size()) {
+            return false;
+        }
+        String endpoint = exchange.endpoints.get(index);
+        long startedAt = System.nanoTime();
+        exchange.inFlight.incrementAndGet();
+
+        Call call = httpClient.newCall(buildRequest(exchange.prompt, endpoint));
+        exchange.calls.add(call);
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call c, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        if (response.code() == 404) {
+                            System.err.println("❌ Endpoint " + getModelName(endpoint) + " not available (404)");
+                        } else {
+                            System.err.println("Gemini API call to " + getModelName(endpoint) + " failed: " +
+                                response.code() + " - " + response.message());
                         }
+                        onAttemptFailed(exchange);
+                        return;
                     }
-                } catch (Exception e) {
-                    System.err.println("Unexpected error with " + getModelName(endpoint) + ": " + e.getMessage());
-                    break; // Try next endpoint
+                    String extracted = extractResponse(response.body().string());
+                    if (extracted == null || extracted.isEmpty()) {
+                        onAttemptFailed(exchange);
+                        return;
+                    }
+                    if (exchange.settle()) {
+                        exchange.cancelAll(); // drop the losing hedge
+                        exchange.finish(extracted, () -> {
+                            latencies.record((System.nanoTime() - startedAt) / 1_000_000);
+                            circuitBreaker.recordSuccess();
+                            if (isCacheable(extracted)) {
+                                responseCache.put(exchange.cacheKey, extracted);
+                            }
+                            if (workingEndpoint.getAndSet(endpoint) == null) {
+                                System.out.println("✅ Found working Gemini endpoint: " + getModelName(endpoint));
+                            }
+                        });
+                    }
+                } catch (IOException e) {
+                    System.err.println("Error reading Gemini response from " + getModelName(endpoint) + ": " + e.getMessage());
+                    onAttemptFailed(exchange);
+                }
+            }
+
+            @Override
+            public void onFailure(Call c, IOException e) {
+                if (!c.isCanceled()) {
+                    System.err.println("Error calling Gemini API with " + getModelName(endpoint) + ": " + e.getMessage());
                 }
+                onAttemptFailed(exchange);
             }
+        });
+        return true;
+    }
+
+    // A failed attempt moves on to the next endpoint instead of sleeping and retrying the same one
+    private void onAttemptFailed(Exchange exchange) {
+        int remaining = exchange.inFlight.decrementAndGet();
+        if (exchange.isSettled()) {
+            return;
         }
+        if (!launchNext(exchange) && remaining == 0) {
+            if (exchange.settle()) {
+                System.err.println("⚠️ All Gemini endpoints failed, falling back to rule-based processing");
+                exchange.finish(null, circuitBreaker::recordFailure);
+            }
+        }
+    }
 
-        System.err.println("⚠️ All Gemini endpoints failed, falling back to rule-based processing");
-        return null; // Fall back to rule-based processing
+    // Bookings are not cached: they write, and relative times like "tomorrow" go stale
+    private boolean isCacheable(String intentJson) {
+        JsonObject parsed = gson.fromJson(intentJson, JsonObject.class);
+        return !"make_appointment".equals(parsed.get("intent").getAsString());
     }
 
     private String getModelName(String endpoint) {
@@ -150,7 +504,7 @@ public class GeminiAIService {
             """, context, userMessage);
     }
 
-    private String callGeminiAPI(String prompt, int attempt, String endpoint) throws IOException {
+    private Request buildRequest(String prompt, String endpoint) {
         JsonObject requestBody = new JsonObject();
         JsonArray contents = new JsonArray();
         JsonObject content = new JsonObject();
@@ -176,91 +530,91 @@ public class GeminiAIService {
                 MediaType.parse("application/json")
         );
 
-        Request request = new Request.Builder()
+        return new Request.Builder()
                 .url(endpoint + "?key=" + apiKey)
                 .post(body)
                 .addHeader("Content-Type", "application/json")
                 .build();
-
-        try (Response response = httpClient.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                // Retry on 503 Service Unavailable
-                if (response.code() == 503 && attempt < MAX_RETRIES) {
-                    System.out.println("Gemini API returned 503, will retry (attempt " + attempt + "/" + MAX_RETRIES + ")");
-                }
-                throw new IOException("Gemini API call failed: " + response.code() + " - " + response.message());
-            }
-            return response.body().string();
-        }
     }
 
     private String extractResponse(String apiResponse) {
         try {
-            JsonObject jsonResponse = gson.fromJson(apiResponse, JsonObject.class);
-            JsonArray candidates = jsonResponse.getAsJsonArray("candidates");
-
-            if (candidates != null && candidates.size() > 0) {
-                JsonObject candidate = candidates.get(0).getAsJsonObject();
-                JsonObject content = candidate.getAsJsonObject("content");
-                JsonArray parts = content.getAsJsonArray("parts");
-
-                if (parts != null && parts.size() > 0) {
-                    JsonObject part = parts.get(0).getAsJsonObject();
-                    String text = part.get("text").getAsString().trim();
-
-                    // Clean the response - remove markdown code blocks if present
-                    text = cleanJsonResponse(text);
+            String text = candidateText(gson.fromJson(apiResponse, JsonObject.class));
+            return text == null ? null : validateIntentJson(text);
+        } catch (Exception e) {
+            System.err.println("Error parsing Gemini response: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return null;
+    }
 
-                    // Validate it's valid JSON before returning
-                    try {
-                        JsonObject testParse = gson.fromJson(text, JsonObject.class);
+    // Text of the first candidate's first part, or null when the response has none
+    private String candidateText(JsonObject jsonResponse) {
+        JsonArray candidates = jsonResponse.getAsJsonArray("candidates");
+        if (candidates == null || candidates.size() == 0) {
+            return null;
+        }
+        JsonObject candidate = candidates.get(0).getAsJsonObject();
+        JsonObject content = candidate.getAsJsonObject("content");
+        JsonArray parts = content == null ? null : content.getAsJsonArray("parts");
+        if (parts == null || parts.size() == 0) {
+            return null;
+        }
+        JsonObject part = parts.get(0).getAsJsonObject();
+        return part.has("text") ? part.get("text").getAsString() : null;
+    }
 
-                        // Ensure required fields exist
-                        if (!testParse.has("intent")) {
-                            System.err.println("AI response missing 'intent' field");
-                            return null;
-                        }
+    /**
+     * Cleans the model's text and checks it is intent JSON, filling in missing extracted_data fields.
+     * Returns null when it is not usable.
+     */
+    private String validateIntentJson(String rawText) {
+        // Clean the response - remove markdown code blocks if present
+        String text = cleanJsonResponse(rawText.trim());
 
-                        // Ensure extracted_data has all required fields
-                        if (testParse.has("extracted_data")) {
-                            JsonObject extractedData = testParse.getAsJsonObject("extracted_data");
-                            if (!extractedData.has("search_term")) {
-                                extractedData.addProperty("search_term", "");
-                            }
-                            if (!extractedData.has("patient_info")) {
-                                extractedData.addProperty("patient_info", "");
-                            }
-                            if (!extractedData.has("dentist_info")) {
-                                extractedData.addProperty("dentist_info", "");
-                            }
-                            if (!extractedData.has("datetime")) {
-                                extractedData.addProperty("datetime", "");
-                            }
-                        } else {
-                            // Add empty extracted_data if missing
-                            JsonObject extractedData = new JsonObject();
-                            extractedData.addProperty("search_term", "");
-                            extractedData.addProperty("patient_info", "");
-                            extractedData.addProperty("dentist_info", "");
-                            extractedData.addProperty("datetime", "");
-                            testParse.add("extracted_data", extractedData);
-                        }
+        // Validate it's valid JSON before returning
+        try {
+            JsonObject testParse = gson.fromJson(text, JsonObject.class);
 
-                        // Return the cleaned/fixed JSON
-                        return testParse.toString();
+            // Ensure required fields exist
+            if (testParse == null || !testParse.has("intent")) {
+                System.err.println("AI response missing 'intent' field");
+                return null;
+            }
 
-                    } catch (com.google.gson.JsonSyntaxException e) {
-                        System.err.println("AI returned invalid JSON: " + e.getMessage());
-                        System.err.println("Raw response: " + text);
-                        return null;
-                    }
+            // Ensure extracted_data has all required fields
+            if (testParse.has("extracted_data")) {
+                JsonObject extractedData = testParse.getAsJsonObject("extracted_data");
+                if (!extractedData.has("search_term")) {
+                    extractedData.addProperty("search_term", "");
+                }
+                if (!extractedData.has("patient_info")) {
+                    extractedData.addProperty("patient_info", "");
+                }
+                if (!extractedData.has("dentist_info")) {
+                    extractedData.addProperty("dentist_info", "");
                 }
+                if (!extractedData.has("datetime")) {
+                    extractedData.addProperty("datetime", "");
+                }
+            } else {
+                // Add empty extracted_data if missing
+                JsonObject extractedData = new JsonObject();
+                extractedData.addProperty("search_term", "");
+                extractedData.addProperty("patient_info", "");
+                extractedData.addProperty("dentist_info", "");
+                extractedData.addProperty("datetime", "");
+                testParse.add("extracted_data", extractedData);
             }
-        } catch (Exception e) {
-            System.err.println("Error parsing Gemini response: " + e.getMessage());
-            e.printStackTrace();
+
+            // Return the cleaned/fixed JSON
+            return testParse.toString();
+
+        } catch (com.google.gson.JsonSyntaxException e) {
+            System.err.println("AI returned invalid JSON: " + e.getMessage());
+            System.err.println("Raw response: " + text);
+            return null;
         }
-        return null;
     }
 
     private String cleanJsonResponse(String text) {
@@ -0,0 +1,154 @@
+package edu.miu.cs489.dental.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded LRU cache of validated Gemini intent JSON, keyed by the normalized chat message and a hash
+ * of the system context, so repeated messages skip the network call. Entries expire after
+ * {@code gemini.cache.ttl-seconds}; the cache is capped both by entry count and by estimated bytes.
+ */
+@Component
+public class GeminiResponseCache {
+
+    public record Stats(long hits, long misses, long evictions, long expirations, int size, long bytes) {
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private record CachedResponse(String json, long expiresAtNanos, long bytes) {
+    }
+
+    private record ContextHash(String context, String hash) {
+    }
+
+    // Politeness and filler words that do not change what the user is asking for
+    private static final Set<String> FILLER_WORDS = Set.of(
+            "please", "pls", "kindly", "can", "could", "would", "you", "me", "the", "a", "an", "all");
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    // The context rarely changes between messages, so its digest is computed once per distinct context
+    private volatile ContextHash lastContext = new ContextHash("", digest(""));
+
+    public GeminiResponseCache(@Value("${gemini.cache.ttl-seconds:600}") long ttlSeconds,
+                               @Value("${gemini.cache.max-entries:5000}") int maxEntries,
+                               @Value("${gemini.cache.max-bytes:8388608}") long maxBytes) {
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean isEnabled() {
+        return ttlNanos > 0 && maxEntries > 0 && maxBytes > 0;
+    }
+
+    /**
+     * Cache key for a message under a given system context.
+     */
+    public String keyOf(String message, String context) {
+        ContextHash known = lastContext;
+        if (!known.context().equals(context)) {
+            known = new ContextHash(context, digest(context));
+            lastContext = known;
+        }
+        return normalize(message) + '\u0000' + known.hash();
+    }
+
+    /**
+     * Returns the cached intent JSON for {@code key}, or null on a miss or after expiry.
+     */
+    public String get(String key) {
+        if (!isEnabled()) return null;
+        long now = System.nanoTime();
+        synchronized (entries) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null) {
+                if (now - cached.expiresAtNanos() < 0) {
+                    hits.incrementAndGet();
+                    return cached.json();
+                }
+                entries.remove(key);
+                bytes -= cached.bytes();
+                expirations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String key, String json) {
+        if (!isEnabled()) return;
+        // Java strings are UTF-16; count two bytes per char plus a rough per-entry overhead
+        long size = 2L * (key.length() + json.length()) + 64;
+        if (size > maxBytes) return;
+        synchronized (entries) {
+            CachedResponse previous = entries.put(key, new CachedResponse(json, System.nanoTime() + ttlNanos, size));
+            if (previous != null) {
+                bytes -= previous.bytes();
+            }
+            bytes += size;
+
+            Iterator<CachedResponse> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                bytes -= eldest.next().bytes();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public Stats stats() {
+        synchronized (entries) {
+            return new Stats(hits.get(), misses.get(), evictions.get(), expirations.get(), entries.size(), bytes);
+        }
+    }
+
+    /**
+     * Lower-cases the message, drops punctuation and filler words and collapses whitespace, so
+     * "Show all appointments, please!" and "show appointments" share a key.
+     */
+    static String normalize(String message) {
+        StringBuilder normalized = new StringBuilder();
+        for (String word : NON_WORD.split(message.toLowerCase(Locale.ROOT))) {
+            if (word.isEmpty() || FILLER_WORDS.contains(word)) continue;
+            if (normalized.length() > 0) normalized.append(' ');
+            normalized.append(word);
+        }
+        return normalized.toString();
+    }
+
+    private static String digest(String text) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(md.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package edu.miu.cs489.dental.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multinomial Naive Bayes over word unigrams and bigrams, trained at startup from labelled chat
+ * utterances bundled on the classpath. Classifying a message takes microseconds, so confident
+ * predictions can be answered without a round trip to Gemini. A message that matches a training
+ * utterance word for word is returned with full confidence.
+ */
+@Component
+public class IntentClassifier {
+
+    /**
+     * Predicted intent with its posterior probability. {@code searchTerm} holds the words of the
+     * message the model has never seen in training, in their original case; for search intents
+     * these are the name or number being looked up.
+     */
+    public record Prediction(String intent, double confidence, String searchTerm) {
+    }
+
+    private final double minConfidence;
+
+    private final List<String> intents = new ArrayList<>();
+    private final Map<String, Double> logPriors = new HashMap<>();
+    private final Map<String, Map<String, Integer>> featureCounts = new HashMap<>();
+    private final Map<String, Integer> featureTotals = new HashMap<>();
+    private final Set<String> vocabulary = new HashSet<>();
+    private final Set<String> knownWords = new HashSet<>();
+
+    // Normalized training utterance -> its intent; null when the same utterance has conflicting labels
+    private final Map<String, String> exactUtterances = new HashMap<>();
+
+    public IntentClassifier(@Value("${chatbot.classifier.training-data:classpath:chatbot/intents.tsv}") Resource trainingData,
+                            @Value("${chatbot.classifier.min-confidence:0.85}") double minConfidence) {
+        this.minConfidence = minConfidence;
+        train(trainingData);
+    }
+
+    /**
+     * Whether {@code prediction} is confident enough to answer without the LLM.
+     */
+    public boolean isConfident(Prediction prediction) {
+        return prediction.confidence() >= minConfidence;
+    }
+
+    public Prediction classify(String message) {
+        List<String> words = words(message);
+        String exact = exactUtterances.get(String.join(" ", words));
+        if (exact != null) {
+            return new Prediction(exact, 1.0, "");
+        }
+        List<String> features = features(words);
+
+        Map<String, Double> scores = new HashMap<>();
+        boolean anyKnown = false;
+        for (String intent : intents) {
+            Map<String, Integer> counts = featureCounts.get(intent);
+            double denominator = featureTotals.get(intent) + vocabulary.size();
+            double score = logPriors.get(intent);
+            for (String feature : features) {
+                // Unseen features carry no evidence for any intent
+                if (!vocabulary.contains(feature)) continue;
+                anyKnown = true;
+                score += Math.log((counts.getOrDefault(feature, 0) + 1) / denominator);
+            }
+            scores.put(intent, score);
+        }
+
+        String best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (Map.Entry<String, Double> e : scores.entrySet()) {
+            if (e.getValue() > bestScore) {
+                best = e.getKey();
+                bestScore = e.getValue();
+            }
+        }
+
+        // Posterior of the best intent: 1 / sum(exp(score_i - score_best))
+        double sum = 0.0;
+        for (double score : scores.values()) {
+            sum += Math.exp(score - bestScore);
+        }
+        double confidence = anyKnown ? 1.0 / sum : 0.0;
+
+        return new Prediction(best, confidence, searchTermOf(message));
+    }
+
+    private String searchTermOf(String message) {
+        StringBuilder term = new StringBuilder();
+        for (String token : message.trim().split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty() || knownWords.contains(token.toLowerCase())) continue;
+            if (term.length() > 0) term.append(' ');
+            term.append(token);
+        }
+        return term.toString();
+    }
+
+    private void train(Resource trainingData) {
+        Map<String, Integer> examples = new HashMap<>();
+        int total = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(trainingData.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                int tab = line.indexOf('\t');
+                if (tab < 0) {
+                    throw new IllegalStateException("Malformed training line (expected intent<TAB>utterance): " + line);
+                }
+                String intent = line.substring(0, tab).trim();
+                List<String> words = words(line.substring(tab + 1));
+                knownWords.addAll(words);
+                exactUtterances.merge(String.join(" ", words), intent, (a, b) -> a.equals(b) ? a : null);
+
+                if (!featureCounts.containsKey(intent)) {
+                    intents.add(intent);
+                    featureCounts.put(intent, new HashMap<>());
+                    featureTotals.put(intent, 0);
+                }
+                Map<String, Integer> counts = featureCounts.get(intent);
+                for (String feature : features(words)) {
+                    counts.merge(feature, 1, Integer::sum);
+                    featureTotals.merge(intent, 1, Integer::sum);
+                    vocabulary.add(feature);
+                }
+                examples.merge(intent, 1, Integer::sum);
+                total++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read intent training data " + trainingData, e);
+        }
+        if (total == 0) {
+            throw new IllegalStateException("Intent training data " + trainingData + " is empty");
+        }
+        for (String intent : intents) {
+            logPriors.put(intent, Math.log((double) examples.get(intent) / total));
+        }
+        System.out.println("Intent classifier trained on " + total + " utterance(s) across " + intents.size() + " intent(s).");
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) words.add(token);
+        }
+        return words;
+    }
+
+    private static List<String> features(List<String> words) {
+        List<String> features = new ArrayList<>(words);
+        for (int i = 0; i + 1 < words.size(); i++) {
+            features.add(words.get(i) + " " + words.get(i + 1));
+        }
+        return features;
+    }
+}
@@ -0,0 +1,310 @@
+package edu.miu.cs489.dental.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.cs489.dental.dto.BulkImportReport;
+import edu.miu.cs489.dental.dto.PatientImportRow;
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.repository.AddressRepository;
+import edu.miu.cs489.dental.repository.PatientRepository;
+import edu.miu.cs489.dental.util.CsvReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Creates patients, with their addresses, from a CSV or NDJSON upload. The upload is parsed as it
+ * arrives and written in chunks of {@code patient-import.chunk-size} rows, one transaction each, so
+ * memory use does not grow with its size and Hibernate sends each chunk's inserts as JDBC batches.
+ * <p>
+ * A row is rejected, and listed in the report, when a required field is missing or too long, when
+ * its address is incomplete, or when its patNo already exists or appeared earlier in the upload.
+ * Rejected rows do not stop the import; a database failure stops it after the chunks committed so far,
+ * and the report counts only those.
+ * <p>
+ * Addresses: a patient has an address of its own (the foreign key is unique), so two rows at the
+ * same address still get one row each. An existing address nothing refers to, no patient, dentist or
+ * surgery, is reused instead of being created again; one a dentist or surgery uses is never shared.
+ */
+@Service
+public class PatientImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    // Column length of the imported fields
+    private static final int MAX_LENGTH = 255;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private PatientSearchIndex patientSearchIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${patient-import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${patient-import.max-rejected-rows:1000}")
+    private int maxRejectedRows;
+
+    private TransactionTemplate chunkTransaction;
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // A parsed row and the line it started on; row is null when the line could not be parsed
+    private record Line(long number, PatientImportRow row, String error) {
+    }
+
+    private interface LineSource {
+        Line next() throws IOException;
+    }
+
+    // What one chunk's transaction did; merged into the run only once it has committed
+    private record ChunkResult(List<Patient> saved, List<Line> duplicates, long addressesCreated,
+                               long addressesReused) {
+    }
+
+    // Running totals of one import
+    private final class Run {
+        final List<BulkImportReport.Rejected> rejectedRows = new ArrayList<>();
+        long rowsRead;
+        long imported;
+        long rejected;
+        int chunks;
+        long addressesCreated;
+        long addressesReused;
+
+        void reject(Line line, String reason) {
+            rejected++;
+            if (rejectedRows.size() < maxRejectedRows) {
+                rejectedRows.add(new BulkImportReport.Rejected(line.number(),
+                        line.row() == null ? null : line.row().patNo(), reason));
+            }
+        }
+    }
+
+    /**
+     * Imports every row of {@code body}. {@code progress} is called after each chunk commits.
+     *
+     * @throws IllegalArgumentException if the CSV header lacks a required column; nothing has been
+     *                                  written then
+     */
+    public BulkImportReport importPatients(Reader body, Format format, Consumer<BulkImportReport.Progress> progress)
+            throws IOException {
+        long started = System.nanoTime();
+        BufferedReader reader = new BufferedReader(body, 64 * 1024);
+        LineSource source = format == Format.CSV ? csv(reader) : ndjson(reader);
+
+        Run run = new Run();
+        String failure = null;
+        List<Line> chunk = new ArrayList<>(chunkSize);
+        try {
+            for (Line line = source.next(); line != null; line = source.next()) {
+                run.rowsRead++;
+                String problem = line.error() != null ? line.error() : validate(line.row());
+                if (problem != null) {
+                    run.reject(line, problem);
+                } else {
+                    chunk.add(line);
+                }
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, run, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, run, progress);
+            }
+        } catch (IllegalArgumentException e) {
+            if (run.rowsRead == 0) throw e;
+            // The CSV became unreadable part way through
+            failure = e.getMessage();
+        } catch (RuntimeException e) {
+            System.err.println("Patient import stopped after " + run.chunks + " chunk(s): " + e);
+            failure = "Import stopped after " + run.imported + " imported row(s): " + e.getMessage();
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        System.out.println("Patient import: " + run.imported + " imported, " + run.rejected + " rejected of " +
+                run.rowsRead + " row(s) in " + elapsedMillis + " ms");
+        return new BulkImportReport(run.rowsRead, run.imported, run.rejected, run.chunks,
+                run.addressesCreated, run.addressesReused, elapsedMillis, run.rejectedRows,
+                run.rejected > run.rejectedRows.size(), failure);
+    }
+
+    private void writeChunk(List<Line> chunk, Run run, Consumer<BulkImportReport.Progress> progress) {
+        ChunkResult result = chunkTransaction.execute(status -> {
+            Set<String> patNos = new HashSet<>();
+            Set<String> zipCodes = new HashSet<>();
+            for (Line line : chunk) {
+                patNos.add(line.row().patNo().trim());
+                if (hasAddress(line.row())) zipCodes.add(line.row().zipCode().trim());
+            }
+            Set<String> existing = new HashSet<>(patientRepository.findPatNosIn(patNos));
+
+            // Unreferenced addresses by street, city and zip code
+            Map<String, Deque<Address>> reusable = new HashMap<>();
+            if (!zipCodes.isEmpty()) {
+                for (Address address : addressRepository.findUnreferencedByZipCodeIn(zipCodes)) {
+                    reusable.computeIfAbsent(addressKey(address.getStreet(), address.getCity(), address.getZipCode()),
+                            k -> new ArrayDeque<>()).add(address);
+                }
+            }
+
+            List<Patient> patients = new ArrayList<>(chunk.size());
+            List<Line> duplicates = new ArrayList<>();
+            long addressesCreated = 0;
+            long addressesReused = 0;
+            for (Line line : chunk) {
+                PatientImportRow row = line.row();
+                String patNo = row.patNo().trim();
+                if (!existing.add(patNo)) {
+                    duplicates.add(line);
+                    continue;
+                }
+                Patient patient = new Patient();
+                patient.setPatNo(patNo);
+                patient.setName(row.name().trim());
+                if (hasAddress(row)) {
+                    Deque<Address> matches = reusable.get(addressKey(row.street(), row.city(), row.zipCode()));
+                    Address address = matches == null ? null : matches.poll();
+                    if (address != null) {
+                        addressesReused++;
+                    } else {
+                        address = new Address();
+                        address.setStreet(row.street().trim());
+                        address.setCity(row.city().trim());
+                        address.setZipCode(row.zipCode().trim());
+                        addressRepository.save(address);
+                        addressesCreated++;
+                    }
+                    patient.setAddress(address);
+                }
+                patients.add(patientRepository.save(patient));
+            }
+            return new ChunkResult(patients, duplicates, addressesCreated, addressesReused);
+        });
+
+        for (Line line : result.duplicates()) {
+            run.reject(line, "patNo " + line.row().patNo().trim() + " already exists");
+        }
+        run.addressesCreated += result.addressesCreated();
+        run.addressesReused += result.addressesReused();
+        result.saved().forEach(patientSearchIndex::put);
+        run.imported += result.saved().size();
+        run.chunks++;
+        progress.accept(new BulkImportReport.Progress(run.chunks, run.rowsRead, run.imported, run.rejected));
+    }
+
+    private static String validate(PatientImportRow row) {
+        if (isBlank(row.patNo())) return "patNo is required";
+        if (isBlank(row.name())) return "name is required";
+        boolean anyAddress = !isBlank(row.street()) || !isBlank(row.city()) || !isBlank(row.zipCode());
+        if (anyAddress && !hasAddress(row)) return "street, city and zipCode must be given together";
+        for (String value : new String[]{row.patNo(), row.name(), row.street(), row.city(), row.zipCode()}) {
+            if (value != null && value.trim().length() > MAX_LENGTH) {
+                return "fields are limited to " + MAX_LENGTH + " characters";
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasAddress(PatientImportRow row) {
+        return !isBlank(row.street()) && !isBlank(row.city()) && !isBlank(row.zipCode());
+    }
+
+    // Case and spacing differences do not make a different address
+    private static String addressKey(String street, String city, String zipCode) {
+        return normalize(street) + '\n' + normalize(city) + '\n' + normalize(zipCode);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Records under a header row naming the columns, in any order and case; "zip" and snake_case
+     * names are accepted too. Blank lines are skipped.
+     */
+    private LineSource csv(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("The CSV is empty; expected a header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "");
+            columns.putIfAbsent(name.equals("zip") ? "zipcode" : name, i);
+        }
+        if (!columns.containsKey("patno") || !columns.containsKey("name")) {
+            throw new IllegalArgumentException("The CSV header must name the patNo and name columns; found " + header);
+        }
+        return () -> {
+            for (List<String> fields = csv.next(); fields != null; fields = csv.next()) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) continue;
+                PatientImportRow row = new PatientImportRow(field(fields, columns, "patno"), field(fields, columns, "name"),
+                        field(fields, columns, "street"), field(fields, columns, "city"), field(fields, columns, "zipcode"));
+                return new Line(csv.getRecordLine(), row, null);
+            }
+            return null;
+        };
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    /**
+     * One JSON object per line with the {@link PatientImportRow} fields. Blank lines are skipped; a
+     * line that is not such an object is rejected on its own.
+     */
+    private LineSource ndjson(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+                lineNumber[0]++;
+                if (text.isBlank()) continue;
+                try {
+                    PatientImportRow row = objectMapper.readValue(text, PatientImportRow.class);
+                    return row == null
+                            ? new Line(lineNumber[0], null, "not a JSON object")
+                            : new Line(lineNumber[0], row, null);
+                } catch (JsonProcessingException e) {
+                    return new Line(lineNumber[0], null, "not a JSON object: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+}
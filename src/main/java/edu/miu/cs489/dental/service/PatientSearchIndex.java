@@ -0,0 +1,388 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.configuration.DataVersions;
+import edu.miu.cs489.dental.dto.AddressSimpleDto;
+import edu.miu.cs489.dental.dto.PatientWithAddressDto;
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.repository.PatientRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory trigram inverted index over patient name, patNo, street, city and zip code.
+ * Substring queries of three or more characters are answered by intersecting posting lists
+ * instead of a leading-wildcard LIKE scan.
+ * <p>
+ * Posting lists are sorted {@code long[]} arrays, built in bulk. Patients written since are kept in a
+ * small delta, folded into the arrays in the background once it holds {@code patient-search.max-delta}
+ * postings, or a quarter as many as the arrays if that is more. Postings are never removed in place:
+ * every candidate is checked against the patient's current fields, so a stale posting costs a
+ * lookup, not a wrong result.
+ * <p>
+ * Each node has its own index, kept current by {@link PatientService} and the bulk import on that
+ * node. Writes made on another replica are picked up by reloading the whole index from the database,
+ * at most every {@code patient-search.refresh-ms} and only after {@link DataVersions} reports such a
+ * write; until then this node's search may miss those patients or match their old fields. Results
+ * are always loaded from the database, so a patient is never shown with stale data.
+ */
+@Component
+public class PatientSearchIndex {
+
+    private static final int GRAM = 3;
+
+    // Joins a patient's indexed fields into one string; cannot occur in normalized text input
+    private static final char SEPARATOR = '\u001f';
+    private static final String REMOVED = "";
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Value("${patient-search.max-delta:200000}")
+    private int maxDelta;
+
+    @Value("${patient-search.refresh-ms:300000}")
+    private long refreshMillis;
+
+    private TransactionTemplate readTransaction;
+
+    /**
+     * One consistent view, replaced as a whole by a rebuild. {@code delta} and {@code documents}
+     * change in place between rebuilds, under this object's lock.
+     *
+     * @param postings  trigram -> sorted ids of the patients having it in an indexed field, as of the build
+     * @param size      number of ids in {@code postings}
+     * @param delta     trigram -> ids of patients written since the build
+     * @param documents id -> the patient's current lower-cased fields, joined by {@link #SEPARATOR}
+     */
+    private record State(Map<String, long[]> postings, long size, Map<String, Set<Long>> delta,
+                         Map<Long, String> documents) {
+    }
+
+    private volatile State state = new State(Map.of(), 0, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    private int deltaSize;
+    // Writes made while a rebuild reads its snapshot, replayed onto the result; null when none runs
+    private Map<Long, String> writesDuringRebuild;
+
+    private volatile boolean ready = false;
+    private final AtomicBoolean remoteChanges = new AtomicBoolean();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+
+    private final ScheduledExecutorService background = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "patient-search-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private record Hit(long id, int score, String name) {
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        dataVersions.onRemoteChange(aggregate -> {
+            if (DataVersions.PATIENTS.equals(aggregate) || DataVersions.ADDRESSES.equals(aggregate)) {
+                remoteChanges.set(true);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+        background.scheduleWithFixedDelay(() -> {
+            if (remoteChanges.getAndSet(false)) {
+                rebuild();
+            }
+        }, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        background.shutdownNow();
+    }
+
+    /**
+     * Reloads every patient from the database and replaces the index with the result.
+     */
+    public void rebuild() {
+        if (replace(this::loadDocuments)) {
+            ready = true;
+            System.out.println("Patient search index built with " + state.documents().size() + " patient(s).");
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized void put(Patient patient) {
+        if (patient == null || patient.getId() == null) return;
+        Address a = patient.getAddress();
+        String doc = document(patient.getName(), patient.getPatNo(),
+                a == null ? null : a.getStreet(), a == null ? null : a.getCity(), a == null ? null : a.getZipCode());
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.put(patient.getId(), doc);
+        }
+        State current = state;
+        if (doc.equals(current.documents().put(patient.getId(), doc))) return;
+        for (String gram : documentTrigrams(doc)) {
+            if (current.delta().computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(patient.getId())) {
+                deltaSize++;
+            }
+        }
+        // Relative to the built size too, so a large import is not folded in over and over
+        if (deltaSize > Math.max(maxDelta, current.size() / 4) && compactionQueued.compareAndSet(false, true)) {
+            background.execute(() -> {
+                compactionQueued.set(false);
+                compact();
+            });
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        // Its postings stay until the next rebuild; candidates without a document are skipped
+        state.documents().remove(id);
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.put(id, REMOVED);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} patient ids whose indexed fields contain {@code query},
+     * best matches first. Queries shorter than three characters are not supported here.
+     */
+    public List<Long> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.length() < GRAM) {
+            throw new IllegalArgumentException("Index search needs at least " + GRAM + " characters");
+        }
+
+        State current = state;
+        List<Posting> lists = new ArrayList<>();
+        for (String gram : trigramsOf(q)) {
+            long[] built = current.postings().getOrDefault(gram, EMPTY);
+            Set<Long> added = current.delta().getOrDefault(gram, Set.of());
+            if (built.length == 0 && added.isEmpty()) return Collections.emptyList();
+            lists.add(new Posting(built, added));
+        }
+        lists.sort(Comparator.comparingInt(Posting::size));
+
+        List<Hit> hits = new ArrayList<>();
+        Posting rarest = lists.get(0);
+        for (long id : rarest.built()) {
+            collect(id, lists, current, q, hits);
+        }
+        for (Long id : rarest.added()) {
+            // Already seen above when it was in the built list too
+            if (Arrays.binarySearch(rarest.built(), id) < 0) {
+                collect(id, lists, current, q, hits);
+            }
+        }
+
+        hits.sort(Comparator.comparingInt(Hit::score).reversed()
+                .thenComparing(Hit::name)
+                .thenComparingLong(Hit::id));
+        return hits.stream().limit(limit).map(Hit::id).toList();
+    }
+
+    private static final long[] EMPTY = new long[0];
+
+    private record Posting(long[] built, Set<Long> added) {
+        int size() {
+            return built.length + added.size();
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(built, id) >= 0 || added.contains(id);
+        }
+    }
+
+    private void collect(long id, List<Posting> lists, State current, String q, List<Hit> hits) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) return;
+        }
+        // Trigram intersection can yield false positives, and postings can be stale; confirm the real substring
+        String doc = current.documents().get(id);
+        if (doc == null) return;
+        String[] fields = fieldsOf(doc);
+        int score = score(fields, q);
+        if (score > 0) {
+            hits.add(new Hit(id, score, fields[0]));
+        }
+    }
+
+    // Folds the delta into the posting arrays, from the documents already in memory
+    private void compact() {
+        replace(() -> new HashMap<>(state.documents()));
+    }
+
+    /**
+     * Builds posting arrays from the documents {@code snapshot} returns and installs them. Writes
+     * made meanwhile are recorded and replayed onto the result, so none is lost. One at a time;
+     * returns false if another was running or this one failed.
+     */
+    private boolean replace(Supplier<Map<Long, String>> snapshot) {
+        if (!rebuilding.compareAndSet(false, true)) return false;
+        try {
+            synchronized (this) {
+                writesDuringRebuild = new HashMap<>();
+            }
+            Map<Long, String> documents = snapshot.get();
+            Map<String, long[]> postings = build(documents);
+            long size = postings.values().stream().mapToLong(ids -> ids.length).sum();
+            synchronized (this) {
+                Map<String, Set<Long>> delta = new ConcurrentHashMap<>();
+                deltaSize = 0;
+                writesDuringRebuild.forEach((id, doc) -> {
+                    if (doc.equals(REMOVED)) {
+                        documents.remove(id);
+                        return;
+                    }
+                    documents.put(id, doc);
+                    for (String gram : documentTrigrams(doc)) {
+                        delta.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+                        deltaSize++;
+                    }
+                });
+                writesDuringRebuild = null;
+                state = new State(postings, size, delta, new ConcurrentHashMap<>(documents));
+            }
+            return true;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                writesDuringRebuild = null;
+            }
+            System.err.println("Patient search index rebuild failed, keeping the previous one: " + e.getMessage());
+            return false;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private Map<Long, String> loadDocuments() {
+        return readTransaction.execute(status -> {
+            Map<Long, String> documents = new HashMap<>();
+            try (Stream<PatientWithAddressDto> rows = patientRepository.streamAllDtosOrderByLastName()) {
+                rows.forEach(p -> {
+                    AddressSimpleDto a = p.address();
+                    documents.put(p.id(), document(p.name(), p.patNo(),
+                            a == null ? null : a.street(), a == null ? null : a.city(), a == null ? null : a.zipCode()));
+                });
+            }
+            return documents;
+        });
+    }
+
+    // Ids are visited in ascending order, so every posting array comes out sorted without a sort
+    private static Map<String, long[]> build(Map<Long, String> documents) {
+        long[] ids = documents.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        Map<String, LongArrayBuilder> builders = new HashMap<>();
+        for (long id : ids) {
+            for (String gram : documentTrigrams(documents.get(id))) {
+                builders.computeIfAbsent(gram, g -> new LongArrayBuilder()).add(id);
+            }
+        }
+        Map<String, long[]> postings = new HashMap<>(builders.size() * 4 / 3 + 1);
+        builders.forEach((gram, builder) -> postings.put(gram, builder.toArray()));
+        return postings;
+    }
+
+    private static final class LongArrayBuilder {
+        private long[] values = new long[4];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private int score(String[] fields, String q) {
+        int score = 0;
+        score = Math.max(score, fieldScore(fields[1], q, 100)); // patNo
+        score = Math.max(score, fieldScore(fields[0], q, 90)); // name
+        score = Math.max(score, fieldScore(fields[4], q, 60)); // zip code
+        score = Math.max(score, fieldScore(fields[3], q, 50)); // city
+        score = Math.max(score, fieldScore(fields[2], q, 40)); // street
+        return score;
+    }
+
+    // Exact field match beats prefix/word-start match, which beats a match inside a word
+    private int fieldScore(String field, String q, int weight) {
+        int at = field.indexOf(q);
+        if (at < 0) return 0;
+        if (field.length() == q.length()) return weight * 3;
+        if (at == 0 || field.charAt(at - 1) == ' ') return weight * 2;
+        return weight;
+    }
+
+    private static String document(String name, String patNo, String street, String city, String zipCode) {
+        return normalize(name) + SEPARATOR + normalize(patNo) + SEPARATOR + normalize(street) + SEPARATOR +
+                normalize(city) + SEPARATOR + normalize(zipCode);
+    }
+
+    // name, patNo, street, city, zip code
+    private static String[] fieldsOf(String document) {
+        return document.split(String.valueOf(SEPARATOR), -1);
+    }
+
+    private static Set<String> documentTrigrams(String document) {
+        Set<String> grams = new HashSet<>();
+        for (String field : fieldsOf(document)) {
+            grams.addAll(trigramsOf(field));
+        }
+        return grams;
+    }
+
+    private static Set<String> trigramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase();
+    }
+}
@@ -1,33 +1,121 @@
 package edu.miu.cs489.dental.service;
 
+import edu.miu.cs489.dental.dto.CursorPage;
+import edu.miu.cs489.dental.dto.PatientWithAddressDto;
+import edu.miu.cs489.dental.model.Address;
 import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.repository.AddressRepository;
 import edu.miu.cs489.dental.repository.PatientRepository;
 import edu.miu.cs489.dental.exception.ResourceNotFoundException;
+import edu.miu.cs489.dental.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class PatientService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public static final int DEFAULT_SEARCH_LIMIT = 50;
+
     @Autowired
     private PatientRepository patientRepository;
 
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private PatientSearchIndex patientSearchIndex;
+
+    @Transactional(readOnly = true)
     public List<Patient> getAllPatients() {
-        List<Patient> patients = patientRepository.findAll();
-        return patients.stream()
-                .sorted(Comparator.comparing(p -> getLastName(p.getName()), Comparator.nullsLast(String::compareToIgnoreCase)))
-                .collect(Collectors.toList());
+        return patientRepository.findAllOrderByLastName();
+    }
+
+    /**
+     * Keyset page of patients ordered by last name, then id. Pass the previous page's
+     * {@code nextCursor} as {@code after} to continue; null starts from the beginning.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Patient> getPatientsPage(int limit, String after) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Fetch one extra row to learn whether another page exists
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Patient> rows;
+        if (after == null || after.isBlank()) {
+            rows = patientRepository.findFirstPageOrderByLastName(page);
+        } else {
+            CursorCodec.Cursor cursor = CursorCodec.decode(after);
+            rows = patientRepository.findPageAfterOrderByLastName(cursor.key(), cursor.id(), page);
+        }
+
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Patient> items = rows.subList(0, limit);
+        Patient last = items.get(limit - 1);
+        return new CursorPage<>(items, CursorCodec.encode(last.getLastNameKey(), last.getId()));
     }
 
-    private String getLastName(String fullName) {
-        if (fullName == null) return "";
-        String[] parts = fullName.trim().split("\\s+");
-        return parts.length == 0 ? "" : parts[parts.length - 1];
+    @Transactional(readOnly = true)
+    public List<PatientWithAddressDto> getAllPatientDtos() {
+        return patientRepository.findAllDtosOrderByLastName();
+    }
+
+    /**
+     * Same page as {@link #getPatientsPage}, read straight into DTOs without loading entities.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PatientWithAddressDto> getPatientDtosPage(int limit, String after) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<PatientWithAddressDto> rows;
+        if (after == null || after.isBlank()) {
+            rows = patientRepository.findFirstDtoPageOrderByLastName(page);
+        } else {
+            CursorCodec.Cursor cursor = CursorCodec.decode(after);
+            rows = patientRepository.findDtoPageAfterOrderByLastName(cursor.key(), cursor.id(), page);
+        }
+
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<PatientWithAddressDto> items = rows.subList(0, limit);
+        PatientWithAddressDto last = items.get(limit - 1);
+        // The sort key is always derived from the name, so the DTO does not need to carry it
+        return new CursorPage<>(items, CursorCodec.encode(Patient.lastNameKeyOf(last.name()), last.id()));
+    }
+
+    /**
+     * Fills the sort key for rows written before the column existed.
+     */
+    @Transactional
+    public int backfillLastNameKeys() {
+        List<Patient> missing = patientRepository.findByLastNameKeyIsNull();
+        missing.forEach(p -> p.setLastNameKey(Patient.lastNameKeyOf(p.getName())));
+        patientRepository.saveAll(missing);
+        return missing.size();
+    }
+
+    private void indexPatient(Patient patient) {
+        // A request body may reference the address by id only; index the stored address fields
+        Address address = patient.getAddress();
+        if (address != null && address.getId() != null && address.getStreet() == null) {
+            addressRepository.findById(address.getId()).ifPresent(patient::setAddress);
+        }
+        patientSearchIndex.put(patient);
     }
 
     public Optional<Patient> getPatientById(Long id) {
@@ -35,7 +123,9 @@ public class PatientService {
     }
 
     public Patient createPatient(Patient patient) {
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        indexPatient(saved);
+        return saved;
     }
 
     public Patient updatePatient(Long id, Patient patientDetails) {
@@ -44,7 +134,9 @@ public class PatientService {
         patient.setPatNo(patientDetails.getPatNo());
         patient.setName(patientDetails.getName());
         patient.setAddress(patientDetails.getAddress());
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        indexPatient(saved);
+        return saved;
     }
 
     public void deletePatient(Long id) {
@@ -52,9 +144,42 @@ public class PatientService {
             throw new ResourceNotFoundException("Patient not found with id: " + id);
         }
         patientRepository.deleteById(id);
+        patientSearchIndex.remove(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Patient> searchPatients(String s) {
-        return patientRepository.search(s);
+        return searchPatients(s, DEFAULT_SEARCH_LIMIT);
+    }
+
+    /**
+     * Substring search over name, patNo, street, city and zip code, best matches first.
+     * Uses the trigram index once it is built; one- and two-character queries, which the
+     * index cannot serve, fall back to the database scan.
+     */
+    @Transactional(readOnly = true)
+    public List<Patient> searchPatients(String s, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (s == null || s.trim().length() < 3 || !patientSearchIndex.isReady()) {
+            List<Patient> results = patientRepository.search(s == null ? "" : s.trim());
+            return results.size() > limit ? results.subList(0, limit) : results;
+        }
+
+        List<Long> ids = patientSearchIndex.search(s, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Patient> byId = new HashMap<>();
+        for (Patient p : patientRepository.findAllWithAddressByIdIn(ids)) {
+            byId.put(p.getId(), p);
+        }
+        List<Patient> ranked = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Patient p = byId.get(id);
+            if (p != null) ranked.add(p);
+        }
+        return ranked;
     }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package edu.miu.cs489.dental.service;
 
+import edu.miu.cs489.dental.dto.SurgeryDto;
 import edu.miu.cs489.dental.model.Surgery;
 import edu.miu.cs489.dental.repository.SurgeryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,8 +16,9 @@ public class SurgeryService {
     @Autowired
     private SurgeryRepository surgeryRepository;
 
-    public List<Surgery> getAllSurgeries() {
-        return surgeryRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<SurgeryDto> getAllSurgeries() {
+        return surgeryRepository.findAllDtos();
     }
 
     public Optional<Surgery> getSurgeryById(Long id) {
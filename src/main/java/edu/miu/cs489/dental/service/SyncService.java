@@ -0,0 +1,169 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.configuration.IdSequences;
+import edu.miu.cs489.dental.dto.AppointmentFilter;
+import edu.miu.cs489.dental.dto.SyncDto;
+import edu.miu.cs489.dental.repository.AddressRepository;
+import edu.miu.cs489.dental.repository.AppointmentRepository;
+import edu.miu.cs489.dental.repository.DentistRepository;
+import edu.miu.cs489.dental.repository.PatientRepository;
+import edu.miu.cs489.dental.repository.SurgeryRepository;
+import edu.miu.cs489.dental.repository.TombstoneRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delta reads for clients that keep a local copy. Rows are selected by the change sequence number
+ * stamped on them at commit (see {@link ChangeStampListener}) and deletions by their tombstones. A
+ * token carries the last number the previous sync had seen. Numbers follow commit order, so no row
+ * committed before a sync is skipped by the next one, however long its transaction ran or whichever
+ * node's clock stamped it; no overlap has to be re-read.
+ */
+@Service
+public class SyncService {
+
+    private static final String TOKEN_PREFIX = "v2:";
+
+    // Tokens from before change numbers, which timestamps cannot be mapped onto
+    private static final String LEGACY_TOKEN_PREFIX = "v1:";
+
+    private record Token(long changeSeq, Instant issuedAt) {
+    }
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DentistRepository dentistRepository;
+
+    @Autowired
+    private SurgeryRepository surgeryRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${sync.tombstone-retention-days:30}")
+    private int retentionDays;
+
+    private final ScheduledExecutorService purger = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "tombstone-purger");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        purger.scheduleWithFixedDelay(this::purgeTombstones, 1, 24, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+
+    /**
+     * Everything that changed since {@code token}, or every row when the token is null, predates
+     * change numbers, or is older than the tombstones are kept.
+     *
+     * @throws IllegalArgumentException if the token was not issued by this service
+     */
+    @Transactional(readOnly = true)
+    public SyncDto changesSince(String token) {
+        // Read before the rows: every change numbered up to here has committed, so the reads below
+        // include all of them (and perhaps some later ones, which clients apply twice harmlessly)
+        long seen = lastChangeSeq();
+        Instant now = Instant.now();
+        String next = encode(new Token(seen, now));
+        Token since = token == null ? null : decode(token);
+
+        // Only the retention check uses the clock, at a granularity of days
+        if (since == null || since.issuedAt().isBefore(now.minus(retentionDays, ChronoUnit.DAYS))) {
+            return new SyncDto(next, true,
+                    patientRepository.findAllDtosOrderByLastName(),
+                    dentistRepository.findAllDtos(),
+                    surgeryRepository.findAllDtos(),
+                    addressRepository.findAllDtosOrderByCity(),
+                    appointmentRepository.findFilteredDtos(new AppointmentFilter(null, null, null, null, null), null, null, 0),
+                    List.of());
+        }
+
+        long from = since.changeSeq();
+        List<SyncDto.Deleted> deleted = tombstoneRepository.findByChangeSeqGreaterThanOrderByChangeSeq(from).stream()
+                .map(t -> new SyncDto.Deleted(t.getAggregate(), t.getEntityId()))
+                .toList();
+        return new SyncDto(next, false,
+                patientRepository.findDtosChangedAfter(from),
+                dentistRepository.findDtosChangedAfter(from),
+                surgeryRepository.findDtosChangedAfter(from),
+                addressRepository.findDtosChangedAfter(from),
+                appointmentRepository.findDtosChangedAfter(from),
+                deleted);
+    }
+
+    private long lastChangeSeq() {
+        Long seq = jdbcTemplate.queryForObject("SELECT " + IdSequences.VALUE_COLUMN + " FROM " + IdSequences.TABLE +
+                " WHERE " + IdSequences.NAME_COLUMN + " = ?", Long.class, IdSequences.SYNC_CHANGE);
+        return seq == null ? 0 : seq;
+    }
+
+    void purgeTombstones() {
+        try {
+            int purged = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+            if (purged > 0) {
+                System.out.println("Purged " + purged + " tombstones older than " + retentionDays + " days");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Tombstone purge failed: " + e.getMessage());
+        }
+    }
+
+    private static String encode(Token token) {
+        byte[] raw = (TOKEN_PREFIX + token.changeSeq() + ":" + token.issuedAt().toEpochMilli()).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    // Null for a legacy token, so its holder gets a full sync
+    private static Token decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (raw.startsWith(LEGACY_TOKEN_PREFIX)) {
+                return null;
+            }
+            if (!raw.startsWith(TOKEN_PREFIX)) {
+                throw new IllegalArgumentException("Invalid sync token: " + token);
+            }
+            String[] parts = raw.substring(TOKEN_PREFIX.length()).split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid sync token: " + token);
+            }
+            return new Token(Long.parseLong(parts[0]), Instant.ofEpochMilli(Long.parseLong(parts[1])));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + token, e);
+        }
+    }
+}
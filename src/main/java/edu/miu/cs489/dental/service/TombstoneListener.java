@@ -0,0 +1,66 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.configuration.DataVersions;
+import edu.miu.cs489.dental.model.Tombstone;
+import edu.miu.cs489.dental.repository.TombstoneRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PreRemove;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JPA entity listener that leaves a {@link Tombstone} for every deleted row. The tombstones are
+ * written just before the deleting transaction commits, in it, so they vanish with a rollback.
+ */
+@Component
+public class TombstoneListener {
+
+    @Autowired
+    @Lazy
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    @Lazy
+    private EntityManagerFactory entityManagerFactory;
+
+    @PreRemove
+    public void onRemove(Object entity) {
+        String aggregate = DataVersions.aggregateOf(entity);
+        if (aggregate == null) return;
+
+        Tombstone tombstone = new Tombstone();
+        tombstone.setAggregate(aggregate);
+        tombstone.setEntityId((Long) entityManagerFactory.getPersistenceUnitUtil().getIdentifier(entity));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tombstoneRepository.save(tombstone);
+            return;
+        }
+        // Callbacks must not use the entity manager themselves, so the write waits for beforeCommit
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingTombstones pending) {
+                pending.tombstones.add(tombstone);
+                return;
+            }
+        }
+        PendingTombstones pending = new PendingTombstones();
+        pending.tombstones.add(tombstone);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    private class PendingTombstones implements TransactionSynchronization {
+
+        private final List<Tombstone> tombstones = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            tombstoneRepository.saveAll(tombstones);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package edu.miu.cs489.dental.util;
+
+import java.text.ParsePosition;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Parses the date/time formats accepted in chat messages. Formatters are built once, and a format
+ * that does not fit is rejected by a parse position check instead of a thrown exception.
+ */
+public final class ChatDateTimeParser {
+
+    private static final List<DateTimeFormatter> FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"),
+            DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm"),
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
+
+    private ChatDateTimeParser() {
+    }
+
+    /**
+     * Returns the date/time in the first format that fits, or null when none does.
+     */
+    public static LocalDateTime parse(String text) {
+        if (text == null) return null;
+        for (DateTimeFormatter format : FORMATS) {
+            LocalDateTime parsed = tryParse(text, format);
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        return null;
+    }
+
+    private static LocalDateTime tryParse(String text, DateTimeFormatter format) {
+        ParsePosition position = new ParsePosition(0);
+        format.parseUnresolved(text, position);
+        if (position.getErrorIndex() >= 0 || position.getIndex() != text.length()) {
+            return null;
+        }
+        try {
+            // Syntax fits; resolving can still fail, e.g. month 13 in MM/dd/yyyy
+            return LocalDateTime.parse(text, format);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
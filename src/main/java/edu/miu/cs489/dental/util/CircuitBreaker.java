@@ -0,0 +1,76 @@
+package edu.miu.cs489.dental.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Minimal consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row the
+ * circuit opens and rejects calls for {@code openMillis}; then a single trial call is let through
+ * (half-open) and its outcome closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * True if a call would currently be let through; does not claim the half-open trial.
+     */
+    public boolean isCallPermitted() {
+        State s = state.get();
+        if (s == State.CLOSED) return true;
+        if (s == State.OPEN) return System.currentTimeMillis() - openedAt.get() >= openMillis;
+        return false;
+    }
+
+    /**
+     * Claims permission for one call. When the open period is over, only the first caller gets the trial.
+     */
+    public boolean tryAcquire() {
+        State s = state.get();
+        if (s == State.CLOSED) return true;
+        if (s == State.OPEN && System.currentTimeMillis() - openedAt.get() >= openMillis) {
+            return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        state.set(State.CLOSED);
+    }
+
+    public void recordFailure() {
+        if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.set(System.currentTimeMillis());
+            state.set(State.OPEN);
+        }
+    }
+
+    /**
+     * The permitted call ended without learning anything about the remote side, e.g. it never left
+     * the local queue. Counts neither way; a half-open trial is handed to the next caller.
+     */
+    public void recordInconclusive() {
+        if (state.get() == State.HALF_OPEN) {
+            openedAt.set(System.currentTimeMillis() - openMillis);
+            state.compareAndSet(State.HALF_OPEN, State.OPEN);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+}
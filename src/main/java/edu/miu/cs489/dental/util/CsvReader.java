@@ -0,0 +1,93 @@
+package edu.miu.cs489.dental.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time from a stream: fields separated by commas, optionally
+ * quoted, with "" for a quote inside quotes and line breaks allowed in quoted fields. Lines may end
+ * in LF or CRLF. Only the current record is held in memory.
+ */
+public class CsvReader {
+
+    private final Reader in;
+    private final StringBuilder field = new StringBuilder();
+    private int line = 1;
+    private int recordLine;
+
+    /**
+     * @param in read in large blocks by the caller's buffering (e.g. a BufferedReader); this reads
+     *           one character at a time
+     */
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * The next record's fields, or null at the end of the input. A blank line is a record with one
+     * empty field.
+     *
+     * @throws IllegalArgumentException if a quoted field is not closed before the input ends
+     */
+    public List<String> next() throws IOException {
+        int c = in.read();
+        if (c == -1) return null;
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int after = in.read();
+                    if (after == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = after;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\n' || c == -1) {
+                if (c == '\n') line++;
+                fields.add(withoutTrailingCarriageReturn());
+                return fields;
+            } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+    }
+
+    /**
+     * The line the record last returned by {@link #next} started on, counting from 1.
+     */
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    // The CR of a CRLF ending, which for a quoted field comes after the closing quote
+    private String withoutTrailingCarriageReturn() {
+        int length = field.length();
+        if (length > 0 && field.charAt(length - 1) == '\r') {
+            field.setLength(length - 1);
+        }
+        return field.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package edu.miu.cs489.dental.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset-pagination cursors: the sort key of the last row plus its id, base64url encoded.
+ */
+public final class CursorCodec {
+
+    public record Cursor(String key, Long id) {
+    }
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String key, Long id) {
+        String raw = key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode}
+     */
+    public static Cursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = decoded.lastIndexOf(':');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new Cursor(decoded.substring(0, sep), Long.valueOf(decoded.substring(sep + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package edu.miu.cs489.dental.util;
+
+/**
+ * Augmented AVL tree of half-open intervals {@code [start, end)}, each tagged with a unique id.
+ * Nodes are ordered by (start, id) and carry the maximum end of their subtree, so insert,
+ * remove and "find any overlapping interval" all run in O(log n). Not thread-safe.
+ */
+public class IntervalTree {
+
+    private static final class Node {
+        final long start;
+        final long end;
+        final long id;
+        long maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(long start, long end, long id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(long start, long end, long id) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Interval end must be after start");
+        }
+        root = insert(root, new Node(start, end, id));
+        size++;
+    }
+
+    /**
+     * Removes the interval with the given start and id; returns false if it was not present.
+     */
+    public boolean remove(long start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    /**
+     * Returns the id of some interval overlapping {@code [start, end)}, ignoring {@code excludeId},
+     * or null when the range is free.
+     */
+    public Long findOverlap(long start, long end, Long excludeId) {
+        return findOverlap(root, start, end, excludeId);
+    }
+
+    private Long findOverlap(Node node, long start, long end, Long excludeId) {
+        if (node == null || node.maxEnd <= start) {
+            return null;
+        }
+        Long found = findOverlap(node.left, start, end, excludeId);
+        if (found != null) {
+            return found;
+        }
+        if (node.start < end && start < node.end && (excludeId == null || node.id != excludeId)) {
+            return node.id;
+        }
+        // Everything to the right starts at or after node.start; nothing there can overlap
+        if (node.start >= end) {
+            return null;
+        }
+        return findOverlap(node.right, start, end, excludeId);
+    }
+
+    private static int compare(long startA, long idA, Node b) {
+        int c = Long.compare(startA, b.start);
+        return c != 0 ? c : Long.compare(idA, b.id);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    private Node remove(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(start, id, node);
+        if (c < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (c > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) return node.right;
+            if (node.right == null) return node.left;
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node replacement = new Node(successor.start, successor.end, successor.id);
+            replacement.right = removeMin(node.right);
+            replacement.left = node.left;
+            return rebalance(replacement);
+        }
+        return rebalance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static void update(Node n) {
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+        long max = n.end;
+        if (n.left != null) max = Math.max(max, n.left.maxEnd);
+        if (n.right != null) max = Math.max(max, n.right.maxEnd);
+        n.maxEnd = max;
+    }
+
+    private static Node rotateRight(Node n) {
+        Node l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private static Node rotateLeft(Node n) {
+        Node r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+
+    private static Node rebalance(Node n) {
+        update(n);
+        int balance = height(n.left) - height(n.right);
+        if (balance > 1) {
+            if (height(n.left.left) < height(n.left.right)) {
+                n.left = rotateLeft(n.left);
+            }
+            return rotateRight(n);
+        }
+        if (balance < -1) {
+            if (height(n.right.right) < height(n.right.left)) {
+                n.right = rotateRight(n.right);
+            }
+            return rotateLeft(n);
+        }
+        return n;
+    }
+}
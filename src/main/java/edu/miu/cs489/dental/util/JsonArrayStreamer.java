@@ -0,0 +1,56 @@
+package edu.miu.cs489.dental.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.cs489.dental.dto.CursorPage;
+import edu.miu.cs489.dental.monitoring.RequestEndpoint;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.function.Function;
+
+/**
+ * Writes a JSON array one keyset page at a time, flushing each page before the next is read, so a
+ * response never holds more than a page regardless of how many rows it carries.
+ */
+public final class JsonArrayStreamer {
+
+    // Rows read per page; no larger than any service's MAX_PAGE_SIZE
+    public static final int PAGE_SIZE = 500;
+
+    private JsonArrayStreamer() {
+    }
+
+    /**
+     * @param pages returns the page after the given cursor (null for the first page), typically from
+     *              a service method with its own read-only transaction. No connection or transaction
+     *              is then held while a page is written, however slowly the client reads it.
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> response(ObjectMapper objectMapper, Function<String, CursorPage<T>> pages) {
+        // The body runs on an MVC async thread; keep attributing its connection time to this endpoint
+        String endpoint = RequestEndpoint.get();
+        StreamingResponseBody body = out -> {
+            RequestEndpoint.set(endpoint);
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                // The servlet container owns the response stream
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.writeStartArray();
+                String cursor = null;
+                do {
+                    CursorPage<T> page = pages.apply(cursor);
+                    for (T row : page.items()) {
+                        json.writeObject(row);
+                    }
+                    // A client that went away fails here, before the next page is read
+                    json.flush();
+                    cursor = page.nextCursor();
+                } while (cursor != null);
+                json.writeEndArray();
+            } finally {
+                RequestEndpoint.clear();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
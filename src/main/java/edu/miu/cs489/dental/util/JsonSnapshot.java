@@ -0,0 +1,37 @@
+package edu.miu.cs489.dental.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+
+/**
+ * The serialized JSON of one response body, kept for as long as the tag it was built under is
+ * current, so repeat requests copy bytes instead of querying and serializing again.
+ */
+public final class JsonSnapshot {
+
+    private record Entry(String tag, byte[] json) {
+    }
+
+    private volatile Entry entry;
+
+    /**
+     * @param tag  identifies the data {@code body} returns; read it before calling so the body is
+     *             never older than the tag it is stored under
+     */
+    public byte[] get(String tag, ObjectMapper objectMapper, Supplier<?> body) {
+        Entry cached = entry;
+        if (cached != null && cached.tag().equals(tag)) {
+            return cached.json();
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body.get());
+            entry = new Entry(tag, json);
+            return json;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
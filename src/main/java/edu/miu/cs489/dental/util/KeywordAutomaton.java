@@ -0,0 +1,172 @@
+package edu.miu.cs489.dental.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over a fixed set of keywords, matched case-insensitively. The goto and
+ * failure functions are folded into one dense transition table at build time, so scanning a text
+ * is a single pass with one array lookup per character. Keywords have a priority given by the
+ * order they were added; immutable and thread-safe once built.
+ *
+ * @param <V> value attached to each keyword
+ */
+public final class KeywordAutomaton<V> {
+
+    /**
+     * A keyword occurrence; {@code start} is inclusive and {@code end} exclusive, both offsets into
+     * the scanned text.
+     */
+    public record Match<V>(String keyword, V value, int start, int end) {
+    }
+
+    private static final int NONE = Integer.MAX_VALUE;
+
+    private final String[] keywords;
+    private final List<V> values;
+    // Character -> alphabet class; characters outside every keyword map to class 0
+    private final int[] charClass;
+    private final int alphabetSize;
+    // transitions[state * alphabetSize + class] -> next state
+    private final int[] transitions;
+    // Highest-priority (lowest index) keyword ending in each state, following dictionary suffix links
+    private final int[] bestOutput;
+
+    private KeywordAutomaton(Map<String, V> entries) {
+        this.keywords = entries.keySet().toArray(new String[0]);
+        this.values = new ArrayList<>(entries.values());
+
+        char maxChar = 0;
+        for (String k : keywords) {
+            for (int i = 0; i < k.length(); i++) {
+                maxChar = (char) Math.max(maxChar, k.charAt(i));
+            }
+        }
+        charClass = new int[maxChar + 1];
+        int classes = 1;
+        for (String k : keywords) {
+            for (int i = 0; i < k.length(); i++) {
+                if (charClass[k.charAt(i)] == 0) {
+                    charClass[k.charAt(i)] = classes++;
+                }
+            }
+        }
+        alphabetSize = classes;
+
+        // Trie
+        List<int[]> gotoRows = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        gotoRows.add(newRow());
+        outputs.add(NONE);
+        for (int p = 0; p < keywords.length; p++) {
+            int state = 0;
+            String k = keywords[p];
+            for (int i = 0; i < k.length(); i++) {
+                int c = charClass[k.charAt(i)];
+                if (gotoRows.get(state)[c] < 0) {
+                    gotoRows.get(state)[c] = gotoRows.size();
+                    gotoRows.add(newRow());
+                    outputs.add(NONE);
+                }
+                state = gotoRows.get(state)[c];
+            }
+            outputs.set(state, Math.min(outputs.get(state), p));
+        }
+
+        // Breadth-first: fill missing transitions from the failure state and merge outputs
+        int states = gotoRows.size();
+        transitions = new int[states * alphabetSize];
+        bestOutput = new int[states];
+        int[] fail = new int[states];
+        Deque<Integer> queue = new ArrayDeque<>();
+        bestOutput[0] = outputs.get(0);
+        for (int c = 0; c < alphabetSize; c++) {
+            int next = gotoRows.get(0)[c];
+            if (next < 0) {
+                transitions[c] = 0;
+            } else {
+                transitions[c] = next;
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            bestOutput[state] = Math.min(outputs.get(state), bestOutput[fail[state]]);
+            for (int c = 0; c < alphabetSize; c++) {
+                int next = gotoRows.get(state)[c];
+                if (next < 0) {
+                    transitions[state * alphabetSize + c] = transitions[fail[state] * alphabetSize + c];
+                } else {
+                    transitions[state * alphabetSize + c] = next;
+                    fail[next] = transitions[fail[state] * alphabetSize + c];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    public static <V> Builder<V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Returns the occurrence of the highest-priority keyword found in {@code text} (its leftmost
+     * occurrence if it appears more than once), or null when no keyword occurs.
+     */
+    public Match<V> find(CharSequence text) {
+        int state = 0;
+        int best = NONE;
+        int bestEnd = -1;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = Character.toLowerCase(text.charAt(i));
+            int c = ch < charClass.length ? charClass[ch] : 0;
+            state = transitions[state * alphabetSize + c];
+            if (bestOutput[state] < best) {
+                best = bestOutput[state];
+                bestEnd = i + 1;
+                if (best == 0) break;
+            }
+        }
+        if (best == NONE) {
+            return null;
+        }
+        String keyword = keywords[best];
+        return new Match<>(keyword, values.get(best), bestEnd - keyword.length(), bestEnd);
+    }
+
+    public static final class Builder<V> {
+        private final Map<String, V> entries = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a keyword; earlier keywords take priority over later ones. A repeated keyword keeps
+         * its first value and priority.
+         */
+        public Builder<V> add(String keyword, V value) {
+            if (keyword == null || keyword.isEmpty()) {
+                throw new IllegalArgumentException("Keyword must not be empty");
+            }
+            entries.putIfAbsent(keyword.toLowerCase(Locale.ROOT), value);
+            return this;
+        }
+
+        public KeywordAutomaton<V> build() {
+            return new KeywordAutomaton<>(entries);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package edu.miu.cs489.dental.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring buffer of the most recent latency samples, for percentile estimates.
+ */
+public class LatencyWindow {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    public LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) count++;
+    }
+
+    /**
+     * Returns the given percentile (0..1) of the recorded samples, or {@code fallback} when empty.
+     */
+    public long percentile(double p, long fallback) {
+        long[] copy;
+        synchronized (this) {
+            if (count == 0) return fallback;
+            copy = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(copy);
+        int index = (int) Math.ceil(p * copy.length) - 1;
+        return copy[Math.max(0, Math.min(index, copy.length - 1))];
+    }
+}
@@ -0,0 +1,130 @@
+package edu.miu.cs489.dental.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads top-level string fields out of a JSON object while its text is still arriving in chunks,
+ * e.g. from a streamed LLM reply. It does not validate the document; parse the complete text once
+ * the stream ends. Not thread-safe.
+ */
+public class PartialJsonScanner {
+
+    private final StringBuilder text = new StringBuilder();
+
+    // Field name -> raw offset just past the part of its value already returned by newText
+    private final Map<String, Integer> consumed = new HashMap<>();
+    private final Map<String, Pattern> fieldPatterns = new HashMap<>();
+
+    public void append(CharSequence chunk) {
+        text.append(chunk);
+    }
+
+    /**
+     * Returns the value of string field {@code name} once it has fully arrived, otherwise null.
+     */
+    public String completeValue(String name) {
+        int start = valueStart(name);
+        if (start < 0) return null;
+        StringBuilder value = new StringBuilder();
+        int end = decode(start, value);
+        return end < text.length() && text.charAt(end) == '"' ? value.toString() : null;
+    }
+
+    /**
+     * Returns the characters of string field {@code name} that arrived since the previous call,
+     * decoded; empty when nothing new is available yet.
+     */
+    public String newText(String name) {
+        int start = valueStart(name);
+        if (start < 0) return "";
+        int from = consumed.getOrDefault(name, start);
+        StringBuilder value = new StringBuilder();
+        int end = decode(from, value);
+        consumed.put(name, end);
+        return value.toString();
+    }
+
+    private int valueStart(String name) {
+        Pattern pattern = fieldPatterns.computeIfAbsent(name,
+                n -> Pattern.compile("\"" + Pattern.quote(n) + "\"\\s*:\\s*\""));
+        Matcher m = pattern.matcher(text);
+        return m.find() ? m.end() : -1;
+    }
+
+    /**
+     * Decodes string content from raw offset {@code from} into {@code out}, stopping at the closing
+     * quote or before an escape sequence that has not fully arrived. Returns the raw offset reached.
+     */
+    private int decode(int from, StringBuilder out) {
+        int i = from;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                return i;
+            }
+            if (c != '\\') {
+                out.append(c);
+                i++;
+                continue;
+            }
+            if (i + 1 >= text.length()) {
+                return i;
+            }
+            char escaped = text.charAt(i + 1);
+            if (escaped == 'u') {
+                if (i + 6 > text.length()) {
+                    return i;
+                }
+                int unit = hexUnit(i + 2);
+                if (unit < 0) {
+                    out.append("\\u").append(text, i + 2, i + 6); // malformed escape, keep it as written
+                    i += 6;
+                    continue;
+                }
+                // Hold back the first half of a surrogate pair until the second half has arrived,
+                // so a chunk never ends in half a character
+                if (Character.isHighSurrogate((char) unit)) {
+                    if (i + 8 > text.length()) {
+                        return i;
+                    }
+                    if (text.charAt(i + 6) == '\\' && text.charAt(i + 7) == 'u') {
+                        if (i + 12 > text.length()) {
+                            return i;
+                        }
+                        int low = hexUnit(i + 8);
+                        if (low >= 0 && Character.isLowSurrogate((char) low)) {
+                            out.append((char) unit).append((char) low);
+                            i += 12;
+                            continue;
+                        }
+                    }
+                }
+                out.append((char) unit);
+                i += 6;
+                continue;
+            }
+            switch (escaped) {
+                case 'n' -> out.append('\n');
+                case 't' -> out.append('\t');
+                case 'r' -> out.append('\r');
+                case 'b' -> out.append('\b');
+                case 'f' -> out.append('\f');
+                default -> out.append(escaped);
+            }
+            i += 2;
+        }
+        return i;
+    }
+
+    // The UTF-16 unit written as four hex digits at raw offset from, or -1 if they are not hex
+    private int hexUnit(int from) {
+        try {
+            return Integer.parseInt(text.substring(from, from + 4), 16);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package edu.miu.cs489.dental.benchmark;
+
+import edu.miu.cs489.dental.dto.AppointmentDto;
+import edu.miu.cs489.dental.dto.PatientWithAddressDto;
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Appointment;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.model.Surgery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic in-memory entities for benchmarks; the same size always yields the same data.
+ */
+final class BenchmarkData {
+
+    private static final String[] FIRST_NAMES = {"Gillian", "Jill", "Ian", "John", "Anna", "Carlos", "Mei", "Fatima", "Oleg", "Priya"};
+    private static final String[] LAST_NAMES = {"White", "Bell", "MacKay", "Walker", "Smith", "García", "Chen", "Khan", "Petrov", "Patel"};
+    private static final String[] CITIES = {"Fairfield", "Iowa City", "Des Moines", "Cedar Rapids", "Ottumwa"};
+
+    private BenchmarkData() {
+    }
+
+    static List<Patient> patients(int count) {
+        Random random = new Random(42);
+        List<Patient> patients = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Patient p = new Patient();
+            p.setId((long) i + 1);
+            p.setPatNo("P" + (100 + i));
+            p.setName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + i);
+            p.setLastNameKey(Patient.lastNameKeyOf(p.getName()));
+            p.setAddress(address(i, random));
+            patients.add(p);
+        }
+        return patients;
+    }
+
+    static List<Dentist> dentists(int count) {
+        Random random = new Random(7);
+        List<Dentist> dentists = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Dentist d = new Dentist();
+            d.setId((long) i + 1);
+            d.setDentistName("Dr " + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + i);
+            d.setAddress(address(i, random));
+            dentists.add(d);
+        }
+        return dentists;
+    }
+
+    static List<Appointment> appointments(int count) {
+        List<Patient> patients = patients(Math.max(1, count / 4));
+        List<Dentist> dentists = dentists(20);
+        Random random = new Random(99);
+        List<Surgery> surgeries = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Surgery s = new Surgery();
+            s.setId((long) i + 1);
+            s.setSurgeryNo("S" + (10 + i));
+            s.setAddress(address(i, random));
+            surgeries.add(s);
+        }
+
+        LocalDateTime start = LocalDateTime.of(2025, 1, 6, 8, 0);
+        List<Appointment> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Appointment a = new Appointment();
+            a.setId((long) i + 1);
+            a.setAppointmentDateTime(start.plusMinutes(30L * i));
+            a.setPatient(patients.get(random.nextInt(patients.size())));
+            a.setDentist(dentists.get(random.nextInt(dentists.size())));
+            a.setSurgery(surgeries.get(random.nextInt(surgeries.size())));
+            appointments.add(a);
+        }
+        return appointments;
+    }
+
+    /**
+     * The columns the patient list projection selects, one array per row.
+     */
+    static List<Object[]> patientRows(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (Patient p : patients(count)) {
+            Address a = p.getAddress();
+            rows.add(new Object[]{p.getId(), p.getPatNo(), p.getName(), a.getId(), a.getStreet(), a.getCity(), a.getZipCode()});
+        }
+        return rows;
+    }
+
+    /**
+     * The columns the appointment list projection selects, one array per row.
+     */
+    static List<Object[]> appointmentRows(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (Appointment a : appointments(count)) {
+            Address sa = a.getSurgery().getAddress();
+            rows.add(new Object[]{a.getId(), a.getAppointmentDateTime(),
+                    a.getPatient().getId(), a.getPatient().getPatNo(), a.getPatient().getName(),
+                    a.getDentist().getId(), a.getDentist().getDentistName(),
+                    a.getSurgery().getId(), a.getSurgery().getSurgeryNo(),
+                    sa.getId(), sa.getStreet(), sa.getCity(), sa.getZipCode()});
+        }
+        return rows;
+    }
+
+    static List<PatientWithAddressDto> patientDtos(int count) {
+        return patientRows(count).stream().map(BenchmarkData::patientDto).toList();
+    }
+
+    static List<AppointmentDto> appointmentDtos(int count) {
+        return appointmentRows(count).stream().map(BenchmarkData::appointmentDto).toList();
+    }
+
+    static PatientWithAddressDto patientDto(Object[] r) {
+        return new PatientWithAddressDto((Long) r[0], (String) r[1], (String) r[2],
+                (Long) r[3], (String) r[4], (String) r[5], (String) r[6]);
+    }
+
+    static AppointmentDto appointmentDto(Object[] r) {
+        return new AppointmentDto((Long) r[0], (LocalDateTime) r[1],
+                (Long) r[2], (String) r[3], (String) r[4],
+                (Long) r[5], (String) r[6],
+                (Long) r[7], (String) r[8],
+                (Long) r[9], (String) r[10], (String) r[11], (String) r[12]);
+    }
+
+    private static Address address(int i, Random random) {
+        Address a = new Address();
+        a.setId((long) i + 1);
+        a.setStreet((100 + random.nextInt(900)) + " Main St");
+        a.setCity(CITIES[random.nextInt(CITIES.length)]);
+        a.setZipCode(String.valueOf(52000 + random.nextInt(999)));
+        return a;
+    }
+}
@@ -0,0 +1,32 @@
+package edu.miu.cs489.dental.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks in this package and writes the results as JMH JSON, so runs from two
+ * releases can be compared (e.g. with jmh.morethan.io or a plain diff).
+ * <p>
+ * Arguments: an optional include regex (default: every benchmark here) and an optional result
+ * file (default {@code target/jmh-result.json}). {@code mvn -Pbenchmark verify} runs it with
+ * {@code -Djmh.include=...} and {@code -Djmh.result=...}.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 && !args[0].isBlank() ? args[0] : BenchmarkRunner.class.getPackageName() + ".*";
+        String result = args.length > 1 && !args[1].isBlank() ? args[1] : "target/jmh-result.json";
+
+        new Runner(new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build()).run();
+        System.out.println("Benchmark results written to " + result);
+    }
+}
@@ -0,0 +1,129 @@
+package edu.miu.cs489.dental.benchmark;
+
+import edu.miu.cs489.dental.DentalApplication;
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Patient;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importing 100k rows, each a patient with its address, through JPA in transactions of 1000 rows.
+ * The score is rows per second.
+ * <ul>
+ *   <li>{@code identity}: the old mapping, auto-increment ids (see benchmark/identity-ids-orm.xml)
+ *       and no JDBC batching; Hibernate inserts each entity as soon as it is persisted</li>
+ *   <li>{@code pooled-lo}: the current mapping, ids from id_sequence in blocks of 50 and inserts
+ *       sent in ordered batches of 50</li>
+ * </ul>
+ * Runs against the in-memory H2 test database, where a round trip costs no network time, so the
+ * gain against MySQL is larger than measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int CHUNK = 1000;
+
+    @Param({"identity", "pooled-lo"})
+    private String ids;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transaction;
+    private JdbcTemplate jdbcTemplate;
+    private List<String[]> rows;
+
+    @Setup
+    public void setUp() {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        if (ids.equals("identity")) {
+            args.add("--spring.jpa.mapping-resources=benchmark/identity-ids-orm.xml");
+            args.add("--spring.jpa.properties.hibernate.jdbc.batch_size=1");
+            args.add("--spring.jpa.properties.hibernate.order_inserts=false");
+            args.add("--spring.jpa.properties.hibernate.order_updates=false");
+        }
+        context = new SpringApplicationBuilder(DentalApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(args.toArray(new String[0]));
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new String[]{"B" + i, "Patient " + i, (i % 9999 + 1) + " Main St", "Fairfield", "52556"});
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTables() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbcTemplate.execute("TRUNCATE TABLE patient");
+        jdbcTemplate.execute("TRUNCATE TABLE address");
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @TearDown
+    public void tearDown() {
+        SpringApplication.exit(context);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void importRows() {
+        for (int from = 0; from < ROWS; from += CHUNK) {
+            List<String[]> chunk = rows.subList(from, Math.min(ROWS, from + CHUNK));
+            transaction.executeWithoutResult(status -> {
+                for (String[] row : chunk) {
+                    Address address = new Address();
+                    address.setStreet(row[2]);
+                    address.setCity(row[3]);
+                    address.setZipCode(row[4]);
+                    entityManager.persist(address);
+
+                    Patient patient = new Patient();
+                    patient.setPatNo(row[0]);
+                    patient.setName(row[1]);
+                    patient.setAddress(address);
+                    entityManager.persist(patient);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package edu.miu.cs489.dental.benchmark;
+
+import edu.miu.cs489.dental.service.ChatRuleMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of rule-based chat routing and search-term extraction over the chat messages in
+ * {@code benchmark/chat-messages.txt}. One operation routes the whole corpus.
+ * <ul>
+ *   <li>{@code before}: the old chain of {@code String.contains} checks, then {@code indexOf} scans and
+ *       a {@code replaceAll} regex compiled per call to pull out the search term</li>
+ *   <li>{@code automaton}: the current single-pass {@link ChatRuleMatcher}</li>
+ * </ul>
+ * Run {@link #main} from the IDE or on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatRuleRoutingBenchmark {
+
+    private List<String> messages;
+
+    @Setup
+    public void setUp() throws IOException {
+        messages = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                ChatRuleRoutingBenchmark.class.getResourceAsStream("/benchmark/chat-messages.txt"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    messages.add(line);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void before(Blackhole blackhole) {
+        for (String message : messages) {
+            blackhole.consume(legacyRoute(message));
+        }
+    }
+
+    @Benchmark
+    public void automaton(Blackhole blackhole) {
+        for (String message : messages) {
+            ChatRuleMatcher.RuleMatch match = ChatRuleMatcher.match(message);
+            if (match != null && match.intent().startsWith("search_")) {
+                blackhole.consume(ChatRuleMatcher.searchTerm(message, match));
+            } else {
+                blackhole.consume(match);
+            }
+        }
+    }
+
+    private static String legacyRoute(String message) {
+        String lowerMessage = message.toLowerCase().trim();
+        if (lowerMessage.contains("find patient") || lowerMessage.contains("search patient") ||
+            lowerMessage.contains("patient named") || lowerMessage.contains("show patient")) {
+            return legacyExtract(message, Arrays.asList("find patient", "search patient", "patient named", "show patient"));
+        }
+        if (lowerMessage.contains("find dentist") || lowerMessage.contains("search dentist") ||
+            lowerMessage.contains("dentist named") || lowerMessage.contains("show dentist")) {
+            return legacyExtract(message, Arrays.asList("find dentist", "search dentist", "dentist named", "show dentist"));
+        }
+        if (lowerMessage.contains("make appointment") || lowerMessage.contains("book appointment") ||
+            lowerMessage.contains("schedule appointment") || lowerMessage.contains("create appointment")) {
+            return "make_appointment";
+        }
+        if (lowerMessage.contains("list patients") || lowerMessage.contains("show all patients") ||
+            lowerMessage.contains("all patients")) {
+            return "list_patients";
+        }
+        if (lowerMessage.contains("list dentists") || lowerMessage.contains("show all dentists") ||
+            lowerMessage.contains("all dentists")) {
+            return "list_dentists";
+        }
+        if (lowerMessage.contains("show appointments") || lowerMessage.contains("list appointments") ||
+            lowerMessage.contains("all appointments") || lowerMessage.contains("upcoming appointments")) {
+            return "list_appointments";
+        }
+        if (lowerMessage.contains("help") || lowerMessage.equals("?")) {
+            return "help";
+        }
+        return null;
+    }
+
+    private static String legacyExtract(String message, List<String> prefixes) {
+        String lowerMessage = message.toLowerCase();
+        for (String prefix : prefixes) {
+            if (lowerMessage.contains(prefix)) {
+                int startIndex = lowerMessage.indexOf(prefix) + prefix.length();
+                String term = message.substring(startIndex).trim();
+                term = term.replaceAll("(?i)^(for|with|the|a|an)\\s+", "");
+                return term;
+            }
+        }
+        return "";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ChatRuleRoutingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
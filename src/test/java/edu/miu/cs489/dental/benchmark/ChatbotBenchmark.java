@@ -0,0 +1,154 @@
+package edu.miu.cs489.dental.benchmark;
+
+import edu.miu.cs489.dental.dto.AppointmentDto;
+import edu.miu.cs489.dental.dto.AppointmentFilter;
+import edu.miu.cs489.dental.dto.ChatResponseDto;
+import edu.miu.cs489.dental.dto.CursorPage;
+import edu.miu.cs489.dental.dto.PatientWithAddressDto;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.service.AppointmentService;
+import edu.miu.cs489.dental.service.ChatbotService;
+import edu.miu.cs489.dental.service.DentistService;
+import edu.miu.cs489.dental.service.PatientService;
+import edu.miu.cs489.dental.util.ChatDateTimeParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chatbot paths that run without Gemini.
+ * <ul>
+ *   <li>{@code processWithRules}: the rule-based answer for every message in
+ *       {@code benchmark/chat-messages.txt}, against in-memory services (50 rows per list)</li>
+ *   <li>{@code parseDateTimeLegacy} / {@code parseDateTime}: the old per-call formatter and
+ *       exception-driven fallback against {@link ChatDateTimeParser}, over a mix of formats</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatbotBenchmark {
+
+    private static final List<String> DATE_TIMES = List.of(
+            "2025-11-03T09:30:00", "2025-11-03 09:30", "2025-11-03T09:30",
+            "11/03/2025 09:30", "23/11/2025 14:00", "tomorrow at 3pm");
+
+    private final List<String> messages = new ArrayList<>();
+    private ChatbotService chatbotService;
+    private MethodHandle processWithRules;
+
+    @Setup
+    public void setUp() throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                ChatbotBenchmark.class.getResourceAsStream("/benchmark/chat-messages.txt"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    messages.add(line);
+                }
+            }
+        }
+
+        List<Patient> patients = BenchmarkData.patients(50);
+        List<Dentist> dentists = BenchmarkData.dentists(50);
+        List<PatientWithAddressDto> patientDtos = BenchmarkData.patientDtos(50);
+        List<AppointmentDto> appointmentDtos = BenchmarkData.appointmentDtos(50);
+
+        chatbotService = new ChatbotService();
+        ReflectionTestUtils.setField(chatbotService, "patientService", new PatientService() {
+            @Override
+            public List<PatientWithAddressDto> getAllPatientDtos() {
+                return patientDtos;
+            }
+
+            @Override
+            public List<Patient> searchPatients(String searchString) {
+                return patients.subList(0, 5);
+            }
+        });
+        ReflectionTestUtils.setField(chatbotService, "dentistService", new DentistService() {
+            @Override
+            public List<Dentist> getAllDentists() {
+                return dentists;
+            }
+
+            @Override
+            public List<Dentist> searchDentists(String searchString) {
+                return dentists.subList(0, 5);
+            }
+        });
+        ReflectionTestUtils.setField(chatbotService, "appointmentService", new AppointmentService() {
+            @Override
+            public CursorPage<AppointmentDto> getAppointmentDtosPage(AppointmentFilter filter, int limit, String after) {
+                return new CursorPage<>(appointmentDtos, null);
+            }
+        });
+
+        processWithRules = MethodHandles.privateLookupIn(ChatbotService.class, MethodHandles.lookup())
+                .findVirtual(ChatbotService.class, "processWithRules",
+                        MethodType.methodType(ChatResponseDto.class, String.class));
+    }
+
+    @Benchmark
+    public void processWithRules(Blackhole blackhole) throws Throwable {
+        for (String message : messages) {
+            blackhole.consume((ChatResponseDto) processWithRules.invokeExact(chatbotService, message));
+        }
+    }
+
+    @Benchmark
+    public void parseDateTimeLegacy(Blackhole blackhole) {
+        for (String text : DATE_TIMES) {
+            blackhole.consume(legacyParseDateTime(text));
+        }
+    }
+
+    @Benchmark
+    public void parseDateTime(Blackhole blackhole) {
+        for (String text : DATE_TIMES) {
+            blackhole.consume(ChatDateTimeParser.parse(text));
+        }
+    }
+
+    private static LocalDateTime legacyParseDateTime(String dateTimeStr) {
+        try {
+            return LocalDateTime.parse(dateTimeStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            String[] formats = {"yyyy-MM-dd HH:mm", "yyyy-MM-dd'T'HH:mm", "MM/dd/yyyy HH:mm", "dd/MM/yyyy HH:mm"};
+            for (String format : formats) {
+                try {
+                    return LocalDateTime.parse(dateTimeStr, DateTimeFormatter.ofPattern(format));
+                } catch (DateTimeParseException ex) {
+                    // Continue to next format
+                }
+            }
+        }
+        return null;
+    }
+}
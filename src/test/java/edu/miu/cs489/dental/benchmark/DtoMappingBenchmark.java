@@ -0,0 +1,131 @@
+package edu.miu.cs489.dental.benchmark;
+
+import edu.miu.cs489.dental.dto.AddressSimpleDto;
+import edu.miu.cs489.dental.dto.AppointmentDto;
+import edu.miu.cs489.dental.dto.DentistSimpleDto;
+import edu.miu.cs489.dental.dto.PatientDto;
+import edu.miu.cs489.dental.dto.PatientWithAddressDto;
+import edu.miu.cs489.dental.dto.SurgeryDto;
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Appointment;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.model.Surgery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning result rows into list DTOs: hydrating the entity graph and then mapping it, as the list
+ * endpoints used to, against constructing the DTO straight from the row as the JPQL constructor
+ * expressions do. Persistence-context registration and dirty checking are not included, so the
+ * real gap is wider than measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private List<Object[]> patientRows;
+    private List<Object[]> appointmentRows;
+
+    @Setup
+    public void setUp() {
+        patientRows = BenchmarkData.patientRows(rows);
+        appointmentRows = BenchmarkData.appointmentRows(rows);
+    }
+
+    @Benchmark
+    public List<PatientWithAddressDto> patientsHydrated() {
+        List<PatientWithAddressDto> dtos = new ArrayList<>(patientRows.size());
+        for (Object[] r : patientRows) {
+            Patient p = new Patient();
+            p.setId((Long) r[0]);
+            p.setPatNo((String) r[1]);
+            p.setName((String) r[2]);
+            p.setAddress(address(r, 3));
+            Address a = p.getAddress();
+            dtos.add(new PatientWithAddressDto(p.getId(), p.getPatNo(), p.getName(),
+                    new AddressSimpleDto(a.getId(), a.getStreet(), a.getCity(), a.getZipCode())));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<PatientWithAddressDto> patientsProjected() {
+        List<PatientWithAddressDto> dtos = new ArrayList<>(patientRows.size());
+        for (Object[] r : patientRows) {
+            dtos.add(BenchmarkData.patientDto(r));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<AppointmentDto> appointmentsHydrated() {
+        List<AppointmentDto> dtos = new ArrayList<>(appointmentRows.size());
+        for (Object[] r : appointmentRows) {
+            Appointment a = new Appointment();
+            a.setId((Long) r[0]);
+            a.setAppointmentDateTime((LocalDateTime) r[1]);
+            Patient p = new Patient();
+            p.setId((Long) r[2]);
+            p.setPatNo((String) r[3]);
+            p.setName((String) r[4]);
+            a.setPatient(p);
+            Dentist d = new Dentist();
+            d.setId((Long) r[5]);
+            d.setDentistName((String) r[6]);
+            a.setDentist(d);
+            Surgery s = new Surgery();
+            s.setId((Long) r[7]);
+            s.setSurgeryNo((String) r[8]);
+            s.setAddress(address(r, 9));
+            a.setSurgery(s);
+
+            Address sa = s.getAddress();
+            dtos.add(new AppointmentDto(a.getId(), a.getAppointmentDateTime(),
+                    new PatientDto(p.getId(), p.getPatNo(), p.getName()),
+                    new DentistSimpleDto(d.getId(), d.getDentistName()),
+                    new SurgeryDto(s.getId(), s.getSurgeryNo(),
+                            new AddressSimpleDto(sa.getId(), sa.getStreet(), sa.getCity(), sa.getZipCode()))));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<AppointmentDto> appointmentsProjected() {
+        List<AppointmentDto> dtos = new ArrayList<>(appointmentRows.size());
+        for (Object[] r : appointmentRows) {
+            dtos.add(BenchmarkData.appointmentDto(r));
+        }
+        return dtos;
+    }
+
+    private static Address address(Object[] r, int from) {
+        Address a = new Address();
+        a.setId((Long) r[from]);
+        a.setStreet((String) r[from + 1]);
+        a.setCity((String) r[from + 2]);
+        a.setZipCode((String) r[from + 3]);
+        return a;
+    }
+}
@@ -0,0 +1,84 @@
+package edu.miu.cs489.dental.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.miu.cs489.dental.controller.AppointmentController;
+import edu.miu.cs489.dental.controller.PatientController;
+import edu.miu.cs489.dental.dto.AppointmentDto;
+import edu.miu.cs489.dental.dto.AppointmentFilter;
+import edu.miu.cs489.dental.dto.PatientWithAddressDto;
+import edu.miu.cs489.dental.service.AppointmentService;
+import edu.miu.cs489.dental.service.PatientService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing list responses to JSON with an ObjectMapper configured like Spring Boot's
+ * (JavaTimeModule, ISO dates). The DTO lists come from the controllers, so this measures only
+ * serialization of what the endpoints actually return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private ObjectWriter writer;
+    private List<PatientWithAddressDto> patients;
+    private List<AppointmentDto> appointments;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+
+        List<PatientWithAddressDto> patientRows = BenchmarkData.patientDtos(rows);
+        PatientController patientController = new PatientController();
+        ReflectionTestUtils.setField(patientController, "patientService", new PatientService() {
+            @Override
+            public List<PatientWithAddressDto> getAllPatientDtos() {
+                return patientRows;
+            }
+        });
+        patients = patientController.getAllPatients(null, null).getBody();
+
+        List<AppointmentDto> appointmentRows = BenchmarkData.appointmentDtos(rows);
+        AppointmentController appointmentController = new AppointmentController();
+        ReflectionTestUtils.setField(appointmentController, "appointmentService", new AppointmentService() {
+            @Override
+            public List<AppointmentDto> getAppointmentDtos(AppointmentFilter filter) {
+                return appointmentRows;
+            }
+        });
+        appointments = appointmentController.getAllAppointments(null, null, null, null, null, null, null).getBody();
+    }
+
+    @Benchmark
+    public byte[] patients() throws Exception {
+        return writer.writeValueAsBytes(patients);
+    }
+
+    @Benchmark
+    public byte[] appointments() throws Exception {
+        return writer.writeValueAsBytes(appointments);
+    }
+}
@@ -0,0 +1,98 @@
+package edu.miu.cs489.dental.benchmark;
+
+import edu.miu.cs489.dental.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.lang.reflect.Field;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT authentication cost in JwtRequestFilter.
+ * <ul>
+ *   <li>{@code before}: the old filter path, which built a new parser and verified the token three
+ *       times (extractUsername, then validateToken's extractUsername and extractExpiration)</li>
+ *   <li>{@code verifyUncached}: one verification on the reused parser, cache disabled</li>
+ *   <li>{@code verifyCached}: the current path, a repeat request answered from the verified-token cache</li>
+ *   <li>{@code generate}: signing a fresh token at login</li>
+ * </ul>
+ * Run {@link #main} from the IDE or on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "benchmark-jwt-secret-key-that-is-long-enough-for-hs256-signing";
+
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private SecretKey secretKey;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        cachedJwtUtil = new JwtUtil(SECRET, 3_600_000L, 10_000);
+        uncachedJwtUtil = new JwtUtil(SECRET, 3_600_000L, 0);
+        token = cachedJwtUtil.generateToken("admin");
+
+        Field keyField = JwtUtil.class.getDeclaredField("secretKey");
+        keyField.setAccessible(true);
+        secretKey = (SecretKey) keyField.get(cachedJwtUtil);
+    }
+
+    @Benchmark
+    public boolean before() {
+        String username = legacyClaims().getSubject();
+        String again = legacyClaims().getSubject();
+        Date expiration = legacyClaims().getExpiration();
+        return username.equals(again) && expiration.after(new Date());
+    }
+
+    @Benchmark
+    public String verifyUncached() {
+        return uncachedJwtUtil.verify(token).getSubject();
+    }
+
+    @Benchmark
+    public String verifyCached() {
+        return cachedJwtUtil.verify(token).getSubject();
+    }
+
+    @Benchmark
+    public String generate() {
+        return cachedJwtUtil.generateToken("admin");
+    }
+
+    private Claims legacyClaims() {
+        return Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package edu.miu.cs489.dental.benchmark;
+
+import edu.miu.cs489.dental.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Ordering the full patient list by last name.
+ * <ul>
+ *   <li>{@code legacySplitPerCompare}: the original PatientService sort, which split the name with a
+ *       regex on every comparison</li>
+ *   <li>{@code lastNameKey}: the stored {@code lastNameKey} column, the same order the database index returns</li>
+ * </ul>
+ * Both sort a shuffled copy, so the copy cost is included equally.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class PatientSortBenchmark {
+
+    private static final Comparator<Patient> BY_LAST_NAME_KEY =
+            Comparator.comparing(Patient::getLastNameKey).thenComparing(Patient::getId);
+
+    @Param({"10000", "100000", "1000000"})
+    private int patients;
+
+    private List<Patient> unsorted;
+
+    @Setup
+    public void setUp() {
+        unsorted = BenchmarkData.patients(patients);
+        Collections.shuffle(unsorted, new Random(1));
+    }
+
+    @Benchmark
+    public List<Patient> legacySplitPerCompare() {
+        return unsorted.stream()
+                .sorted(Comparator.comparing(p -> legacyLastName(p.getName()), Comparator.nullsLast(String::compareToIgnoreCase)))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Patient> lastNameKey() {
+        List<Patient> copy = new ArrayList<>(unsorted);
+        copy.sort(BY_LAST_NAME_KEY);
+        return copy;
+    }
+
+    private static String legacyLastName(String fullName) {
+        if (fullName == null) return "";
+        String[] parts = fullName.trim().split("\\s+");
+        return parts.length == 0 ? "" : parts[parts.length - 1];
+    }
+}
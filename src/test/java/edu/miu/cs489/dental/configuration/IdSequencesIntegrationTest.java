@@ -0,0 +1,36 @@
+package edu.miu.cs489.dental.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counters move past ids written without them (such as rows from the auto-increment days) and
+ * never move back.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idsequences;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE")
+@ActiveProfiles("test")
+public class IdSequencesIntegrationTest {
+
+    @Autowired
+    private IdSequences idSequences;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testAlignsWithExistingIdsAndReserves() {
+        jdbcTemplate.update("INSERT INTO address (id, street, city, zip_code, version) VALUES (1000, '1 Legacy St', 'Fairfield', '52556', 0)");
+
+        idSequences.alignWithExistingIds();
+        assertEquals(1001, idSequences.reserve(IdSequences.ADDRESS, 10));
+        assertEquals(1011, idSequences.reserve(IdSequences.ADDRESS, 10));
+
+        idSequences.alignWithExistingIds();
+        assertEquals(1021, idSequences.reserve(IdSequences.ADDRESS, 1), "Aligning again must not hand out ids twice");
+    }
+}
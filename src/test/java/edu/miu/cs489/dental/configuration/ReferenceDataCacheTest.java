@@ -0,0 +1,75 @@
+package edu.miu.cs489.dental.configuration;
+
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.repository.DataVersionRepository;
+import edu.miu.cs489.dental.repository.DentistRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reference data is served from the second-level cache, stays cached across this replica's own
+ * writes, and is evicted when another replica bumps the dentists' version. The poller is slowed
+ * down so the test drives {@link DataVersions#poll()} itself.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:l2cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "cache.invalidation.poll-ms=3600000"
+})
+@ActiveProfiles("test")
+public class ReferenceDataCacheTest {
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private DentistRepository dentistRepository;
+
+    @Autowired
+    private DataVersionRepository versionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void testRemoteWriteEvictsAndLocalWriteDoesNot() {
+        Dentist dentist = new Dentist();
+        dentist.setDentistName("Dr Cached");
+        Long id = dentistRepository.save(dentist).getId();
+        dataVersions.poll();
+
+        dentistRepository.findById(id);
+        long hitsBefore = referenceDataCache.stats().get(ReferenceDataCache.DENTIST).hits();
+        dentistRepository.findById(id);
+        assertTrue(referenceDataCache.stats().get(ReferenceDataCache.DENTIST).hits() > hitsBefore,
+                "Second read should be served from the cache");
+
+        // A write on this replica publishes a bump but must not evict this replica's own copy
+        long remoteBefore = referenceDataCache.stats().get(ReferenceDataCache.DENTIST).remoteEvictions();
+        Dentist loaded = dentistRepository.findById(id).orElseThrow();
+        loaded.setDentistName("Dr Cached Renamed");
+        dentistRepository.save(loaded);
+        dataVersions.poll();
+        assertEquals(remoteBefore, referenceDataCache.stats().get(ReferenceDataCache.DENTIST).remoteEvictions());
+        assertTrue(entityManagerFactory.getCache().contains(Dentist.class, id), "Own write should stay cached");
+
+        // Another replica's write shows up only as a version bump
+        transactionTemplate.executeWithoutResult(status -> versionRepository.bump(DataVersions.DENTISTS));
+        dataVersions.poll();
+        assertEquals(remoteBefore + 1, referenceDataCache.stats().get(ReferenceDataCache.DENTIST).remoteEvictions());
+        assertFalse(entityManagerFactory.getCache().contains(Dentist.class, id), "Remote write should evict the region");
+    }
+}
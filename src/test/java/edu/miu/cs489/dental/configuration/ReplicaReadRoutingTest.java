@@ -0,0 +1,64 @@
+package edu.miu.cs489.dental.configuration;
+
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.service.PatientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Service reads are read-only transactions and so reach a replica, while writes stay on the
+ * primary. The "replica" is a read-only pool on the primary's own in-memory database, so it never
+ * lags; connections handed out per pool are counted from Hikari's usage timer. Lag is checked only
+ * once, at startup, so the checker's own connections do not muddy the counts.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replicaread;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "datasource.replicas.urls=jdbc:h2:mem:replicaread;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "datasource.replicas.check-ms=600000"
+})
+@ActiveProfiles("test")
+public class ReplicaReadRoutingTest {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void testServiceReadsGoToTheReplica() throws Exception {
+        // Reads go to the primary until the replica's lag has been measured once, at startup
+        ReplicaRoutingDataSource.Replica replica = dataSource.unwrap(ReplicaRoutingDataSource.class).getReplicas().get(0);
+        for (int i = 0; i < 100 && replica.getLagMillis() == Long.MAX_VALUE; i++) {
+            Thread.sleep(50);
+        }
+
+        long readsBefore = connectionsFrom(replica.getName());
+        patientService.getAllPatients();
+        patientService.getAllPatientDtos();
+        assertTrue(connectionsFrom(replica.getName()) >= readsBefore + 2, "Reads did not reach the replica");
+
+        long writesBefore = connectionsFrom(ReplicaRoutingDataSource.PRIMARY);
+        Patient patient = new Patient();
+        patient.setPatNo("RR1");
+        patient.setName("Rita Replica");
+        patientService.createPatient(patient);
+        assertTrue(connectionsFrom(ReplicaRoutingDataSource.PRIMARY) > writesBefore, "The write did not use the primary");
+    }
+
+    private long connectionsFrom(String pool) {
+        Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", pool).timer();
+        return usage == null ? 0 : usage.count();
+    }
+}
@@ -0,0 +1,137 @@
+package edu.miu.cs489.dental.configuration;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing decisions for read-only and read-write transactions. Three separate in-memory
+ * databases stand in for the primary and two replicas; "replication" is copying the heartbeat
+ * row by hand.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica1;
+    private DataSource replica2;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        primary = h2("rr_primary");
+        replica1 = h2("rr_replica1");
+        replica2 = h2("rr_replica2");
+        for (DataSource dataSource : List.of(primary, replica1, replica2)) {
+            execute(dataSource, "create table if not exists replica_heartbeat (id int primary key, beat bigint not null)");
+            execute(dataSource, "delete from replica_heartbeat");
+        }
+        routing = new ReplicaRoutingDataSource(primary, List.of(
+                new ReplicaRoutingDataSource.Replica("replica-1", replica1),
+                new ReplicaRoutingDataSource.Replica("replica-2", replica2)), 2000, 60000);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("admin", null, List.of()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        routing.stop();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testReadsWaitForFirstLagMeasurement() {
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, route(true));
+    }
+
+    @Test
+    public void testReadsRoundRobinOverCurrentReplicas() throws SQLException {
+        replicate(replica1, 0);
+        replicate(replica2, 0);
+        routing.checkLag();
+
+        Set<Object> used = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            used.add(route(true));
+        }
+        assertEquals(Set.of("replica-1", "replica-2"), used);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, route(false), "Writes always go to the primary");
+    }
+
+    @Test
+    public void testLaggingReplicaIsSkipped() throws SQLException {
+        replicate(replica1, 0);
+        replicate(replica2, 60000);
+        routing.checkLag();
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica-1", route(true));
+        }
+    }
+
+    @Test
+    public void testWriterIsPinnedToPrimaryAfterCommit() throws SQLException {
+        replicate(replica1, 0);
+        replicate(replica2, 0);
+        routing.checkLag();
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+            // Until the write has committed, other reads are not pinned
+            assertEquals("replica", route(true).toString().substring(0, 7));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, route(true), "The writer reads its own writes");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("someone-else", null, List.of()));
+        assertEquals("replica", route(true).toString().substring(0, 7), "Other users are not pinned");
+    }
+
+    private Object route(boolean readOnly) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            return routing.determineCurrentLookupKey();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    // Copies the primary's heartbeat as it was behindMillis ago
+    private void replicate(DataSource replica, long behindMillis) throws SQLException {
+        execute(replica, "delete from replica_heartbeat");
+        execute(replica, "insert into replica_heartbeat (id, beat) values (1, "
+                + (System.currentTimeMillis() - behindMillis) + ")");
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private static void execute(DataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package edu.miu.cs489.dental.configuration;
+
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.repository.AddressRepository;
+import edu.miu.cs489.dental.repository.AppointmentRepository;
+import edu.miu.cs489.dental.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the synthetic data generator against the H2 test database at a small scale
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:datagen;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "datagen.patients=500",
+        "datagen.dentists=6",
+        "datagen.surgeries=4",
+        "datagen.appointments=3000",
+        "datagen.batch-size=128",
+        "datagen.threads=4"
+})
+@ActiveProfiles({"test", "datagen"})
+public class SyntheticDataGeneratorIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Test
+    public void testGeneratesRequestedVolumes() {
+        // DataInitializer adds two patients and two appointments of its own
+        assertEquals(502, patientRepository.count());
+        assertEquals(3002, appointmentRepository.count());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM patient WHERE last_name_key IS NULL OR address_id IS NULL", Long.class));
+    }
+
+    @Test
+    public void testNoDentistOrSurgeryIsDoubleBooked() {
+        assertEquals(0, jdbcTemplate.queryForList(
+                "SELECT dentist_id FROM appointment GROUP BY dentist_id, appointment_date_time HAVING COUNT(*) > 1").size());
+        assertEquals(0, jdbcTemplate.queryForList(
+                "SELECT surgery_id FROM appointment GROUP BY surgery_id, appointment_date_time HAVING COUNT(*) > 1").size());
+    }
+
+    // Hibernate may still hold a block taken before the generator ran, so new ids need not be larger
+    @Test
+    public void testNewIdsDoNotCollideWithGeneratedIds() {
+        Address address = new Address();
+        address.setCity("Fairfield");
+        addressRepository.save(address);
+
+        Patient patient = new Patient();
+        patient.setPatNo("P-NEW");
+        patient.setName("New Patient");
+        patient.setAddress(address);
+        Patient saved = patientRepository.save(patient);
+        try {
+            assertEquals(503, patientRepository.count());
+            assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient WHERE id = ?", Long.class, saved.getId()));
+        } finally {
+            patientRepository.delete(saved);
+            addressRepository.delete(address);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package edu.miu.cs489.dental.controller;
+
+import edu.miu.cs489.dental.configuration.IdSequences;
+import edu.miu.cs489.dental.model.Appointment;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.repository.DentistRepository;
+import edu.miu.cs489.dental.security.JwtUtil;
+import edu.miu.cs489.dental.service.AppointmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Double-bookings are refused with 409 whether this node knows of the clash or only the database
+ * does (a booking made on another node), and a booking whose transaction rolls back leaves its slot
+ * free. Appointments last the default 30 minutes.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:appointmentconflict;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AppointmentConflictTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private DentistRepository dentistRepository;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private IdSequences idSequences;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String token;
+    private Dentist dentist;
+
+    @BeforeEach
+    public void setUp() {
+        token = "Bearer " + jwtUtil.generateToken("admin");
+        dentist = new Dentist();
+        dentist.setDentistName("Dr Conflict");
+        dentist = dentistRepository.save(dentist);
+    }
+
+    @Test
+    public void testOverlappingBookingIsRefused() throws Exception {
+        LocalDateTime at = LocalDateTime.of(2031, 3, 4, 9, 0);
+        book(at).andExpect(status().isCreated());
+
+        String first = String.valueOf(jdbcTemplate.queryForObject(
+                "SELECT id FROM appointment WHERE dentist_id = ?", Long.class, dentist.getId()));
+        book(at.plusMinutes(10))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.conflictingAppointmentId").value(Long.valueOf(first)));
+        book(at.plusMinutes(30)).andExpect(status().isCreated());
+    }
+
+    @Test
+    public void testBookingMadeOnAnotherNodeIsRefused() throws Exception {
+        LocalDateTime at = LocalDateTime.of(2031, 3, 5, 9, 0);
+        // Written straight to the table, as another node would: this node's trees never see it
+        long id = idSequences.reserve(IdSequences.APPOINTMENT, 1);
+        jdbcTemplate.update("INSERT INTO appointment (id, version, appointment_date_time, dentist_id) VALUES (?, 0, ?, ?)",
+                id, at, dentist.getId());
+
+        book(at.plusMinutes(15))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.conflictingAppointmentId").value(id));
+    }
+
+    @Test
+    public void testRolledBackBookingLeavesSlotFree() {
+        LocalDateTime at = LocalDateTime.of(2031, 3, 6, 9, 0);
+        transactionTemplate.executeWithoutResult(status -> {
+            appointmentService.createAppointment(appointment(at));
+            status.setRollbackOnly();
+        });
+
+        assertNotNull(appointmentService.createAppointment(appointment(at)).getId());
+    }
+
+    private ResultActions book(LocalDateTime at) throws Exception {
+        return mockMvc.perform(post("/adsweb/api/v1/appointments")
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"appointmentDateTime\":\"" + at + "\",\"dentist\":{\"id\":" + dentist.getId() + "}}"));
+    }
+
+    private Appointment appointment(LocalDateTime at) {
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentDateTime(at);
+        appointment.setDentist(dentist);
+        return appointment;
+    }
+}
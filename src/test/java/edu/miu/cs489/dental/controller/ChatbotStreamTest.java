@@ -0,0 +1,132 @@
+package edu.miu.cs489.dental.controller;
+
+import edu.miu.cs489.dental.security.JwtUtil;
+import edu.miu.cs489.dental.service.GeminiAIService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Order of the events on /chatbot/stream: one intent, then text, then done, also when Gemini fails
+ * after its text has gone out; and each streamed message is counted under the path that answered.
+ * Gemini is stubbed to hand its reply over in chunks.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:chatbotstream;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ChatbotStreamTest {
+
+    // Booking always escalates to Gemini, however confident the local classifier is
+    private static final String MESSAGE = "I would like to make an appointment";
+
+    private static final List<String> REPLY_CHUNKS = List.of(
+            "{\"intent\": \"make_app", "ointment\", \"response_message\": \"Sure, ", "who is the patient?\"",
+            ", \"extracted_data\": {}}");
+
+    @MockBean
+    private GeminiAIService geminiAIService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        token = "Bearer " + jwtUtil.generateToken("admin");
+        when(geminiAIService.isAvailable()).thenReturn(true);
+    }
+
+    @Test
+    public void testGeminiAnswerStreamsIntentThenTextThenDone() throws Exception {
+        stubGemini(REPLY_CHUNKS, String.join("", REPLY_CHUNKS));
+        long before = messagesAnsweredBy("llm");
+
+        List<String> events = stream();
+
+        assertEquals(List.of("intent", "text", "text", "done"), events);
+        assertEquals(before + 1, messagesAnsweredBy("llm"));
+    }
+
+    @Test
+    public void testFailureAfterTextSendsNoSecondIntent() throws Exception {
+        // The stream stops half way, as when the deadline passes, and the rules engine answers
+        stubGemini(REPLY_CHUNKS.subList(0, 2), null);
+
+        List<String> events = stream();
+
+        assertEquals(List.of("intent", "text", "done"), events);
+    }
+
+    @Test
+    public void testRulesAnswerIsCountedWhenGeminiIsUnavailable() throws Exception {
+        when(geminiAIService.isAvailable()).thenReturn(false);
+        long before = messagesAnsweredBy("rules");
+
+        List<String> events = stream();
+
+        assertEquals(List.of("intent", "done"), events);
+        assertEquals(before + 1, messagesAnsweredBy("rules"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubGemini(List<String> chunks, String answer) {
+        when(geminiAIService.streamWithAIAsync(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            Consumer<String> onText = invocation.getArgument(2, Consumer.class);
+            chunks.forEach(onText);
+            return CompletableFuture.completedFuture(answer);
+        });
+    }
+
+    private List<String> stream() throws Exception {
+        MvcResult result = mockMvc.perform(post("/adsweb/api/v1/chatbot/stream")
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"message\":\"" + MESSAGE + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(10_000);
+
+        List<String> events = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            if (line.startsWith("event:")) {
+                events.add(line.substring("event:".length()).trim());
+            }
+        }
+        assertTrue(events.size() > 0, "no events");
+        return events;
+    }
+
+    private long messagesAnsweredBy(String path) {
+        Timer timer = meterRegistry.find("dental.chat.messages").tag("path", path).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,118 @@
+package edu.miu.cs489.dental.controller;
+
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.model.Surgery;
+import edu.miu.cs489.dental.repository.AddressRepository;
+import edu.miu.cs489.dental.repository.PatientRepository;
+import edu.miu.cs489.dental.repository.SurgeryRepository;
+import edu.miu.cs489.dental.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Versioned GET endpoints answer a current If-None-Match with an empty 304 and send a fresh body
+ * and tag once the data behind them has changed.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:conditionalget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private SurgeryRepository surgeryRepository;
+
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        token = "Bearer " + jwtUtil.generateToken("admin");
+    }
+
+    @Test
+    public void testSurgeriesRevalidateUntilASurgeryChanges() throws Exception {
+        addSurgery("CG1");
+        MockHttpServletResponse first = fetch("/adsweb/api/v1/surgeries", null, 200);
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag, "Versioned endpoints should send an ETag");
+
+        MockHttpServletResponse notModified = fetch("/adsweb/api/v1/surgeries", etag, 304);
+        assertEquals(0, notModified.getContentLength());
+        // A repeat served from the pre-serialized copy is identical
+        assertEquals(first.getContentAsString(), fetch("/adsweb/api/v1/surgeries", null, 200).getContentAsString());
+
+        addSurgery("CG2");
+        MockHttpServletResponse changed = fetch("/adsweb/api/v1/surgeries", etag, 200);
+        assertNotEquals(etag, changed.getHeader(HttpHeaders.ETAG));
+        assertTrue(changed.getContentAsString().contains("CG2"), "The new surgery should be listed");
+    }
+
+    @Test
+    public void testPatientTagMovesWithAddressChanges() throws Exception {
+        Patient patient = new Patient();
+        patient.setPatNo("CGP");
+        patient.setName("Conditional Patient");
+        patient.setAddress(address("1 Tag St"));
+        patientRepository.save(patient);
+
+        String etag = fetch("/adsweb/api/v1/patients", null, 200).getHeader(HttpHeaders.ETAG);
+        // Clients may send several tags, and weak ones
+        fetch("/adsweb/api/v1/patients", "\"stale\", W/" + etag, 304);
+
+        Address address = patient.getAddress();
+        address.setStreet("2 Tag St");
+        addressRepository.save(address);
+        assertTrue(fetch("/adsweb/api/v1/patients", etag, 200).getContentAsString().contains("2 Tag St"),
+                "An address change should show in the patient listing");
+    }
+
+    private MockHttpServletResponse fetch(String path, String ifNoneMatch, int expectedStatus) throws Exception {
+        MockHttpServletRequestBuilder request = get(path).header("Authorization", token);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(request).andExpect(status().is(expectedStatus)).andReturn().getResponse();
+    }
+
+    private void addSurgery(String surgeryNo) {
+        Surgery surgery = new Surgery();
+        surgery.setSurgeryNo(surgeryNo);
+        surgery.setAddress(address(surgeryNo + " Surgery St"));
+        surgeryRepository.save(surgery);
+    }
+
+    private Address address(String street) {
+        Address address = new Address();
+        address.setStreet(street);
+        address.setCity("Fairfield");
+        address.setZipCode("52556");
+        return addressRepository.save(address);
+    }
+}
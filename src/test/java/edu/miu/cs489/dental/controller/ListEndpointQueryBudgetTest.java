@@ -0,0 +1,127 @@
+package edu.miu.cs489.dental.controller;
+
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Appointment;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.model.Surgery;
+import edu.miu.cs489.dental.repository.AddressRepository;
+import edu.miu.cs489.dental.repository.AppointmentRepository;
+import edu.miu.cs489.dental.repository.DentistRepository;
+import edu.miu.cs489.dental.repository.PatientRepository;
+import edu.miu.cs489.dental.repository.SurgeryRepository;
+import edu.miu.cs489.dental.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The list endpoints must stay within their query budget (application.properties) however many
+ * rows they return; the test profile enforces budgets, so an N+1 fails the request with a 500.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:querybudget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ListEndpointQueryBudgetTest {
+
+    private static final int ROWS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DentistRepository dentistRepository;
+
+    @Autowired
+    private SurgeryRepository surgeryRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        token = "Bearer " + jwtUtil.generateToken("admin");
+        if (patientRepository.count() >= ROWS) {
+            return; // the context (and its database) is shared by the tests in this class
+        }
+        for (int i = 0; i < ROWS; i++) {
+            Patient patient = new Patient();
+            patient.setPatNo("QB" + i);
+            patient.setName("Budget Patient" + i);
+            patient.setAddress(address(i + " Patient St"));
+            patientRepository.save(patient);
+
+            Dentist dentist = new Dentist();
+            dentist.setDentistName("Dr Budget" + i);
+            dentist.setAddress(address(i + " Dentist St"));
+            dentistRepository.save(dentist);
+
+            Surgery surgery = new Surgery();
+            surgery.setSurgeryNo("QS" + i);
+            surgery.setAddress(address(i + " Surgery St"));
+            surgeryRepository.save(surgery);
+
+            Appointment appointment = new Appointment();
+            appointment.setAppointmentDateTime(LocalDateTime.now().plusDays(1).plusHours(i));
+            appointment.setPatient(patient);
+            appointment.setDentist(dentist);
+            appointment.setSurgery(surgery);
+            appointmentRepository.save(appointment);
+        }
+    }
+
+    private Address address(String street) {
+        Address address = new Address();
+        address.setStreet(street);
+        address.setCity("Fairfield");
+        address.setZipCode("52556");
+        return addressRepository.save(address);
+    }
+
+    @Test
+    public void testPatientsWithinBudget() throws Exception {
+        mockMvc.perform(get("/adsweb/api/v1/patients").header("Authorization", token)).andExpect(status().isOk());
+        mockMvc.perform(get("/adsweb/api/v1/patients?limit=5").header("Authorization", token)).andExpect(status().isOk());
+    }
+
+    @Test
+    public void testDentistsWithinBudget() throws Exception {
+        mockMvc.perform(get("/adsweb/api/v1/dentists").header("Authorization", token)).andExpect(status().isOk());
+    }
+
+    @Test
+    public void testSurgeriesWithinBudget() throws Exception {
+        mockMvc.perform(get("/adsweb/api/v1/surgeries").header("Authorization", token)).andExpect(status().isOk());
+    }
+
+    @Test
+    public void testAddressesWithinBudget() throws Exception {
+        mockMvc.perform(get("/adsweb/api/v1/addresses").header("Authorization", token)).andExpect(status().isOk());
+    }
+
+    @Test
+    public void testAppointmentsWithinBudget() throws Exception {
+        mockMvc.perform(get("/adsweb/api/v1/appointments").header("Authorization", token)).andExpect(status().isOk());
+        mockMvc.perform(get("/adsweb/api/v1/appointments?limit=5").header("Authorization", token)).andExpect(status().isOk());
+    }
+}
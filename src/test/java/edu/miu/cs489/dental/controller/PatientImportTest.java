@@ -0,0 +1,162 @@
+package edu.miu.cs489.dental.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.repository.AddressRepository;
+import edu.miu.cs489.dental.repository.DentistRepository;
+import edu.miu.cs489.dental.repository.PatientRepository;
+import edu.miu.cs489.dental.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bulk import: valid rows are created chunk by chunk, invalid and duplicate ones come back in the
+ * report with their line numbers, and addresses nothing refers to are reused. Chunks hold two rows here.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:patientimport;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "patient-import.chunk-size=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PatientImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private DentistRepository dentistRepository;
+
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        token = "Bearer " + jwtUtil.generateToken("admin");
+    }
+
+    @Test
+    public void testCsvImport() throws Exception {
+        Address unclaimed = new Address();
+        unclaimed.setStreet("9 Unclaimed St");
+        unclaimed.setCity("Fairfield");
+        unclaimed.setZipCode("52556");
+        addressRepository.save(unclaimed);
+        long patientsBefore = patientRepository.count();
+
+        String csv = "name,PAT_NO,street,city,zip\n" +
+                "\"Doe, Jane\",CSV1,1 Import St,Fairfield,52556\n" +
+                ",CSV2,,,\n" +
+                "Half Address,CSV3,2 Import St,,\n" +
+                "\n" +
+                "Jane Again,CSV1,,,\n" +
+                "Existing Patient,P100,,,\n" +
+                "Reuses Address,CSV4,9  unclaimed st,FAIRFIELD,52556\n" +
+                "No Address,CSV5,,,\n";
+        List<JsonNode> lines = importBody("text/csv", csv);
+        JsonNode report = lines.get(lines.size() - 1);
+
+        assertEquals(7, report.get("rowsRead").asLong());
+        assertEquals(3, report.get("imported").asLong());
+        assertEquals(4, report.get("rejected").asLong());
+        assertEquals(1, report.get("addressesReused").asLong());
+        assertEquals(1, report.get("addressesCreated").asLong());
+        assertEquals(patientsBefore + 3, patientRepository.count());
+        assertTrue(report.get("failure").isNull());
+
+        JsonNode rejected = report.get("rejectedRows");
+        assertEquals(3, rejected.get(0).get("line").asLong(), "Rows are reported by line");
+        assertEquals("name is required", rejected.get(0).get("reason").asText());
+        assertEquals(4, rejected.get(1).get("line").asLong());
+        assertEquals(6, rejected.get(2).get("line").asLong(), "A patNo seen earlier in the upload is a duplicate");
+        assertEquals("P100", rejected.get(3).get("patNo").asText());
+
+        // Progress lines come first, one per chunk
+        assertEquals(report.get("chunks").asInt(), lines.size() - 1);
+        assertEquals(1, lines.get(0).get("chunk").asInt());
+    }
+
+    @Test
+    public void testNdjsonImportRejectsMalformedLines() throws Exception {
+        String ndjson = "{\"patNo\":\"ND1\",\"name\":\"Json One\",\"street\":\"3 Json St\",\"city\":\"Ames\",\"zipCode\":\"50010\"}\n" +
+                "{not json\n" +
+                "{\"patNo\":\"ND2\",\"name\":\"Json Two\"}\n";
+        List<JsonNode> lines = importBody("application/x-ndjson", ndjson);
+        JsonNode report = lines.get(lines.size() - 1);
+
+        assertEquals(2, report.get("imported").asLong());
+        assertEquals(1, report.get("rejected").asLong());
+        assertEquals(2, report.get("rejectedRows").get(0).get("line").asLong());
+        assertFalse(report.get("rejectedRowsTruncated").asBoolean());
+    }
+
+    @Test
+    public void testDentistsAddressIsNotReused() throws Exception {
+        Address office = new Address();
+        office.setStreet("5 Dentist Way");
+        office.setCity("Ames");
+        office.setZipCode("50010");
+        addressRepository.save(office);
+        Dentist dentist = new Dentist();
+        dentist.setDentistName("Dr Next Door");
+        dentist.setAddress(office);
+        dentistRepository.save(dentist);
+
+        List<JsonNode> lines = importBody("text/csv", "patNo,name,street,city,zipCode\nCSV9,Next Door,5 Dentist Way,Ames,50010\n");
+        JsonNode report = lines.get(lines.size() - 1);
+
+        assertEquals(1, report.get("imported").asLong());
+        assertEquals(0, report.get("addressesReused").asLong());
+        assertEquals(1, report.get("addressesCreated").asLong());
+    }
+
+    @Test
+    public void testCsvWithoutRequiredColumnsIsRejected() throws Exception {
+        mockMvc.perform(post("/adsweb/api/v1/patients:bulk")
+                        .header("Authorization", token)
+                        .contentType("text/csv")
+                        .content("street,city\n1 Main St,Ames\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<JsonNode> importBody(String contentType, String body) throws Exception {
+        String response = mockMvc.perform(post("/adsweb/api/v1/patients:bulk")
+                        .header("Authorization", token)
+                        .contentType(contentType)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,116 @@
+package edu.miu.cs489.dental.controller;
+
+import edu.miu.cs489.dental.model.Role;
+import edu.miu.cs489.dental.model.User;
+import edu.miu.cs489.dental.repository.RoleRepository;
+import edu.miu.cs489.dental.repository.UserRepository;
+import edu.miu.cs489.dental.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Role changes, renames and deletions take effect on the next request rather than when the cached
+ * principal expires, including when a request slips in between the flush and the commit. A user
+ * without the office manager role is refused the endpoint used here.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:principalcache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PrincipalCacheInvalidationTest {
+
+    // Only office managers may read it
+    private static final String MANAGER_ONLY = "/adsweb/api/v1/metrics/principal-cache";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void testRoleChangeDuringTheTransactionIsSeenAfterCommit() throws Exception {
+        User user = user("promoted", "ROLE_USER");
+        call(user.getUsername()).andExpect(status().is(not(200)));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User loaded = userRepository.findByUsername(user.getUsername()).orElseThrow();
+            loaded.setRole(role("ROLE_OFFICE_MANAGER"));
+            userRepository.flush();
+            // Another request between flush and commit still sees, and caches, the old role
+            CompletableFuture.runAsync(() -> {
+                try {
+                    call(user.getUsername()).andExpect(status().is(not(200)));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }).join();
+        });
+
+        call(user.getUsername()).andExpect(status().isOk());
+    }
+
+    @Test
+    public void testRenamedUserIsEvictedUnderTheOldName() throws Exception {
+        user("renamed", "ROLE_OFFICE_MANAGER");
+        call("renamed").andExpect(status().isOk());
+
+        transactionTemplate.executeWithoutResult(status ->
+                userRepository.findByUsername("renamed").orElseThrow().setUsername("renamed-later"));
+
+        call("renamed").andExpect(status().isForbidden());
+        call("renamed-later").andExpect(status().isOk());
+    }
+
+    @Test
+    public void testDeletedUserIsRejected() throws Exception {
+        User user = user("deleted", "ROLE_OFFICE_MANAGER");
+        call("deleted").andExpect(status().isOk());
+
+        userRepository.deleteById(user.getId());
+
+        call("deleted").andExpect(status().isForbidden());
+    }
+
+    private ResultActions call(String username) throws Exception {
+        return mockMvc.perform(get(MANAGER_ONLY).header("Authorization", "Bearer " + jwtUtil.generateToken(username)));
+    }
+
+    private User user(String username, String roleName) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("unused");
+        user.setRole(role(roleName));
+        return userRepository.save(user);
+    }
+
+    // Not findByRoleName: its cached result would outlive this context's database in the JVM-wide
+    // cache manager and hand other test contexts a role id their database does not have
+    private Role role(String roleName) {
+        return roleRepository.findAll().stream().filter(r -> roleName.equals(r.getRoleName())).findFirst().orElseGet(() -> {
+            Role role = new Role();
+            role.setRoleName(roleName);
+            return roleRepository.save(role);
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package edu.miu.cs489.dental.controller;
+
+import edu.miu.cs489.dental.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /actuator/prometheus answers direct requests from the scrape network without a token; a request
+ * from elsewhere, or one relayed by a proxy, needs an office manager's token. Probes stay public.
+ * Metrics export is off in tests by default, so it is switched back on here.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prometheussecurity;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "monitoring.scrape-networks=10.244.0.0/16"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+public class PrometheusEndpointSecurityTest {
+
+    private static final String SCRAPE = "/actuator/prometheus";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    public void testScrapeNetworkNeedsNoToken() throws Exception {
+        mockMvc.perform(from("10.244.3.17", get(SCRAPE))).andExpect(status().isOk());
+    }
+
+    @Test
+    public void testOtherAddressesAreRefused() throws Exception {
+        mockMvc.perform(from("203.0.113.5", get(SCRAPE))).andExpect(status().is(not(200)));
+        // Loopback is not in the configured network either
+        mockMvc.perform(from("127.0.0.1", get(SCRAPE))).andExpect(status().is(not(200)));
+    }
+
+    @Test
+    public void testProxiedRequestsAreRefused() throws Exception {
+        mockMvc.perform(from("10.244.3.17", get(SCRAPE)).header("X-Forwarded-For", "203.0.113.5"))
+                .andExpect(status().is(not(200)));
+    }
+
+    @Test
+    public void testOfficeManagerMayReadItFromAnywhere() throws Exception {
+        mockMvc.perform(from("203.0.113.5", get(SCRAPE)).header("Authorization", "Bearer " + jwtUtil.generateToken("admin")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testProbesStayPublic() throws Exception {
+        mockMvc.perform(from("203.0.113.5", get("/actuator/health/liveness"))).andExpect(status().isOk());
+    }
+
+    private static MockHttpServletRequestBuilder from(String address, MockHttpServletRequestBuilder request) {
+        return request.with(r -> {
+            r.setRemoteAddr(address);
+            return r;
+        });
+    }
+}
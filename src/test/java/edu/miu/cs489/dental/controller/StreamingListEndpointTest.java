@@ -0,0 +1,177 @@
+package edu.miu.cs489.dental.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.cs489.dental.dto.AddressDto;
+import edu.miu.cs489.dental.dto.CursorPage;
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Appointment;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.model.Surgery;
+import edu.miu.cs489.dental.repository.AddressRepository;
+import edu.miu.cs489.dental.repository.AppointmentRepository;
+import edu.miu.cs489.dental.repository.DentistRepository;
+import edu.miu.cs489.dental.repository.PatientRepository;
+import edu.miu.cs489.dental.repository.SurgeryRepository;
+import edu.miu.cs489.dental.security.JwtUtil;
+import edu.miu.cs489.dental.service.AddressService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A streamed listing (?stream=true) must carry exactly the JSON the buffered listing returns. The
+ * stream is read in keyset pages, so walking the pages one row at a time must give the same rows.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:streaming;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class StreamingListEndpointTest {
+
+    private static final int ROWS = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private AddressService addressService;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DentistRepository dentistRepository;
+
+    @Autowired
+    private SurgeryRepository surgeryRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private String token;
+
+    @BeforeEach
+    public void setUp() {
+        token = "Bearer " + jwtUtil.generateToken("admin");
+        if (patientRepository.count() >= ROWS) {
+            return; // the context (and its database) is shared by the tests in this class
+        }
+        for (int i = 0; i < ROWS; i++) {
+            Patient patient = new Patient();
+            patient.setPatNo("ST" + i);
+            patient.setName("Stream Patient" + i);
+            patient.setAddress(address(i + " Stream St"));
+            patientRepository.save(patient);
+
+            Dentist dentist = new Dentist();
+            dentist.setDentistName("Dr Stream" + i);
+            dentistRepository.save(dentist);
+
+            Surgery surgery = new Surgery();
+            surgery.setSurgeryNo("SS" + i);
+            surgery.setAddress(address(i + " Surgery St"));
+            surgeryRepository.save(surgery);
+
+            Appointment appointment = new Appointment();
+            appointment.setAppointmentDateTime(LocalDateTime.now().plusDays(1).plusHours(i));
+            appointment.setPatient(patient);
+            appointment.setDentist(dentist);
+            appointment.setSurgery(surgery);
+            appointmentRepository.save(appointment);
+        }
+    }
+
+    private Address address(String street) {
+        Address address = new Address();
+        address.setStreet(street);
+        address.setCity("Fairfield");
+        address.setZipCode("52556");
+        return addressRepository.save(address);
+    }
+
+    @Test
+    public void testStreamedPatientsMatchList() throws Exception {
+        assertSameJson("/adsweb/api/v1/patients");
+    }
+
+    @Test
+    public void testStreamedAddressesMatchList() throws Exception {
+        assertSameJson("/adsweb/api/v1/addresses");
+    }
+
+    @Test
+    public void testStreamedAppointmentsMatchList() throws Exception {
+        assertSameJson("/adsweb/api/v1/appointments");
+    }
+
+    @Test
+    public void testAddressPagesFollowTheListOrder() {
+        // Cities differing only in case, and none at all, sort as the list does
+        for (String city : new String[]{"ames", "Ames", null, "Zearing"}) {
+            Address address = new Address();
+            address.setStreet("1 Page St");
+            address.setCity(city);
+            addressRepository.save(address);
+        }
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<AddressDto> page = addressService.getAddressDtosPage(1, cursor);
+            page.items().forEach(a -> paged.add(a.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(addressService.getAllAddresses().stream().map(AddressDto::id).toList(), paged);
+    }
+
+    @Test
+    public void testStreamedAppointmentsRejectInvertedWindow() throws Exception {
+        mockMvc.perform(get("/adsweb/api/v1/appointments?stream=true&from=2025-02-01T00:00&to=2025-01-01T00:00")
+                        .header("Authorization", token))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void assertSameJson(String path) throws Exception {
+        String listed = mockMvc.perform(get(path).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        MvcResult started = mockMvc.perform(get(path + "?stream=true").header("Authorization", token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String streamed = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode expected = objectMapper.readTree(listed);
+        assertTrue(expected.size() >= ROWS, "Fixture rows should be listed");
+        assertEquals(expected, objectMapper.readTree(streamed), "Streaming should not change the response body");
+    }
+}
@@ -0,0 +1,69 @@
+package edu.miu.cs489.dental.monitoring;
+
+import edu.miu.cs489.dental.configuration.ReplicaRoutingDataSource;
+import edu.miu.cs489.dental.service.PatientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Connection hold times are measured on the pools behind the replica routing, not on the lazy
+ * proxy in front of it: a transaction that never runs a statement borrows no connection and records
+ * nothing. The "replica" is a read-only pool on the primary's own in-memory database.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:connectionhold;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "datasource.replicas.urls=jdbc:h2:mem:connectionhold;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "datasource.replicas.check-ms=600000"
+})
+@ActiveProfiles("test")
+public class ConnectionHoldTimeTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testOnlyBorrowedConnectionsAreTimed() throws Exception {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+        // Let the one lag check made at startup finish, so its connections are not counted below
+        ReplicaRoutingDataSource.Replica replica = dataSource.unwrap(ReplicaRoutingDataSource.class).getReplicas().get(0);
+        for (int i = 0; i < 100 && replica.getLagMillis() == Long.MAX_VALUE; i++) {
+            Thread.sleep(50);
+        }
+
+        long before = holds();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+        });
+        assertEquals(before, holds(), "A transaction without statements was timed");
+
+        patientService.getAllPatients();
+        assertTrue(holds() > before, "A read was not timed");
+    }
+
+    private long holds() {
+        return meterRegistry.find("dental.db.connection.hold").timers().stream().mapToLong(Timer::count).sum();
+    }
+}
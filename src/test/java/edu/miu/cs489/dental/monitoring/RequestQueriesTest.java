@@ -0,0 +1,56 @@
+package edu.miu.cs489.dental.monitoring;
+
+import edu.miu.cs489.dental.exception.QueryBudgetExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for per-request statement tracking and N+1 detection
+ */
+public class RequestQueriesTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestQueries.stop();
+    }
+
+    @Test
+    public void testShapeOf_CollapsesLiteralsInListsAndWhitespace() {
+        assertEquals("select * from patient p1_0 where p1_0.id in (?) and p1_0.pat_no=?",
+                RequestQueries.shapeOf("select *\n  from patient p1_0 where p1_0.id in (?, ?, ?) and p1_0.pat_no='P100'"));
+    }
+
+    @Test
+    public void testRepeatedShapeIsReportedOnceWithStack() {
+        RequestQueries.start("GET /adsweb/api/v1/appointments", 100, 3, false);
+        RequestQueries.statement("select a1_0.id from appointment a1_0");
+        for (int i = 0; i < 5; i++) {
+            RequestQueries.statement("select d1_0.id from dentist d1_0 where d1_0.address_id=?");
+        }
+
+        RequestQueries.Tracker tracker = RequestQueries.stop();
+        assertEquals(6, tracker.getCount());
+        assertEquals(1, tracker.getRepeatedShapes().size());
+        assertEquals(5, tracker.getRepeatedShapes().get(0).getCount());
+        assertFalse(tracker.getRepeatedShapes().get(0).getStack().isEmpty());
+        assertFalse(tracker.isOverBudget());
+    }
+
+    @Test
+    public void testEnforcedBudgetFailsTheStatementOverIt() {
+        RequestQueries.start("GET /adsweb/api/v1/patients", 2, 5, true);
+        RequestQueries.statement("select 1");
+        RequestQueries.statement("select 2");
+
+        assertThrows(QueryBudgetExceededException.class, () -> RequestQueries.statement("select 3"));
+    }
+
+    @Test
+    public void testUntrackedThreadIsIgnored() {
+        RequestQueries.statement("select 1");
+
+        assertNull(RequestQueries.stop());
+    }
+}
@@ -0,0 +1,221 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.dto.AppointmentDto;
+import edu.miu.cs489.dental.dto.AppointmentFilter;
+import edu.miu.cs489.dental.dto.CursorPage;
+import edu.miu.cs489.dental.model.Appointment;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.model.Surgery;
+import edu.miu.cs489.dental.repository.AppointmentRepository;
+import edu.miu.cs489.dental.repository.DentistRepository;
+import edu.miu.cs489.dental.repository.PatientRepository;
+import edu.miu.cs489.dental.repository.SurgeryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyset paging of appointments: walking the pages one cursor at a time must give exactly the rows
+ * of the filter, in date/time then id order, whatever the page size. Covers rows sharing a
+ * timestamp, rows with no date/time (which sort first) and every combination of filters. The
+ * expected rows are worked out in Java from all appointments in the database.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:appointmentpaging;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE")
+@ActiveProfiles("test")
+public class AppointmentPagingTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2040, 1, 1, 9, 0);
+
+    // Three without a date/time, four sharing T0, then two more sharing a later slot
+    private static final List<LocalDateTime> TIMES = Arrays.asList(
+            null, null, null, T0, T0, T0, T0, T0.plusHours(1), T0.plusDays(1), T0.plusDays(2), T0.plusDays(2), T0.plusDays(3));
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DentistRepository dentistRepository;
+
+    @Autowired
+    private SurgeryRepository surgeryRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private static Dentist dentist;
+    private static Surgery surgery;
+    private static Patient patient;
+
+    @BeforeEach
+    public void setUp() {
+        if (dentist != null) return;
+        Dentist[] dentists = {dentist("Dr Keyset"), dentist("Dr Cursor")};
+        Surgery[] surgeries = {surgery("KS1"), surgery("KS2")};
+        Patient[] patients = {patient("KP1", "Paige Keyset"), patient("KP2", "Kurt Cursor")};
+        // Saved directly, not booked: several of these share a dentist and a slot on purpose
+        for (int i = 0; i < TIMES.size(); i++) {
+            Appointment appointment = new Appointment();
+            appointment.setAppointmentDateTime(TIMES.get(i));
+            appointment.setDentist(dentists[i % 2]);
+            appointment.setSurgery(surgeries[(i / 2) % 2]);
+            appointment.setPatient(patients[(i / 4) % 2]);
+            appointmentRepository.save(appointment);
+        }
+        dentist = dentists[0];
+        surgery = surgeries[0];
+        patient = patients[0];
+    }
+
+    @Test
+    public void testEveryFilterCombinationPagesThroughAllRows() {
+        for (int mask = 0; mask < 32; mask++) {
+            AppointmentFilter filter = new AppointmentFilter(
+                    (mask & 1) != 0 ? T0 : null,
+                    (mask & 2) != 0 ? T0.plusDays(2) : null,
+                    (mask & 4) != 0 ? dentist.getId() : null,
+                    (mask & 8) != 0 ? surgery.getId() : null,
+                    (mask & 16) != 0 ? patient.getId() : null);
+            List<Long> expected = expectedIds(filter);
+            for (int limit : new int[]{1, 2, 5, AppointmentService.MAX_PAGE_SIZE}) {
+                assertEquals(expected, entityPages(filter, limit), "entities, filter " + filter + ", limit " + limit);
+                assertEquals(expected, dtoPages(filter, limit), "DTOs, filter " + filter + ", limit " + limit);
+            }
+        }
+    }
+
+    @Test
+    public void testRowsSharingATimestampAreNeitherSkippedNorRepeated() {
+        AppointmentFilter filter = new AppointmentFilter(T0, T0.plusHours(1), null, null, null);
+        List<Long> expected = expectedIds(filter);
+        assertEquals(4, expected.size());
+
+        CursorPage<Appointment> first = appointmentService.getAppointmentsPage(filter, 3, null);
+        assertEquals(expected.subList(0, 3), first.items().stream().map(Appointment::getId).toList());
+        CursorPage<Appointment> second = appointmentService.getAppointmentsPage(filter, 3, first.nextCursor());
+        assertEquals(expected.subList(3, 4), second.items().stream().map(Appointment::getId).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    public void testRowsWithoutADateTimeComeFirstAndPage() {
+        AppointmentFilter filter = new AppointmentFilter(null, null, null, null, null);
+        List<Long> nullTimes = transactionTemplate.execute(status -> appointmentRepository.findAll().stream()
+                .filter(a -> a.getAppointmentDateTime() == null)
+                .map(Appointment::getId)
+                .sorted()
+                .toList());
+        assertEquals(3, nullTimes.size());
+
+        CursorPage<AppointmentDto> page = appointmentService.getAppointmentDtosPage(filter, 1, null);
+        List<Long> seen = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(page.nextCursor());
+            seen.add(page.items().get(0).id());
+            page = appointmentService.getAppointmentDtosPage(filter, 1, page.nextCursor());
+        }
+        assertEquals(nullTimes, seen);
+        assertNotNull(page.items().get(0).appointmentDateTime());
+    }
+
+    @Test
+    public void testInvalidCursorsAreRejected() {
+        AppointmentFilter filter = new AppointmentFilter(null, null, null, null, null);
+        for (String cursor : List.of("not a cursor!", encode("no separator"), encode("2040-01-01T09:00:abc"),
+                encode("yesterday:5"), encode("2040-13-01T09:00:5"))) {
+            assertThrows(IllegalArgumentException.class, () -> appointmentService.getAppointmentsPage(filter, 10, cursor), cursor);
+            assertThrows(IllegalArgumentException.class, () -> appointmentService.getAppointmentDtosPage(filter, 10, cursor), cursor);
+        }
+    }
+
+    @Test
+    public void testInvertedWindowAndLimitAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.getAppointmentsPage(
+                new AppointmentFilter(T0, T0, null, null, null), 10, null));
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.getAppointmentsPage(
+                new AppointmentFilter(null, null, null, null, null), 0, null));
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.getAppointmentDtosPage(
+                new AppointmentFilter(null, null, null, null, null), AppointmentService.MAX_PAGE_SIZE + 1, null));
+    }
+
+    private List<Long> entityPages(AppointmentFilter filter, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Appointment> page = appointmentService.getAppointmentsPage(filter, limit, cursor);
+            assertTrue(page.items().size() <= limit);
+            page.items().forEach(a -> ids.add(a.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private List<Long> dtoPages(AppointmentFilter filter, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<AppointmentDto> page = appointmentService.getAppointmentDtosPage(filter, limit, cursor);
+            assertTrue(page.items().size() <= limit);
+            page.items().forEach(a -> ids.add(a.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    // Includes the sample appointments loaded at startup
+    private List<Long> expectedIds(AppointmentFilter filter) {
+        return transactionTemplate.execute(status -> appointmentRepository.findAll().stream()
+                .filter(a -> filter.from() == null || (a.getAppointmentDateTime() != null && !a.getAppointmentDateTime().isBefore(filter.from())))
+                .filter(a -> filter.to() == null || (a.getAppointmentDateTime() != null && a.getAppointmentDateTime().isBefore(filter.to())))
+                .filter(a -> filter.dentistId() == null || (a.getDentist() != null && Objects.equals(a.getDentist().getId(), filter.dentistId())))
+                .filter(a -> filter.surgeryId() == null || (a.getSurgery() != null && Objects.equals(a.getSurgery().getId(), filter.surgeryId())))
+                .filter(a -> filter.patientId() == null || (a.getPatient() != null && Objects.equals(a.getPatient().getId(), filter.patientId())))
+                .sorted(Comparator.comparing(Appointment::getAppointmentDateTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(Appointment::getId))
+                .map(Appointment::getId)
+                .toList());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Dentist dentist(String name) {
+        Dentist dentist = new Dentist();
+        dentist.setDentistName(name);
+        return dentistRepository.save(dentist);
+    }
+
+    private Surgery surgery(String surgeryNo) {
+        Surgery surgery = new Surgery();
+        surgery.setSurgeryNo(surgeryNo);
+        return surgeryRepository.save(surgery);
+    }
+
+    private Patient patient(String patNo, String name) {
+        Patient patient = new Patient();
+        patient.setPatNo(patNo);
+        patient.setName(name);
+        return patientRepository.save(patient);
+    }
+}
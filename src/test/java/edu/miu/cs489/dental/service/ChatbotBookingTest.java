@@ -0,0 +1,158 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.dto.ChatResponseDto;
+import edu.miu.cs489.dental.model.Appointment;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.repository.DentistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * A chat booking for a slot that is already taken gets the conflict as its reply, on both the
+ * blocking and the streaming path, instead of failing the commit and dropping to the rules engine.
+ * Gemini is stubbed to extract the booking details.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:chatbotbooking;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE")
+@ActiveProfiles("test")
+public class ChatbotBookingTest {
+
+    private static final String MESSAGE = "book Quillon Bookwright with Dr Occupied";
+
+    @MockBean
+    private GeminiAIService geminiAIService;
+
+    @Autowired
+    private ChatbotService chatbotService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DentistRepository dentistRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static Dentist dentist;
+
+    @BeforeEach
+    public void setUp() {
+        if (dentist == null) {
+            Patient patient = new Patient();
+            patient.setPatNo("QB1");
+            patient.setName("Quillon Bookwright");
+            patientService.createPatient(patient);
+
+            dentist = new Dentist();
+            dentist.setDentistName("Dr Occupied");
+            dentist = dentistRepository.save(dentist);
+        }
+        when(geminiAIService.isAvailable()).thenReturn(true);
+    }
+
+    @Test
+    public void testOccupiedSlotIsAnsweredWithTheConflict() {
+        LocalDateTime at = LocalDateTime.of(2031, 4, 1, 9, 0);
+        bookDirectly(at);
+        stubGemini(at.plusMinutes(10));
+
+        ChatResponseDto response = chatbotService.processMessage(MESSAGE);
+
+        assertEquals("text", response.getType());
+        assertTrue(response.getMessage().startsWith("❌"), response.getMessage());
+        assertTrue(response.getMessage().contains("already booked"), response.getMessage());
+        assertEquals(1, appointmentsOn(at));
+    }
+
+    @Test
+    public void testOccupiedSlotIsAnsweredWithTheConflictWhenStreaming() throws Exception {
+        LocalDateTime at = LocalDateTime.of(2031, 4, 2, 9, 0);
+        bookDirectly(at);
+        stubGemini(at.plusMinutes(10));
+
+        List<String> events = new ArrayList<>();
+        List<ChatResponseDto> done = new ArrayList<>();
+        chatbotService.streamMessageAsync(MESSAGE, new ChatStreamListener() {
+            @Override
+            public void intent(String intent, String source) {
+                events.add("intent:" + intent);
+            }
+
+            @Override
+            public void text(String delta) {
+                events.add("text");
+            }
+
+            @Override
+            public void rows(String type, List<?> rows) {
+                events.add("rows");
+            }
+
+            @Override
+            public void done(ChatResponseDto response) {
+                events.add("done");
+                done.add(response);
+            }
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of("intent:make_appointment", "done"), events);
+        assertTrue(done.get(0).getMessage().contains("already booked"), done.get(0).getMessage());
+        assertEquals(1, appointmentsOn(at));
+    }
+
+    @Test
+    public void testFreeSlotIsBooked() {
+        LocalDateTime at = LocalDateTime.of(2031, 4, 3, 9, 0);
+        stubGemini(at);
+
+        ChatResponseDto response = chatbotService.processMessage(MESSAGE);
+
+        assertEquals("appointment_created", response.getType());
+        assertNotNull(response.getData());
+    }
+
+    private void stubGemini(LocalDateTime at) {
+        String json = "{\"intent\":\"make_appointment\",\"extracted_data\":{" +
+                "\"patient_info\":\"Quillon Bookwright\",\"dentist_info\":\"Dr Occupied\"," +
+                "\"datetime\":\"" + at.toLocalDate() + " " + at.toLocalTime() + "\"},\"response_message\":\"\"}";
+        when(geminiAIService.processWithAIAsync(anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(json));
+        when(geminiAIService.streamWithAIAsync(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(json));
+    }
+
+    private void bookDirectly(LocalDateTime at) {
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentDateTime(at);
+        appointment.setDentist(dentist);
+        appointmentService.createAppointment(appointment);
+    }
+
+    private int appointmentsOn(LocalDateTime day) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM appointment WHERE dentist_id = ? AND appointment_date_time >= ? AND appointment_date_time < ?",
+                Integer.class, dentist.getId(), day.toLocalDate().atStartOfDay(), day.toLocalDate().plusDays(1).atStartOfDay());
+    }
+}
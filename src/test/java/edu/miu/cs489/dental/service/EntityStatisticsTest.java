@@ -0,0 +1,108 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.configuration.DataVersions;
+import edu.miu.cs489.dental.configuration.IdSequences;
+import edu.miu.cs489.dental.dto.StatsDto;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.repository.DataVersionRepository;
+import edu.miu.cs489.dental.repository.DentistRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Counts follow this node's own writes at once, and another node's writes once its version bump
+ * has been polled and the counts seeded again. Both run every 100 ms here; rows written with plain
+ * JDBC stand in for the other node.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:entitystatistics;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "cache.invalidation.poll-ms=100",
+        "statistics.refresh-ms=100"
+})
+@ActiveProfiles("test")
+public class EntityStatisticsTest {
+
+    @Autowired
+    private EntityStatistics entityStatistics;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DentistRepository dentistRepository;
+
+    @Autowired
+    private DataVersionRepository versionRepository;
+
+    @Autowired
+    private IdSequences idSequences;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void testOwnWritesAreCountedAtOnce() {
+        long before = entityStatistics.getPatientCount();
+
+        Patient patient = new Patient();
+        patient.setPatNo("ES1");
+        patient.setName("Esme Counted");
+        Long id = patientService.createPatient(patient).getId();
+        assertEquals(before + 1, entityStatistics.getPatientCount());
+
+        patientService.deletePatient(id);
+        assertEquals(before, entityStatistics.getPatientCount());
+    }
+
+    @Test
+    public void testAnotherNodesWritesAreCountedAfterItsBump() throws Exception {
+        Dentist dentist = new Dentist();
+        dentist.setDentistName("Dr Elsewhere");
+        Long dentistId = dentistRepository.save(dentist).getId();
+        LocalDate day = LocalDate.of(2041, 6, 1);
+
+        // Written straight to the tables, as another node would: no listener on this node sees them
+        long patientId = idSequences.reserve(IdSequences.PATIENT, 1);
+        jdbcTemplate.update("INSERT INTO patient (id, version, pat_no, name, last_name_key) VALUES (?, 0, ?, ?, ?)",
+                patientId, "EN1", "Enzo Nodewise", "nodewise");
+        long appointmentId = idSequences.reserve(IdSequences.APPOINTMENT, 1);
+        jdbcTemplate.update("INSERT INTO appointment (id, version, appointment_date_time, dentist_id) VALUES (?, 0, ?, ?)",
+                appointmentId, day.atTime(10, 0), dentistId);
+        assertNull(entityStatistics.snapshot().appointmentsPerDay().get(day));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            versionRepository.bump(DataVersions.PATIENTS);
+            versionRepository.bump(DataVersions.APPOINTMENTS);
+        });
+
+        StatsDto stats = awaitReseed(day);
+        assertEquals(count("patient"), stats.patients());
+        assertEquals(count("appointment"), stats.appointments());
+        assertEquals(1L, stats.appointmentsPerDay().get(day));
+        assertEquals(1L, stats.appointmentsPerDentist().get(dentistId));
+    }
+
+    private StatsDto awaitReseed(LocalDate day) throws InterruptedException {
+        for (int i = 0; i < 100 && entityStatistics.snapshot().appointmentsPerDay().get(day) == null; i++) {
+            Thread.sleep(50);
+        }
+        return entityStatistics.snapshot();
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}
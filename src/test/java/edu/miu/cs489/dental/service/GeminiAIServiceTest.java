@@ -0,0 +1,180 @@
+package edu.miu.cs489.dental.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.miu.cs489.dental.util.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The Gemini gateway against a stub server on localhost: the circuit opening after failed calls and
+ * closing again after a successful trial, hedging to the next model once the first has been slower
+ * than the latency percentile, and the fallback when nothing answers within the deadline. Each model
+ * can be made slow; the stub answers every request with a help intent, or with the set status.
+ */
+public class GeminiAIServiceTest {
+
+    private static final String CONTEXT = "The dental system has 5 patients and 3 dentists registered.";
+    private static final String FIRST_MODEL = "gemini-2.5-flash";
+    private static final String SECOND_MODEL = "gemini-2.5-pro";
+
+    private HttpServer server;
+    private GeminiAIService service;
+
+    // Model names in the order the stub received them
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final Map<String, Long> delayMs = new ConcurrentHashMap<>();
+    private volatile long defaultDelayMs = 0;
+    private volatile int status = 200;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v1/models/", this::answer);
+        // Slow answers must not hold up the others
+        server.setExecutor(Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "gemini-stub");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+    }
+
+    @AfterEach
+    public void stop() {
+        if (service != null) {
+            service.shutdown();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void testCircuitOpensAfterFailedCallsAndClosesAfterSuccessfulTrial() throws Exception {
+        service = service(8000, 10_000, 2, 300);
+        status = 500;
+
+        assertNull(service.processWithAIAsync("alpha", CONTEXT).get());
+        assertEquals(8, requests.size(), "every model is tried once");
+        assertEquals(CircuitBreaker.State.CLOSED, service.getCircuitState());
+
+        assertNull(service.processWithAIAsync("bravo", CONTEXT).get());
+        assertEquals(CircuitBreaker.State.OPEN, service.getCircuitState());
+        assertFalse(service.isAvailable());
+
+        assertNull(service.processWithAIAsync("charlie", CONTEXT).get());
+        assertEquals(16, requests.size(), "no request while the circuit is open");
+
+        Thread.sleep(350);
+        status = 200;
+        assertTrue(service.isAvailable());
+        assertNotNull(service.processWithAIAsync("delta", CONTEXT).get());
+        assertEquals(CircuitBreaker.State.CLOSED, service.getCircuitState());
+        assertEquals(17, requests.size());
+    }
+
+    @Test
+    public void testHedgesAfterTheLatencyPercentile() throws Exception {
+        // The default delay is past the deadline, so only recorded latencies can bring the hedge forward
+        service = service(3000, 10_000, 5, 30_000);
+        assertNotNull(service.processWithAIAsync("alpha", CONTEXT).get());
+        assertEquals(List.of(FIRST_MODEL), requests);
+
+        delayMs.put(FIRST_MODEL, 2500L);
+        long startedAt = System.currentTimeMillis();
+        assertNotNull(service.processWithAIAsync("bravo", CONTEXT).get());
+        long elapsed = System.currentTimeMillis() - startedAt;
+
+        assertEquals(List.of(FIRST_MODEL, FIRST_MODEL, SECOND_MODEL), requests);
+        assertTrue(elapsed < 1500, "answered by the hedge after " + elapsed + " ms");
+        assertEquals(CircuitBreaker.State.CLOSED, service.getCircuitState());
+    }
+
+    @Test
+    public void testHedgesAfterTheDefaultDelayBeforeAnyLatencyIsKnown() throws Exception {
+        service = service(3000, 300, 5, 30_000);
+        delayMs.put(FIRST_MODEL, 2500L);
+
+        long startedAt = System.currentTimeMillis();
+        assertNotNull(service.processWithAIAsync("alpha", CONTEXT).get());
+        long elapsed = System.currentTimeMillis() - startedAt;
+
+        assertEquals(List.of(FIRST_MODEL, SECOND_MODEL), requests);
+        assertTrue(elapsed >= 300 && elapsed < 1500, "answered by the hedge after " + elapsed + " ms");
+    }
+
+    @Test
+    public void testDeadlineFallsBackAndCountsAgainstTheCircuit() throws Exception {
+        service = service(400, 10_000, 1, 30_000);
+        // Every model is slow: the call timeout on the first must not let a second one answer instead
+        defaultDelayMs = 3000;
+
+        long startedAt = System.currentTimeMillis();
+        assertNull(service.processWithAIAsync("alpha", CONTEXT).get());
+        long elapsed = System.currentTimeMillis() - startedAt;
+
+        assertTrue(elapsed >= 400 && elapsed < 2000, "fell back after " + elapsed + " ms");
+        assertEquals(CircuitBreaker.State.OPEN, service.getCircuitState());
+        assertFalse(service.isAvailable());
+    }
+
+    private GeminiAIService service(long deadlineMs, long hedgeDefaultDelayMs, int failureThreshold, long openMs) {
+        GeminiAIService service = new GeminiAIService(deadlineMs, 0.5, hedgeDefaultDelayMs, failureThreshold, openMs, 64,
+                "http://localhost:" + server.getAddress().getPort() + "/v1/models");
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        ReflectionTestUtils.setField(service, "responseCache", new GeminiResponseCache(600, 100, 1_000_000));
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        return service;
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            String path = exchange.getRequestURI().getPath();
+            String model = path.substring(path.lastIndexOf('/') + 1, path.indexOf(':'));
+            requests.add(model);
+            Thread.sleep(delayMs.getOrDefault(model, defaultDelayMs));
+
+            byte[] body = (status == 200 ? helpReply() : "{\"error\":{}}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // The gateway hung up on a losing or late call
+        }
+    }
+
+    private static String helpReply() {
+        JsonObject part = new JsonObject();
+        part.addProperty("text", "{\"intent\": \"help\", \"response_message\": \"How can I help?\"}");
+        JsonArray parts = new JsonArray();
+        parts.add(part);
+        JsonObject content = new JsonObject();
+        content.add("parts", parts);
+        JsonObject candidate = new JsonObject();
+        candidate.add("content", content);
+        JsonArray candidates = new JsonArray();
+        candidates.add(candidate);
+        JsonObject reply = new JsonObject();
+        reply.add("candidates", candidates);
+        return reply.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package edu.miu.cs489.dental.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Gemini intent-response cache
+ */
+public class GeminiResponseCacheTest {
+
+    private static final String CONTEXT = "The dental system has 5 patients and 3 dentists registered.";
+
+    @Test
+    public void testKeyOf_NearIdenticalMessagesShareAKey() {
+        GeminiResponseCache cache = new GeminiResponseCache(600, 100, 1_000_000);
+
+        assertEquals(cache.keyOf("show appointments", CONTEXT), cache.keyOf("Show all appointments, please!", CONTEXT));
+        assertNotEquals(cache.keyOf("show appointments", CONTEXT), cache.keyOf("show appointments", CONTEXT + " "),
+                "A different system context should not share cached answers");
+    }
+
+    @Test
+    public void testGet_HitAfterPutAndCountsRatio() {
+        GeminiResponseCache cache = new GeminiResponseCache(600, 100, 1_000_000);
+        String key = cache.keyOf("list dentists", CONTEXT);
+
+        assertNull(cache.get(key));
+        cache.put(key, "{\"intent\":\"list_dentists\"}");
+        assertEquals("{\"intent\":\"list_dentists\"}", cache.get(key));
+
+        GeminiResponseCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRatio());
+        assertTrue(stats.bytes() > 0);
+    }
+
+    @Test
+    public void testPut_EvictsLeastRecentlyUsedOverEntryLimit() {
+        GeminiResponseCache cache = new GeminiResponseCache(600, 2, 1_000_000);
+        cache.put("a", "{}");
+        cache.put("b", "{}");
+        cache.get("a");
+        cache.put("c", "{}");
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"), "Least recently used entry should be evicted");
+        assertEquals(2, cache.stats().size());
+        assertEquals(1, cache.stats().evictions());
+    }
+}
@@ -0,0 +1,44 @@
+package edu.miu.cs489.dental.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the local chat intent classifier trained on the bundled utterances
+ */
+public class IntentClassifierTest {
+
+    private final IntentClassifier classifier = new IntentClassifier(new ClassPathResource("chatbot/intents.tsv"), 0.85);
+
+    @Test
+    public void testClassify_ConfidentOnCommonRequests() {
+        assertPrediction("help", "help");
+        assertPrediction("list all dentists", "list_dentists");
+        assertPrediction("can you show me every patient please", "list_patients");
+        assertPrediction("show me upcoming appointments", "list_appointments");
+    }
+
+    @Test
+    public void testClassify_SearchTermIsTheUnseenWords() {
+        IntentClassifier.Prediction prediction = classifier.classify("look up dentist Brown");
+
+        assertEquals("search_dentist", prediction.intent());
+        assertTrue(classifier.isConfident(prediction));
+        assertEquals("Brown", prediction.searchTerm());
+    }
+
+    @Test
+    public void testClassify_UnknownWordsAreNotConfident() {
+        IntentClassifier.Prediction prediction = classifier.classify("xyz qwerty");
+
+        assertFalse(classifier.isConfident(prediction), "Messages with no known words should go to the LLM");
+    }
+
+    private void assertPrediction(String message, String expectedIntent) {
+        IntentClassifier.Prediction prediction = classifier.classify(message);
+        assertEquals(expectedIntent, prediction.intent(), "Intent for '" + message + "'");
+        assertTrue(classifier.isConfident(prediction), "Confidence for '" + message + "' was " + prediction.confidence());
+    }
+}
@@ -0,0 +1,88 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.configuration.IdSequences;
+import edu.miu.cs489.dental.model.Patient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The trigram index answers correctly while writes sit in its delta and after they are folded into
+ * the posting arrays (the delta is kept tiny here), and a rebuild picks up patients written by
+ * another node.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:patientsearch;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE",
+        "patient-search.max-delta=20"
+})
+@ActiveProfiles("test")
+public class PatientSearchIndexTest {
+
+    @Autowired
+    private PatientSearchIndex patientSearchIndex;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private IdSequences idSequences;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testWritesAreFoundBeforeAndAfterCompaction() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(patientService.createPatient(patient("ZQ" + i, "Zebulon Quartzfield " + i)).getId());
+        }
+        assertEquals(30, patientSearchIndex.search("quartzfield", 100).size());
+
+        Patient renamed = patientService.getPatientById(ids.get(0)).orElseThrow();
+        renamed.setName("Renamed Person");
+        patientService.updatePatient(renamed.getId(), renamed);
+        patientService.deletePatient(ids.get(1));
+
+        // Stale postings must not bring back the old name or the deleted patient
+        assertMatchesAfterChanges(ids);
+        patientSearchIndex.rebuild();
+        assertMatchesAfterChanges(ids);
+    }
+
+    @Test
+    public void testRebuildPicksUpAnotherNodesWrites() {
+        // Written straight to the table, as another node would: this node's index never sees it
+        long id = idSequences.reserve(IdSequences.PATIENT, 1);
+        jdbcTemplate.update("INSERT INTO patient (id, version, pat_no, name, last_name_key) VALUES (?, 0, ?, ?, ?)",
+                id, "XN1", "Ximena Elsewhere", "elsewhere");
+        assertTrue(patientSearchIndex.search("elsewher", 10).isEmpty());
+
+        patientSearchIndex.rebuild();
+
+        assertEquals(List.of(id), patientSearchIndex.search("elsewher", 10));
+    }
+
+    private void assertMatchesAfterChanges(List<Long> ids) {
+        List<Long> matches = patientSearchIndex.search("quartzfield", 100);
+        assertEquals(28, matches.size());
+        assertFalse(matches.contains(ids.get(0)));
+        assertFalse(matches.contains(ids.get(1)));
+        assertEquals(List.of(ids.get(0)), patientSearchIndex.search("renamed pers", 10));
+    }
+
+    private static Patient patient(String patNo, String name) {
+        Patient patient = new Patient();
+        patient.setPatNo(patNo);
+        patient.setName(name);
+        return patient;
+    }
+}
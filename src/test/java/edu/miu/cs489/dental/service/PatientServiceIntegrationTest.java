@@ -1,5 +1,7 @@
 package edu.miu.cs489.dental.service;
 
+import edu.miu.cs489.dental.dto.CursorPage;
+import edu.miu.cs489.dental.dto.PatientWithAddressDto;
 import edu.miu.cs489.dental.model.Address;
 import edu.miu.cs489.dental.model.Patient;
 import edu.miu.cs489.dental.repository.AddressRepository;
@@ -13,6 +15,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -128,5 +132,81 @@ public class PatientServiceIntegrationTest {
         assertEquals("123 Test Street", retrievedPatient.getAddress().getStreet(),
                 "Address street should match");
     }
-}
 
+    /**
+     * Keyset paging walks every patient exactly once, in last-name order
+     */
+    @Test
+    public void testGetPatientsPage_WalksAllPatientsInLastNameOrder() {
+        List<Patient> expected = patientService.getAllPatients();
+
+        List<Patient> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Patient> page = patientService.getPatientsPage(1, cursor);
+            walked.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected.size(), walked.size(), "Paging should return every patient");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), walked.get(i).getId(), "Page order should match full listing");
+        }
+        for (int i = 1; i < walked.size(); i++) {
+            assertTrue(walked.get(i - 1).getLastNameKey().compareTo(walked.get(i).getLastNameKey()) <= 0,
+                    "Patients should be ordered by last name");
+        }
+    }
+
+    /**
+     * The projected listing and its pages carry the same rows, in the same order, as the entity listing
+     */
+    @Test
+    public void testGetPatientDtosPage_MatchesEntityListing() {
+        List<Patient> expected = patientService.getAllPatients();
+        assertEquals(expected.size(), patientService.getAllPatientDtos().size(), "Projection should list every patient");
+
+        List<PatientWithAddressDto> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<PatientWithAddressDto> page = patientService.getPatientDtosPage(2, cursor);
+            walked.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected.size(), walked.size(), "Paging should return every patient");
+        for (int i = 0; i < expected.size(); i++) {
+            Patient p = expected.get(i);
+            PatientWithAddressDto dto = walked.get(i);
+            assertEquals(p.getId(), dto.id(), "Page order should match entity listing");
+            assertEquals(p.getName(), dto.name());
+            if (p.getAddress() == null) {
+                assertNull(dto.address(), "Missing address should project to null");
+            } else {
+                assertEquals(p.getAddress().getId(), dto.address().id());
+                assertEquals(p.getAddress().getCity(), dto.address().city());
+            }
+        }
+    }
+
+    /**
+     * Patients created through the service are searchable by substring right away
+     */
+    @Test
+    public void testSearchPatients_FindsNewPatientBySubstring() {
+        Patient patient = new Patient();
+        patient.setPatNo("P4242");
+        patient.setName("Marguerite Quillfeather");
+        Patient created = patientService.createPatient(patient);
+
+        List<Patient> byName = patientService.searchPatients("illfeath");
+        assertTrue(byName.stream().anyMatch(p -> p.getId().equals(created.getId())), "Should match inside the name");
+
+        List<Patient> byPatNo = patientService.searchPatients("p4242", 1);
+        assertEquals(1, byPatNo.size(), "Limit should be applied");
+        assertEquals(created.getId(), byPatNo.get(0).getId(), "Exact patient number should rank first");
+
+        patientService.deletePatient(created.getId());
+        assertTrue(patientService.searchPatients("illfeath").isEmpty(), "Deleted patient should leave the index");
+    }
+}
@@ -0,0 +1,136 @@
+package edu.miu.cs489.dental.service;
+
+import edu.miu.cs489.dental.dto.PatientWithAddressDto;
+import edu.miu.cs489.dental.dto.SyncDto;
+import edu.miu.cs489.dental.model.Address;
+import edu.miu.cs489.dental.model.Dentist;
+import edu.miu.cs489.dental.model.Patient;
+import edu.miu.cs489.dental.repository.AddressRepository;
+import edu.miu.cs489.dental.repository.DentistRepository;
+import edu.miu.cs489.dental.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A sync returns only what changed after its token: new and updated rows, and tombstones for
+ * deleted ones. Rows from before the token must not come back, and a transaction that was still
+ * open when a token was issued is picked up by the next sync, however early it stamped its rows.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sync;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE")
+@ActiveProfiles("test")
+public class SyncServiceIntegrationTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private DentistRepository dentistRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void testChangesSinceToken() {
+        Patient unchanged = patient("SY1", "Sync Unchanged");
+        Patient updated = patient("SY2", "Sync Before");
+        Dentist deleted = new Dentist();
+        deleted.setDentistName("Dr Sync Deleted");
+        deleted = dentistRepository.save(deleted);
+
+        SyncDto first = syncService.changesSince(null);
+        assertTrue(first.full(), "A sync without a token returns everything");
+        assertTrue(first.patients().stream().anyMatch(p -> p.id().equals(unchanged.getId())));
+
+        Patient details = new Patient();
+        details.setPatNo("SY2");
+        details.setName("Sync After");
+        details.setAddress(updated.getAddress());
+        patientService.updatePatient(updated.getId(), details);
+        Patient created = patient("SY3", "Sync Created");
+        dentistRepository.deleteById(deleted.getId());
+
+        SyncDto delta = syncService.changesSince(first.token());
+        assertFalse(delta.full());
+        assertNotEquals(first.token(), delta.token());
+        assertEquals(2, delta.patients().size(), "Only the updated and the created patient: " + delta.patients());
+        assertTrue(delta.patients().stream().map(PatientWithAddressDto::name).anyMatch("Sync After"::equals));
+        assertTrue(delta.patients().stream().anyMatch(p -> p.id().equals(created.getId())));
+        assertTrue(delta.addresses().stream().anyMatch(a -> a.id().equals(created.getAddress().getId())));
+        assertTrue(delta.dentists().isEmpty());
+        assertEquals(new SyncDto.Deleted("dentists", deleted.getId()), delta.deleted().get(0));
+
+        SyncDto quiet = syncService.changesSince(delta.token());
+        assertTrue(quiet.patients().isEmpty() && quiet.deleted().isEmpty(), "Nothing changed since the last sync");
+    }
+
+    @Test
+    public void testLongTransactionCommittingAfterATokenIsNotMissed() {
+        Patient slow = patient("SY4", "Sync Slow");
+        Patient quick = patient("SY5", "Sync Quick");
+        String token = syncService.changesSince(null).token();
+
+        String[] tokenDuringSlow = new String[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            patientRepository.findById(slow.getId()).orElseThrow().setName("Sync Slow Renamed");
+            patientRepository.flush();
+            // Another writer commits and a client syncs while this transaction is still open
+            CompletableFuture.runAsync(() -> {
+                transactionTemplate.executeWithoutResult(inner ->
+                        patientRepository.findById(quick.getId()).orElseThrow().setName("Sync Quick Renamed"));
+                SyncDto during = syncService.changesSince(token);
+                assertEquals(List.of("Sync Quick Renamed"), during.patients().stream().map(PatientWithAddressDto::name).toList());
+                tokenDuringSlow[0] = during.token();
+            }).join();
+        });
+
+        SyncDto after = syncService.changesSince(tokenDuringSlow[0]);
+        assertEquals(List.of("Sync Slow Renamed"), after.patients().stream().map(PatientWithAddressDto::name).toList());
+    }
+
+    @Test
+    public void testTimestampTokenGetsFullSync() {
+        String legacy = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("v1:2025-01-01T00:00".getBytes(StandardCharsets.UTF_8));
+        assertTrue(syncService.changesSince(legacy).full());
+    }
+
+    @Test
+    public void testRejectsForeignToken() {
+        assertThrows(IllegalArgumentException.class, () -> syncService.changesSince("not-a-token"));
+    }
+
+    private Patient patient(String patNo, String name) {
+        Address address = new Address();
+        address.setStreet(patNo + " Sync St");
+        address.setCity("Fairfield");
+        address.setZipCode("52556");
+        Patient patient = new Patient();
+        patient.setPatNo(patNo);
+        patient.setName(name);
+        patient.setAddress(addressRepository.save(address));
+        return patientRepository.save(patient);
+    }
+}
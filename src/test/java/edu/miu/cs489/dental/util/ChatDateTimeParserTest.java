@@ -0,0 +1,35 @@
+package edu.miu.cs489.dental.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChatDateTimeParser
+ */
+public class ChatDateTimeParserTest {
+
+    @Test
+    public void testParse_AcceptedFormats() {
+        LocalDateTime expected = LocalDateTime.of(2025, 11, 3, 9, 30);
+
+        assertEquals(expected, ChatDateTimeParser.parse("2025-11-03T09:30:00"));
+        assertEquals(expected, ChatDateTimeParser.parse("2025-11-03 09:30"));
+        assertEquals(expected, ChatDateTimeParser.parse("2025-11-03T09:30"));
+        assertEquals(expected, ChatDateTimeParser.parse("11/03/2025 09:30"));
+    }
+
+    @Test
+    public void testParse_FallsBackToDayFirstWhenMonthIsOutOfRange() {
+        assertEquals(LocalDateTime.of(2025, 11, 23, 14, 0), ChatDateTimeParser.parse("23/11/2025 14:00"));
+    }
+
+    @Test
+    public void testParse_UnrecognizedReturnsNull() {
+        assertNull(ChatDateTimeParser.parse("tomorrow at 3pm"));
+        assertNull(ChatDateTimeParser.parse("2025-11-03 09:30 extra"));
+        assertNull(ChatDateTimeParser.parse(null));
+    }
+}
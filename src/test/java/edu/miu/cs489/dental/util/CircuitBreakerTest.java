@@ -0,0 +1,89 @@
+package edu.miu.cs489.dental.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CircuitBreaker: it opens after the threshold of failures in a row, lets a single
+ * trial through once the open period is over, and that trial closes or re-opens it.
+ */
+public class CircuitBreakerTest {
+
+    private static final long OPEN_MS = 50;
+
+    @Test
+    public void testOpensAfterThresholdOfConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, OPEN_MS);
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess(); // resets the run
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.isCallPermitted());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testSingleHalfOpenTrialThenClosesOnSuccess() throws InterruptedException {
+        CircuitBreaker breaker = open();
+
+        Thread.sleep(OPEN_MS + 10);
+        assertTrue(breaker.isCallPermitted());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(), "only one trial at a time");
+        assertFalse(breaker.isCallPermitted());
+
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testFailedTrialReopensAtOnce() throws InterruptedException {
+        CircuitBreaker breaker = open();
+
+        Thread.sleep(OPEN_MS + 10);
+        assertTrue(breaker.tryAcquire());
+        breaker.recordFailure(); // one failure is enough while half-open
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(), "a new open period starts");
+    }
+
+    @Test
+    public void testInconclusiveTrialIsHandedToTheNextCaller() throws InterruptedException {
+        CircuitBreaker breaker = open();
+
+        Thread.sleep(OPEN_MS + 10);
+        assertTrue(breaker.tryAcquire());
+        breaker.recordInconclusive();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire(), "no new open period");
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testInconclusiveWhileClosedCountsNeitherWay() {
+        CircuitBreaker breaker = new CircuitBreaker(2, OPEN_MS);
+
+        breaker.recordFailure();
+        breaker.recordInconclusive();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static CircuitBreaker open() {
+        CircuitBreaker breaker = new CircuitBreaker(1, OPEN_MS);
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+}
@@ -0,0 +1,49 @@
+package edu.miu.cs489.dental.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CsvReader quoting, line endings and line numbers
+ */
+public class CsvReaderTest {
+
+    @Test
+    public void testQuotedFieldsAndLineNumbers() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+                "patNo,name\r\n" +
+                "P1,\"Smith, John\"\r\n" +
+                "P2,\"Say \"\"hi\"\"\"\n" +
+                "P3,\"Two\nlines\"\n" +
+                "P4,\n"));
+
+        assertEquals(List.of("patNo", "name"), csv.next());
+        assertEquals(List.of("P1", "Smith, John"), csv.next());
+        assertEquals(2, csv.getRecordLine());
+        assertEquals(List.of("P2", "Say \"hi\""), csv.next());
+        assertEquals(List.of("P3", "Two\nlines"), csv.next());
+        assertEquals(List.of("P4", ""), csv.next());
+        assertEquals(6, csv.getRecordLine(), "A quoted line break counts as a line");
+        assertNull(csv.next());
+    }
+
+    @Test
+    public void testLastLineWithoutNewline() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\nc,d"));
+        assertEquals(List.of("a", "b"), csv.next());
+        assertEquals(List.of("c", "d"), csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    public void testUnterminatedQuoteIsAnError() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\n\"open,c\n"));
+        csv.next();
+        assertThrows(IllegalArgumentException.class, csv::next);
+    }
+}
@@ -0,0 +1,61 @@
+package edu.miu.cs489.dental.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IntervalTree overlap lookups
+ */
+public class IntervalTreeTest {
+
+    @Test
+    public void testFindOverlap_HalfOpenIntervals() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert(600, 630, 1L);
+        tree.insert(720, 750, 2L);
+
+        assertEquals(1L, tree.findOverlap(615, 645, null), "Overlapping slot should be found");
+        assertNull(tree.findOverlap(630, 660, null), "Back-to-back slots should not conflict");
+        assertNull(tree.findOverlap(615, 645, 1L), "Excluded id should be ignored");
+
+        assertTrue(tree.remove(600, 1L));
+        assertNull(tree.findOverlap(615, 645, null), "Removed slot should be free");
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    public void testFindOverlap_MatchesBruteForce() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        long[][] intervals = new long[500][];
+        for (int i = 0; i < intervals.length; i++) {
+            long start = random.nextInt(10_000);
+            intervals[i] = new long[]{start, start + 1 + random.nextInt(90)};
+            tree.insert(intervals[i][0], intervals[i][1], i);
+        }
+        for (int i = 0; i < intervals.length; i += 2) {
+            assertTrue(tree.remove(intervals[i][0], i));
+        }
+
+        for (int q = 0; q < 2_000; q++) {
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(90);
+            boolean expected = false;
+            for (int i = 1; i < intervals.length; i += 2) {
+                if (intervals[i][0] < end && start < intervals[i][1]) {
+                    expected = true;
+                    break;
+                }
+            }
+            Long found = tree.findOverlap(start, end, null);
+            assertEquals(expected, found != null, "Tree and brute force should agree");
+            if (found != null) {
+                int i = found.intValue();
+                assertTrue(i % 2 == 1 && intervals[i][0] < end && start < intervals[i][1]);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package edu.miu.cs489.dental.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.cs489.dental.dto.CursorPage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JsonArrayStreamer: pages are requested cursor by cursor, and each page has reached
+ * the client before the next one is read.
+ */
+public class JsonArrayStreamerTest {
+
+    private static final Map<String, CursorPage<Integer>> PAGES = Map.of(
+            "", new CursorPage<>(List.of(1, 2), "a"),
+            "a", new CursorPage<>(List.of(3, 4), "b"),
+            "b", new CursorPage<>(List.of(5), null));
+
+    @Test
+    public void testEachPageIsFlushedBeforeTheNextIsRead() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        // Only flushed bytes count as sent
+        ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+        OutputStream client = new OutputStream() {
+            @Override
+            public void write(int b) {
+                buffered.write(b);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                buffered.writeTo(received);
+                buffered.reset();
+            }
+        };
+        List<String> cursors = new ArrayList<>();
+        List<String> sentBeforeEachPage = new ArrayList<>();
+
+        JsonArrayStreamer.<Integer>response(objectMapper, after -> {
+            cursors.add(after);
+            sentBeforeEachPage.add(received.toString(StandardCharsets.UTF_8));
+            return PAGES.get(after == null ? "" : after);
+        }).getBody().writeTo(client);
+        client.flush();
+
+        assertEquals(Arrays.asList(null, "a", "b"), cursors);
+        assertEquals(List.of("", "[1,2", "[1,2,3,4"), sentBeforeEachPage);
+        assertEquals(List.of(1, 2, 3, 4, 5), Arrays.asList(objectMapper.readValue(received.toByteArray(), Integer[].class)));
+    }
+
+    @Test
+    public void testEmptyListingIsAnEmptyArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonArrayStreamer.<Integer>response(new ObjectMapper(), after -> new CursorPage<>(List.of(), null))
+                .getBody().writeTo(out);
+        assertEquals("[]", out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,50 @@
+package edu.miu.cs489.dental.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeywordAutomaton matching
+ */
+public class KeywordAutomatonTest {
+
+    private final KeywordAutomaton<String> automaton = KeywordAutomaton.<String>builder()
+            .add("find patient", "search_patient")
+            .add("all patients", "list_patients")
+            .add("patients", "mention")
+            .add("help", "help")
+            .build();
+
+    @Test
+    public void testFind_EarlierKeywordWinsOverEarlierOccurrence() {
+        KeywordAutomaton.Match<String> match = automaton.find("show all patients, or find patient Smith");
+
+        assertEquals("search_patient", match.value());
+        assertEquals(" Smith", "show all patients, or find patient Smith".substring(match.end()));
+    }
+
+    @Test
+    public void testFind_OverlappingKeywordsViaSuffixLinks() {
+        KeywordAutomaton.Match<String> match = automaton.find("list all patients");
+
+        assertEquals("list_patients", match.value(), "Longer keyword sharing a suffix should be found");
+        assertEquals(5, match.start());
+        assertEquals(17, match.end());
+    }
+
+    @Test
+    public void testFind_CaseInsensitiveWithOriginalOffsets() {
+        String message = "Please HELP me";
+        KeywordAutomaton.Match<String> match = automaton.find(message);
+
+        assertEquals("help", match.value());
+        assertEquals("HELP", message.substring(match.start(), match.end()));
+    }
+
+    @Test
+    public void testFind_NoMatch() {
+        assertNull(automaton.find("hello there"));
+        assertNull(automaton.find(""));
+    }
+}
@@ -0,0 +1,87 @@
+package edu.miu.cs489.dental.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PartialJsonScanner: text pieced together from chunks must match the parsed
+ * document however the chunks fall, including inside escape sequences.
+ */
+public class PartialJsonScannerTest {
+
+    private static final String DOCUMENT =
+            "{\"intent\": \"help\", \"response_message\": \"Line one\\nsaid \\\"hi\\\" \\\\ caf\\u00e9 " +
+            "tooth \\ud83e\\uddb7 done\\t.\", \"extracted_data\": {}}";
+
+    @Test
+    public void testEverySplitPointGivesTheParsedText() {
+        String expected = new Gson().fromJson(DOCUMENT, JsonObject.class).get("response_message").getAsString();
+        for (int split = 1; split < DOCUMENT.length(); split++) {
+            PartialJsonScanner scanner = new PartialJsonScanner();
+            StringBuilder streamed = new StringBuilder();
+            scanner.append(DOCUMENT.substring(0, split));
+            streamed.append(checkedText(scanner));
+            scanner.append(DOCUMENT.substring(split));
+            streamed.append(checkedText(scanner));
+            assertEquals(expected, streamed.toString(), "split at " + split);
+        }
+    }
+
+    @Test
+    public void testOneCharacterAtATime() {
+        PartialJsonScanner scanner = new PartialJsonScanner();
+        StringBuilder streamed = new StringBuilder();
+        for (char c : DOCUMENT.toCharArray()) {
+            scanner.append(String.valueOf(c));
+            streamed.append(checkedText(scanner));
+        }
+        assertEquals(new Gson().fromJson(DOCUMENT, JsonObject.class).get("response_message").getAsString(),
+                streamed.toString());
+    }
+
+    @Test
+    public void testEscapesAreHeldBackUntilComplete() {
+        PartialJsonScanner scanner = new PartialJsonScanner();
+        scanner.append("{\"response_message\": \"a\\");
+        assertEquals("a", scanner.newText("response_message"));
+        scanner.append("n\\u00");
+        assertEquals("\n", scanner.newText("response_message"));
+        scanner.append("e9\\ud83e");
+        assertEquals("é", scanner.newText("response_message"));
+        scanner.append("\\udd");
+        assertEquals("", scanner.newText("response_message"));
+        scanner.append("b7");
+        assertEquals("🦷", scanner.newText("response_message"));
+    }
+
+    @Test
+    public void testCompleteValueWaitsForClosingQuote() {
+        PartialJsonScanner scanner = new PartialJsonScanner();
+        scanner.append("{\"intent\": \"list_pat");
+        assertNull(scanner.completeValue("intent"));
+        scanner.append("ients\\");
+        assertNull(scanner.completeValue("intent"));
+        scanner.append("u0021\"");
+        assertEquals("list_patients!", scanner.completeValue("intent"));
+        assertNull(scanner.completeValue("response_message"));
+    }
+
+    @Test
+    public void testMalformedUnicodeEscapeIsKeptAsWritten() {
+        PartialJsonScanner scanner = new PartialJsonScanner();
+        scanner.append("{\"response_message\": \"x\\uZZZZy\"}");
+        assertEquals("x\\uZZZZy", scanner.newText("response_message"));
+    }
+
+    // The newly available text, which must never end in half a surrogate pair
+    private static String checkedText(PartialJsonScanner scanner) {
+        String text = scanner.newText("response_message");
+        if (!text.isEmpty()) {
+            assertFalse(Character.isHighSurrogate(text.charAt(text.length() - 1)), "half a character: " + text);
+        }
+        return text;
+    }
+}